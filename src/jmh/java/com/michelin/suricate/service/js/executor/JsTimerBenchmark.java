@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the timers when widget instances are constantly canceled and rescheduled, as done when a dashboard is
+ * refreshed or a widget instance is updated. The timer holds the given number of scheduled widget instances, with
+ * delays spread over the usual refresh delays of the widgets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsTimerBenchmark {
+    private static final long MAX_DELAY_SECONDS = 300;
+
+    private static final Runnable NO_OP = () -> {};
+
+    @Param({"10000", "50000", "100000"})
+    private int scheduledWidgetInstances;
+
+    @Param({"scheduled-executor", "hashed-wheel"})
+    private String timerType;
+
+    private JsTimer timer;
+
+    private AtomicReferenceArray<JsTimeout> timeouts;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /** Fill the timer with the scheduled widget instances. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        timer = "hashed-wheel".equals(timerType)
+                ? new HashedWheelJsTimer("js-timer", Duration.ofMillis(100), 512)
+                : new ScheduledExecutorJsTimer();
+
+        timeouts = new AtomicReferenceArray<>(scheduledWidgetInstances);
+        for (int i = 0; i < scheduledWidgetInstances; i++) {
+            timeouts.set(i, timer.schedule(NO_OP, randomDelay(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /** Stop the timer. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timer.stop();
+    }
+
+    /**
+     * Cancel and reschedule a widget instance from a single thread.
+     *
+     * @return The new timeout
+     */
+    @Benchmark
+    public JsTimeout cancelAndReschedule() {
+        return cancelAndRescheduleNext();
+    }
+
+    /**
+     * Cancel and reschedule widget instances from several threads, as concurrent dashboard updates do.
+     *
+     * @return The new timeout
+     */
+    @Benchmark
+    @Threads(4)
+    public JsTimeout cancelAndRescheduleContended() {
+        return cancelAndRescheduleNext();
+    }
+
+    /**
+     * Cancel the timeout of the next widget instance and schedule a new one.
+     *
+     * @return The new timeout
+     */
+    private JsTimeout cancelAndRescheduleNext() {
+        int index = Math.floorMod(cursor.getAndIncrement(), scheduledWidgetInstances);
+        JsTimeout timeout = timer.schedule(NO_OP, randomDelay(), TimeUnit.MILLISECONDS);
+
+        timeouts.getAndSet(index, timeout).cancel();
+
+        return timeout;
+    }
+
+    /**
+     * Draw a delay between 1 second and the maximum delay.
+     *
+     * @return The delay, in milliseconds
+     */
+    private static long randomDelay() {
+        return ThreadLocalRandom.current().nextLong(1000, TimeUnit.SECONDS.toMillis(MAX_DELAY_SECONDS));
+    }
+}
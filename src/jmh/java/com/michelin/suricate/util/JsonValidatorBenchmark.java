@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the validation of a widget execution result between building a tree with a new object mapper, as done
+ * before, and walking the tokens with the shared streaming validator. Run with -prof gc to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonValidatorBenchmark {
+    @Param({"1", "100", "10000"})
+    private int items;
+
+    private String json;
+
+    /** Build a result made of the given number of items, about 50 characters each. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = "{\"items\":["
+                + StringUtils.repeat("{\"name\":\"build-pipeline\",\"status\":\"SUCCESS\",\"ms\":1234}", ",", items)
+                + "]}";
+    }
+
+    /**
+     * Validate the result by building a tree with a new object mapper.
+     *
+     * @return True if the result is valid
+     */
+    @Benchmark
+    public boolean objectMapperTree() {
+        try {
+            new ObjectMapper().readTree(json);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Validate the result by walking its tokens.
+     *
+     * @return True if the result is valid
+     */
+    @Benchmark
+    public boolean streamingValidator() {
+        return JsonValidator.DEFAULT.isValid(json);
+    }
+}
@@ -20,6 +20,7 @@ package com.michelin.suricate;
 
 import com.michelin.suricate.property.ApplicationProperties;
 import com.michelin.suricate.property.ProxyProperties;
+import com.michelin.suricate.service.api.SecretMigrationService;
 import com.michelin.suricate.service.git.GitService;
 import jakarta.annotation.PostConstruct;
 import java.io.File;
@@ -56,6 +57,9 @@ public class BackendApplication {
     @Autowired
     private ProxyProperties proxyConfiguration;
 
+    @Autowired
+    private SecretMigrationService secretMigrationService;
+
     /**
      * Main Spring Boot class.
      *
@@ -116,5 +120,8 @@ public class BackendApplication {
 
         // Update widgets
         gitService.updateWidgetFromEnabledGitRepositoriesAsync();
+
+        // Encrypt again the stored secrets with the current codec
+        secretMigrationService.migrateSecretsAsync();
     }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.jasypt.encryption.StringEncryptor;
+import org.jasypt.exceptions.EncryptionInitializationException;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+
+/**
+ * String encryptor using AES-GCM.
+ *
+ * <p>The key is derived from the password once, at creation, instead of at each operation. The encrypted messages are
+ * prefixed by {@link #PREFIX}, followed by the URL-safe Base64 encoding of the random IV and the ciphertext.
+ */
+public class AesGcmStringEncryptor implements StringEncryptor {
+    /** Prefix of the messages encrypted with AES-GCM. */
+    public static final String PREFIX = "v2:";
+
+    private static final String KEY_DERIVATION_ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final byte[] KEY_DERIVATION_SALT = "suricate-widget-secrets".getBytes(StandardCharsets.UTF_8);
+
+    private static final int KEY_DERIVATION_ITERATIONS = 310000;
+
+    private static final int KEY_LENGTH = 256;
+
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 128;
+
+    private final SecretKey key;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Constructor.
+     *
+     * @param password The password the key is derived from
+     */
+    public AesGcmStringEncryptor(String password) {
+        try {
+            PBEKeySpec keySpec =
+                    new PBEKeySpec(password.toCharArray(), KEY_DERIVATION_SALT, KEY_DERIVATION_ITERATIONS, KEY_LENGTH);
+            byte[] encodedKey = SecretKeyFactory.getInstance(KEY_DERIVATION_ALGORITHM)
+                    .generateSecret(keySpec)
+                    .getEncoded();
+            keySpec.clearPassword();
+
+            this.key = new SecretKeySpec(encodedKey, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionInitializationException(e);
+        }
+    }
+
+    /**
+     * Check if a message has been encrypted with AES-GCM.
+     *
+     * @param encryptedMessage The encrypted message
+     * @return true if the message has the AES-GCM prefix
+     */
+    public static boolean isEncrypted(String encryptedMessage) {
+        return encryptedMessage != null && encryptedMessage.startsWith(PREFIX);
+    }
+
+    /**
+     * Encrypt a message.
+     *
+     * @param message The message to encrypt
+     * @return The encrypted message
+     */
+    @Override
+    public String encrypt(String message) {
+        if (message == null) {
+            return null;
+        }
+
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] ciphertext = cipher.doFinal(message.getBytes(StandardCharsets.UTF_8));
+
+            byte[] encrypted = ByteBuffer.allocate(iv.length + ciphertext.length)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array();
+
+            return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(encrypted);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+    }
+
+    /**
+     * Decrypt a message encrypted with AES-GCM.
+     *
+     * @param encryptedMessage The message to decrypt
+     * @return The decrypted message
+     */
+    @Override
+    public String decrypt(String encryptedMessage) {
+        if (encryptedMessage == null) {
+            return null;
+        }
+
+        if (!isEncrypted(encryptedMessage)) {
+            throw new EncryptionOperationNotPossibleException("The message has not been encrypted with AES-GCM");
+        }
+
+        try {
+            byte[] encrypted = Base64.getUrlDecoder().decode(encryptedMessage.substring(PREFIX.length()));
+
+            if (encrypted.length < IV_LENGTH) {
+                throw new EncryptionOperationNotPossibleException("The encrypted message is truncated");
+            }
+
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, encrypted, 0, IV_LENGTH));
+            byte[] message = cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+
+            return new String(message, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new EncryptionOperationNotPossibleException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import org.jasypt.encryption.StringEncryptor;
+
+/**
+ * String encryptor keeping the decrypted messages in a bounded in-memory cache.
+ *
+ * <p>The decryption derives the key from the password for each message, which is costly when the widget secrets are
+ * decrypted at each execution. The cache is keyed by the encrypted message, so an updated secret is never served from
+ * a stale entry, and the replaced secrets are evicted by their owners.
+ *
+ * <p>The encryption is only cached for a deterministic encryptor, like the one of the ids, as the other ones use a
+ * random salt. The encrypted messages are then also cached for the decryption, so both directions cost a single
+ * encryption.
+ */
+public class CachingStringEncryptor implements StringEncryptor {
+    private final StringEncryptor delegate;
+
+    private final LoadingCache<String, String> decryptedMessages;
+
+    private final LoadingCache<String, String> encryptedMessages;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The string encryptor performing the encryption and the decryption
+     * @param maxSize The maximum number of decrypted messages to keep
+     * @param expireAfterAccess The duration after which an unused decrypted message is evicted
+     */
+    public CachingStringEncryptor(StringEncryptor delegate, long maxSize, Duration expireAfterAccess) {
+        this(delegate, maxSize, expireAfterAccess, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The string encryptor performing the encryption and the decryption
+     * @param maxSize The maximum number of messages to keep in each direction
+     * @param expireAfterAccess The duration after which an unused message is evicted
+     * @param deterministic true if the delegate always encrypts a message the same way, to also cache the encryption
+     */
+    public CachingStringEncryptor(
+            StringEncryptor delegate, long maxSize, Duration expireAfterAccess, boolean deterministic) {
+        this.delegate = delegate;
+        this.decryptedMessages = buildCache(maxSize, expireAfterAccess, CacheLoader.from(delegate::decrypt));
+        this.encryptedMessages =
+                deterministic ? buildCache(maxSize, expireAfterAccess, CacheLoader.from(delegate::encrypt)) : null;
+    }
+
+    /**
+     * Build a bounded cache of messages.
+     *
+     * @param maxSize The maximum number of messages to keep
+     * @param expireAfterAccess The duration after which an unused message is evicted
+     * @param loader The loader of the missing messages
+     * @return The cache
+     */
+    private static LoadingCache<String, String> buildCache(
+            long maxSize, Duration expireAfterAccess, CacheLoader<String, String> loader) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build(loader);
+    }
+
+    /**
+     * Encrypt a message, from the cache if the delegate is deterministic and the message has already been encrypted.
+     *
+     * @param message The message to encrypt
+     * @return The encrypted message
+     */
+    @Override
+    public String encrypt(String message) {
+        if (encryptedMessages == null || message == null) {
+            return delegate.encrypt(message);
+        }
+
+        String encryptedMessage = get(encryptedMessages, message);
+        decryptedMessages.asMap().putIfAbsent(encryptedMessage, message);
+        return encryptedMessage;
+    }
+
+    /**
+     * Decrypt a message, from the cache if it has already been decrypted.
+     *
+     * @param encryptedMessage The message to decrypt
+     * @return The decrypted message
+     */
+    @Override
+    public String decrypt(String encryptedMessage) {
+        if (encryptedMessage == null) {
+            return delegate.decrypt(null);
+        }
+
+        return get(decryptedMessages, encryptedMessage);
+    }
+
+    /**
+     * Get a message from a cache, loading it if missing.
+     *
+     * @param messages The cache
+     * @param key The key of the message
+     * @return The message
+     */
+    private static String get(LoadingCache<String, String> messages, String key) {
+        try {
+            return messages.getUnchecked(key);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Evict a replaced encrypted message and its decrypted message, so a replaced secret does not stay in memory until
+     * it expires.
+     *
+     * @param encryptedMessage The replaced encrypted message
+     */
+    public void evict(String encryptedMessage) {
+        if (encryptedMessage == null) {
+            return;
+        }
+
+        String message = decryptedMessages.asMap().remove(encryptedMessage);
+
+        if (encryptedMessages != null && message != null) {
+            encryptedMessages.asMap().remove(message, encryptedMessage);
+        }
+    }
+
+    /**
+     * Get the number of decrypted messages in the cache.
+     *
+     * @return The number of decrypted messages
+     */
+    public long size() {
+        return decryptedMessages.size();
+    }
+}
@@ -18,10 +18,13 @@
  */
 package com.michelin.suricate.configuration.encoder;
 
+import com.michelin.suricate.property.ApplicationProperties;
 import com.ulisesbocchio.jasyptspringboot.annotation.EnableEncryptableProperties;
+import java.time.Duration;
 import org.jasypt.encryption.StringEncryptor;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,24 +33,34 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @EnableEncryptableProperties
 public class StringEncryptorConfiguration {
+    private static final Duration DECRYPTED_MESSAGES_EXPIRATION = Duration.ofHours(1);
+
+    private static final Duration TOKENS_EXPIRATION = Duration.ofDays(1);
+
+    private static final String AES_GCM_CODEC = "aes-gcm";
+
     /** String encryptor password. */
     @Value("${jasypt.encryptor.password}")
     private String encryptorPassword;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     /**
      * Method used to create a String encryptor.
      *
      * @param encryptorPassword encryptor password
      * @param saltGeneratorClassName salt class name
+     * @param poolSize number of ciphers used concurrently
      * @return The encryptor
      */
     private static PooledPBEStringEncryptor getPooledPbeStringEncryptor(
-            String encryptorPassword, String saltGeneratorClassName) {
+            String encryptorPassword, String saltGeneratorClassName, int poolSize) {
         SimpleStringPBEConfig config = new SimpleStringPBEConfig();
         config.setPassword(encryptorPassword);
         config.setAlgorithm("PBEWithMD5AndDES");
         config.setKeyObtentionIterations("1000");
-        config.setPoolSize("1");
+        config.setPoolSize(Math.max(1, poolSize));
         config.setProviderName("SunJCE");
         config.setSaltGeneratorClassName(saltGeneratorClassName);
         config.setStringOutputType("hexadecimal");
@@ -58,22 +71,50 @@ public class StringEncryptorConfiguration {
     }
 
     /**
-     * Configure the default string encryptor without salt.
+     * Configure the default string encryptor without salt. It encrypts the ids in the tokens of the assets and the
+     * libraries, so the tokens are cached in both directions.
      *
      * @return The default encryptor
      */
     @Bean(name = "noSaltEncryptor")
     public StringEncryptor stringEncryptor() {
-        return getPooledPbeStringEncryptor(encryptorPassword, "org.jasypt.salt.ZeroSaltGenerator");
+        return new CachingStringEncryptor(
+                getPooledPbeStringEncryptor(
+                        encryptorPassword,
+                        "org.jasypt.salt.ZeroSaltGenerator",
+                        applicationProperties.getEncryptor().getPoolSize()),
+                applicationProperties.getEncryptor().getTokenCacheMaxSize(),
+                TOKENS_EXPIRATION,
+                true);
+    }
+
+    /**
+     * String encryptor encrypting with the configured codec, and decrypting both the Jasypt and the AES-GCM messages.
+     *
+     * @return The string encryptor
+     */
+    @Bean
+    public VersionedStringEncryptor versionedStringEncryptor() {
+        return new VersionedStringEncryptor(
+                getPooledPbeStringEncryptor(
+                        encryptorPassword,
+                        "org.jasypt.salt.RandomSaltGenerator",
+                        applicationProperties.getEncryptor().getPoolSize()),
+                new AesGcmStringEncryptor(encryptorPassword),
+                AES_GCM_CODEC.equals(applicationProperties.getEncryptor().getCodec()));
     }
 
     /**
-     * Default string encryptor.
+     * Default string encryptor. The decrypted messages are cached, as the widget secrets are decrypted at each
+     * execution.
      *
      * @return The string encryptor
      */
     @Bean("jasyptStringEncryptor")
-    public StringEncryptor defaultStringEncryptor() {
-        return getPooledPbeStringEncryptor(encryptorPassword, "org.jasypt.salt.RandomSaltGenerator");
+    public CachingStringEncryptor defaultStringEncryptor() {
+        return new CachingStringEncryptor(
+                versionedStringEncryptor(),
+                applicationProperties.getEncryptor().getCacheMaxSize(),
+                DECRYPTED_MESSAGES_EXPIRATION);
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import org.jasypt.encryption.StringEncryptor;
+
+/**
+ * String encryptor choosing the codec from the version prefix of the encrypted messages.
+ *
+ * <p>The messages are encrypted with the current codec. The messages encrypted with AES-GCM are recognized by their
+ * prefix, and the other ones are decrypted with the Jasypt encryptor, so both kinds of stored values keep decrypting
+ * whatever the current codec.
+ */
+public class VersionedStringEncryptor implements StringEncryptor {
+    private final StringEncryptor jasyptEncryptor;
+
+    private final AesGcmStringEncryptor aesGcmEncryptor;
+
+    private final boolean aesGcmCodec;
+
+    /**
+     * Constructor.
+     *
+     * @param jasyptEncryptor The Jasypt encryptor
+     * @param aesGcmEncryptor The AES-GCM encryptor
+     * @param aesGcmCodec true to encrypt the messages with AES-GCM, false with Jasypt
+     */
+    public VersionedStringEncryptor(
+            StringEncryptor jasyptEncryptor, AesGcmStringEncryptor aesGcmEncryptor, boolean aesGcmCodec) {
+        this.jasyptEncryptor = jasyptEncryptor;
+        this.aesGcmEncryptor = aesGcmEncryptor;
+        this.aesGcmCodec = aesGcmCodec;
+    }
+
+    /**
+     * Encrypt a message with the current codec.
+     *
+     * @param message The message to encrypt
+     * @return The encrypted message
+     */
+    @Override
+    public String encrypt(String message) {
+        return aesGcmCodec ? aesGcmEncryptor.encrypt(message) : jasyptEncryptor.encrypt(message);
+    }
+
+    /**
+     * Decrypt a message with the codec it has been encrypted with.
+     *
+     * @param encryptedMessage The message to decrypt
+     * @return The decrypted message
+     */
+    @Override
+    public String decrypt(String encryptedMessage) {
+        return AesGcmStringEncryptor.isEncrypted(encryptedMessage)
+                ? aesGcmEncryptor.decrypt(encryptedMessage)
+                : jasyptEncryptor.decrypt(encryptedMessage);
+    }
+
+    /**
+     * Check if a message has been encrypted with the current codec.
+     *
+     * @param encryptedMessage The encrypted message
+     * @return true if the message does not need to be encrypted again
+     */
+    public boolean isCurrent(String encryptedMessage) {
+        return AesGcmStringEncryptor.isEncrypted(encryptedMessage) == aesGcmCodec;
+    }
+}
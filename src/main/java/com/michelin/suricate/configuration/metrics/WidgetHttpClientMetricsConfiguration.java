@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.metrics;
+
+import com.michelin.suricate.util.http.ConditionalCacheInterceptor;
+import com.michelin.suricate.util.http.OkHttpClientUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToLongFunction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Metrics of the outbound HTTP client used by the widgets. */
+@Configuration
+public class WidgetHttpClientMetricsConfiguration {
+    private static final String CACHE_REQUESTS = "suricate.widgets.http.cache.requests";
+
+    private static final String CACHE_SIZE = "suricate.widgets.http.cache.size";
+
+    /**
+     * Expose the hit, miss and revalidation counters of the widgets response cache.
+     *
+     * @return The meter binder
+     */
+    @Bean
+    @ConditionalOnProperty(name = "application.widgets.http-client.cache.enabled", havingValue = "true")
+    public MeterBinder widgetHttpCacheMetrics() {
+        return registry -> {
+            registerCacheCounter(registry, "hit", ConditionalCacheInterceptor::getHitCount);
+            registerCacheCounter(registry, "miss", ConditionalCacheInterceptor::getMissCount);
+            registerCacheCounter(registry, "revalidation", ConditionalCacheInterceptor::getRevalidationCount);
+
+            Gauge.builder(CACHE_SIZE, OkHttpClientUtils.class, c -> read(ConditionalCacheInterceptor::getSize))
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Register a counter of the widgets response cache requests.
+     *
+     * @param registry The meter registry
+     * @param result The request result
+     * @param reader The counter reader
+     */
+    private static void registerCacheCounter(
+            MeterRegistry registry, String result, ToLongFunction<ConditionalCacheInterceptor> reader) {
+        FunctionCounter.builder(CACHE_REQUESTS, OkHttpClientUtils.class, c -> read(reader))
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Read a value of the widgets response cache.
+     *
+     * @param reader The value reader
+     * @return The value, or 0 if the cache is disabled
+     */
+    private static double read(ToLongFunction<ConditionalCacheInterceptor> reader) {
+        ConditionalCacheInterceptor responseCache = OkHttpClientUtils.getResponseCache();
+        return responseCache != null ? reader.applyAsLong(responseCache) : 0;
+    }
+}
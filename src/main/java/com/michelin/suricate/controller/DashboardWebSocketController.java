@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.controller;
+
+import com.michelin.suricate.model.dto.websocket.DisplayedGridDto;
+import com.michelin.suricate.service.websocket.DashboardWebSocketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/** Dashboard websocket controller, handling the messages sent by the screens. */
+@Controller
+public class DashboardWebSocketController {
+    @Autowired
+    private DashboardWebSocketService dashboardWebSocketService;
+
+    /**
+     * Receive the grid currently displayed by a screen of a rotating dashboard.
+     *
+     * @param displayedGridDto The displayed grid
+     * @param headerAccessor The headers of the message, holding the websocket session of the screen
+     */
+    @MessageMapping("/screens/displayed-grid")
+    public void updateDisplayedGrid(
+            @Payload DisplayedGridDto displayedGridDto, SimpMessageHeaderAccessor headerAccessor) {
+        dashboardWebSocketService.updateDisplayedGrid(headerAccessor.getSessionId(), displayedGridDto);
+    }
+}
@@ -19,6 +19,7 @@
 package com.michelin.suricate.controller;
 
 import com.michelin.suricate.model.dto.api.error.ApiErrorDto;
+import com.michelin.suricate.model.dto.api.widget.CircuitBreakerResponseDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetRequestDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetResponseDto;
 import com.michelin.suricate.model.entity.Widget;
@@ -33,6 +34,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
+import java.util.List;
 import java.util.Optional;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -168,4 +170,30 @@ public class WidgetController {
 
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Get the circuit breakers of the hosts called by the widgets.
+     *
+     * @return The circuit breakers
+     */
+    @Operation(summary = "Get the circuit breakers of the hosts called by the widgets")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "OK"),
+                @ApiResponse(
+                        responseCode = "401",
+                        description = "Authentication error, token expired or invalid",
+                        content = {@Content(schema = @Schema(implementation = ApiErrorDto.class))}),
+                @ApiResponse(
+                        responseCode = "403",
+                        description = "You don't have permission to access to this resource",
+                        content = {@Content(schema = @Schema(implementation = ApiErrorDto.class))})
+            })
+    @GetMapping(value = "/v1/widgets/circuit-breakers")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<CircuitBreakerResponseDto>> getCircuitBreakers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(widgetMapper.toCircuitBreakersDtos(widgetService.getHostCircuits()));
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.model.dto.api.widget;
+
+import com.michelin.suricate.model.dto.api.AbstractDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Date;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** Circuit breaker response DTO. */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Schema(description = "Describe the circuit breaker of a host called by the widgets")
+public class CircuitBreakerResponseDto extends AbstractDto {
+    @Schema(description = "The host called by the widgets", example = "api.github.com")
+    private String host;
+
+    @Schema(description = "The state of the circuit", example = "CLOSED")
+    private String state;
+
+    @Schema(description = "The number of consecutive failed requests", example = "0")
+    private int consecutiveFailures;
+
+    @Schema(description = "The time at which the circuit has been opened")
+    private Date openedDate;
+}
@@ -58,6 +58,12 @@ public class WidgetResponseDto extends AbstractDto {
     @Schema(description = "Timeout for Js execution (prevent infinity loop)", example = "30")
     private Long timeout;
 
+    @Schema(description = "Back off the delay between each execution while the data does not change")
+    private boolean adaptiveDelay;
+
+    @Schema(description = "Maximum number of bytes of console output kept for each execution", example = "65536")
+    private Integer outputCapacity;
+
     @Schema(description = "A representation by an image of the widget")
     private String imageToken;
 
@@ -43,6 +43,8 @@ public class JsExecutionDto extends AbstractDto {
     private WidgetStateEnum widgetState;
     private boolean alreadySuccess;
     private Long timeout;
+    private boolean adaptiveDelay;
+    private Integer outputCapacity;
 
     /**
      * Constructor.
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.model.dto.js;
+
+import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import java.util.Date;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Pending write of a Js result to a widget instance. */
+@Getter
+@Builder
+@ToString(exclude = {"log", "data"})
+public class JsResultWriteDto {
+    private Long projectWidgetId;
+    private Date lastExecutionDate;
+    private Date lastSuccessDate;
+    private WidgetStateEnum state;
+    private boolean logUpdated;
+    private String log;
+    private boolean dataUpdated;
+    private String data;
+
+    /**
+     * Build the write of a succeeded execution.
+     *
+     * @param executionDate The execution date
+     * @param log The execution log
+     * @param data The execution data
+     * @param projectWidgetId The widget instance id
+     * @param state The widget state
+     * @return The write
+     */
+    public static JsResultWriteDto succeeded(
+            Date executionDate, String log, String data, Long projectWidgetId, WidgetStateEnum state) {
+        return JsResultWriteDto.builder()
+                .projectWidgetId(projectWidgetId)
+                .lastExecutionDate(executionDate)
+                .lastSuccessDate(executionDate)
+                .state(state)
+                .logUpdated(true)
+                .log(log)
+                .dataUpdated(true)
+                .data(data)
+                .build();
+    }
+
+    /**
+     * Build the write of a succeeded execution whose data and log are unchanged.
+     *
+     * @param executionDate The execution date
+     * @param projectWidgetId The widget instance id
+     * @param state The widget state
+     * @return The write
+     */
+    public static JsResultWriteDto unchanged(Date executionDate, Long projectWidgetId, WidgetStateEnum state) {
+        return JsResultWriteDto.builder()
+                .projectWidgetId(projectWidgetId)
+                .lastExecutionDate(executionDate)
+                .lastSuccessDate(executionDate)
+                .state(state)
+                .build();
+    }
+
+    /**
+     * Build the write of a failed execution.
+     *
+     * @param executionDate The execution date
+     * @param log The execution log
+     * @param projectWidgetId The widget instance id
+     * @param state The widget state
+     * @return The write
+     */
+    public static JsResultWriteDto failed(
+            Date executionDate, String log, Long projectWidgetId, WidgetStateEnum state) {
+        return JsResultWriteDto.builder()
+                .projectWidgetId(projectWidgetId)
+                .lastExecutionDate(executionDate)
+                .state(state)
+                .logUpdated(true)
+                .log(log)
+                .build();
+    }
+
+    /**
+     * Merge a later write of the same widget instance into this one. The later write wins, and the columns it does
+     * not update keep the value of this write, so the merged write leaves the widget instance as both writes would.
+     *
+     * @param next The later write
+     * @return The merged write
+     */
+    public JsResultWriteDto merge(JsResultWriteDto next) {
+        return JsResultWriteDto.builder()
+                .projectWidgetId(projectWidgetId)
+                .lastExecutionDate(next.lastExecutionDate)
+                .lastSuccessDate(next.lastSuccessDate != null ? next.lastSuccessDate : lastSuccessDate)
+                .state(next.state)
+                .logUpdated(logUpdated || next.logUpdated)
+                .log(next.logUpdated ? next.log : log)
+                .dataUpdated(dataUpdated || next.dataUpdated)
+                .data(next.dataUpdated ? next.data : data)
+                .build();
+    }
+}
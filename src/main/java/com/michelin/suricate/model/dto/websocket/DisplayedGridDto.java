@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.model.dto.websocket;
+
+import com.michelin.suricate.model.dto.api.AbstractDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Displayed grid reported by a screen. */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Schema(name = "DisplayedGrid", description = "Define the grid currently displayed by a screen")
+public class DisplayedGridDto extends AbstractDto {
+    @Schema(description = "The ID of the displayed grid", example = "1")
+    private Long gridId;
+
+    @Schema(description = "The ID of the next grid of the rotation", example = "2")
+    private Long nextGridId;
+
+    @Schema(description = "The delay before the next grid is displayed, in seconds", example = "30")
+    private Long time;
+}
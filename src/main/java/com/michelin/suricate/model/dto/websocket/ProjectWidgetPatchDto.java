@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.model.dto.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.michelin.suricate.model.dto.api.AbstractDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Changes of a widget instance since the previous update sent to the screens. */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@ToString
+@Schema(name = "ProjectWidgetPatch", description = "Define the changes of a widget instance since the previous update")
+public class ProjectWidgetPatchDto extends AbstractDto {
+    @Schema(description = "The project widget id", example = "1")
+    private Long projectWidgetId;
+
+    @Schema(description = "The sequence number of the update, following the one of the previous update", example = "2")
+    private long sequence;
+
+    @Schema(description = "The JSON Patch (RFC 6902) to apply to the widget instance of the previous update")
+    private JsonNode patch;
+}
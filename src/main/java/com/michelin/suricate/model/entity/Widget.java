@@ -22,6 +22,7 @@ import com.michelin.suricate.model.entity.generic.AbstractAuditingEntity;
 import com.michelin.suricate.model.enumeration.WidgetAvailabilityEnum;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -42,6 +43,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.type.YesNoConverter;
 
 /** Widget entity. */
 @Entity
@@ -81,6 +83,13 @@ public class Widget extends AbstractAuditingEntity<Long> {
     @Column
     private Long timeout;
 
+    @Column(nullable = false)
+    @Convert(converter = YesNoConverter.class)
+    private boolean adaptiveDelay;
+
+    @Column
+    private Integer outputCapacity;
+
     @Column
     @Enumerated(EnumType.STRING)
     private WidgetAvailabilityEnum widgetAvailability;
@@ -22,6 +22,7 @@ package com.michelin.suricate.model.enumeration;
 public enum UpdateType {
     REFRESH_DASHBOARD,
     REFRESH_WIDGET,
+    PATCH_WIDGET,
     CONNECT_DASHBOARD,
     RELOAD,
     DISPLAY_NUMBER,
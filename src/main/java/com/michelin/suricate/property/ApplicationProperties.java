@@ -40,6 +40,7 @@ import org.springframework.web.cors.CorsConfiguration;
 public class ApplicationProperties {
     private CorsConfiguration cors;
     private Authentication authentication;
+    private Encryptor encryptor = new Encryptor();
     private Ssl ssl;
     private Widgets widgets;
     private Swagger swagger;
@@ -133,6 +134,162 @@ public class ApplicationProperties {
         @NotNull private boolean updateEnable;
 
         private String cloneDir = "/tmp";
+
+        private Execution execution = new Execution();
+
+        private HttpClient httpClient = new HttpClient();
+
+        private DeltaUpdate deltaUpdate = new DeltaUpdate();
+    }
+
+    /** Widgets websocket delta update properties. */
+    @Getter
+    @Setter
+    public static class DeltaUpdate {
+        private boolean enabled;
+    }
+
+    /** Widgets outbound HTTP client properties. */
+    @Getter
+    @Setter
+    public static class HttpClient {
+        private int maxIdleConnections = 20;
+        private long keepAlive = 300;
+        private int maxRequests = 256;
+        private int maxRequestsPerHost = 32;
+        private long dnsCacheTtl = 60;
+        private ResponseCache cache = new ResponseCache();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    }
+
+    /** Widgets outbound HTTP circuit breaker properties. */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled;
+        private int failureThreshold = 5;
+        private long openDuration = 30;
+    }
+
+    /** Widgets outbound HTTP response cache properties. */
+    @Getter
+    @Setter
+    public static class ResponseCache {
+        private boolean enabled;
+        private long maxSize = 33554432;
+    }
+
+    /** Widgets execution properties. */
+    @Getter
+    @Setter
+    public static class Execution {
+        @Pattern(regexp = "platform|virtual") private String mode = "platform";
+
+        private int poolSize = 60;
+        private int maxConcurrency = 1000;
+        private long statementLimit;
+        private int outputCapacity = 1048576;
+        private AdaptiveDelay adaptiveDelay = new AdaptiveDelay();
+        private ChangeDetection changeDetection = new ChangeDetection();
+        private ContextPool contextPool = new ContextPool();
+        private GridVisibility gridVisibility = new GridVisibility();
+        private LoadLeveling loadLeveling = new LoadLeveling();
+        private ExecutionTimer timer = new ExecutionTimer();
+        private Coalescing coalescing = new Coalescing();
+        private JsonValidation jsonValidation = new JsonValidation();
+        private WriteBehind writeBehind = new WriteBehind();
+    }
+
+    /** Widgets adaptive delay properties. */
+    @Getter
+    @Setter
+    public static class AdaptiveDelay {
+        private boolean enabled;
+        private double multiplier = 2;
+        private long maxDelay = 600;
+    }
+
+    /** Widgets execution coalescing properties. */
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled;
+        private long window = 10;
+    }
+
+    /** Widgets execution grid visibility properties. */
+    @Getter
+    @Setter
+    public static class GridVisibility {
+        private boolean enabled;
+        private double hiddenDelayMultiplier = 5;
+        private long preRefreshLead = 10;
+    }
+
+    /** Widgets execution load leveling properties. */
+    @Getter
+    @Setter
+    public static class LoadLeveling {
+        private boolean enabled;
+        private long initialSpread = 10;
+    }
+
+    /** Widgets execution timer properties. */
+    @Getter
+    @Setter
+    public static class ExecutionTimer {
+        @Pattern(regexp = "scheduled-executor|hashed-wheel") private String type = "scheduled-executor";
+
+        private long tickDuration = 100;
+        private int ticksPerWheel = 512;
+    }
+
+    /** Widgets execution results change detection properties. */
+    @Getter
+    @Setter
+    public static class ChangeDetection {
+        private boolean enabled;
+    }
+
+    /** Widgets execution results JSON validation properties. */
+    @Getter
+    @Setter
+    public static class JsonValidation {
+        private long maxSize;
+        private int maxDepth = 1000;
+    }
+
+    /** Widgets execution results write-behind properties. */
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        private boolean enabled;
+        private long flushInterval = 200;
+        private int maxBatchSize = 500;
+        private boolean flushOnShutdown = true;
+        private int callbackPoolSize = 4;
+        private int maxRetries = 3;
+        private boolean rescheduleAfterCommit;
+    }
+
+    /** Widgets JavaScript context pool properties. */
+    @Getter
+    @Setter
+    public static class ContextPool {
+        private boolean enabled;
+        private long idleTimeout = 300;
+    }
+
+    /** Secrets encryptor properties. */
+    @Getter
+    @Setter
+    public static class Encryptor {
+        @Pattern(regexp = "jasypt|aes-gcm") private String codec = "jasypt";
+
+        private int poolSize = 4;
+        private long cacheMaxSize = 1000;
+        private long tokenCacheMaxSize = 10000;
+        private boolean migrate;
     }
 
     /** Swagger properties. */
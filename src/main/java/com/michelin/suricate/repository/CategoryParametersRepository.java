@@ -23,6 +23,9 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** Category parameters repository. */
@@ -37,4 +40,26 @@ public interface CategoryParametersRepository
      * @return The list of category parameters
      */
     Optional<List<CategoryParameter>> findCategoryParametersByCategoryId(Long categoryId);
+
+    /**
+     * Get the value of a category parameter, as currently stored.
+     *
+     * @param key The category parameter key
+     * @return The value
+     */
+    @Query("SELECT cp.value FROM CategoryParameter cp WHERE cp.key = :key")
+    Optional<String> findValueByKey(@Param("key") String key);
+
+    /**
+     * Update the value of a category parameter, if it has not changed since it has been read.
+     *
+     * @param key The category parameter key
+     * @param value The new value
+     * @param previousValue The value as read
+     * @return The number of updated category parameters, 0 if the value has changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE CategoryParameter cp SET cp.value = :value WHERE cp.key = :key AND cp.value = :previousValue")
+    int updateValue(
+            @Param("key") String key, @Param("value") String value, @Param("previousValue") String previousValue);
 }
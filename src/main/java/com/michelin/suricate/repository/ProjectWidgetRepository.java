@@ -21,6 +21,7 @@ package com.michelin.suricate.repository;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -77,6 +78,22 @@ public interface ProjectWidgetRepository
             @Param("height") int height,
             @Param("id") Long id);
 
+    /**
+     * Update the execution dates and the state of a widget instance when Js execution ends successfully with the same
+     * data and log as the previous one.
+     *
+     * @param executionDate The last execution date
+     * @param id The id of the project widget
+     * @param widgetState The widget state
+     */
+    @Modifying
+    @Query("UPDATE ProjectWidget SET lastExecutionDate = :lastExecutionDate, "
+            + "lastSuccessDate = :lastExecutionDate, state = :state WHERE id = :id")
+    void updateLastExecutionDateAndLastSuccessDateAndState(
+            @Param("lastExecutionDate") Date executionDate,
+            @Param("id") Long id,
+            @Param("state") WidgetStateEnum widgetState);
+
     /**
      * Update the state of a widget instance when Js execution ends successfully.
      *
@@ -113,4 +130,37 @@ public interface ProjectWidgetRepository
             @Param("log") String log,
             @Param("id") Long id,
             @Param("state") WidgetStateEnum widgetState);
+
+    /**
+     * Get the IDs of all the widget instances.
+     *
+     * @return The project widget IDs
+     */
+    @Query("SELECT id FROM ProjectWidget ORDER BY id")
+    List<Long> findAllIds();
+
+    /**
+     * Get the configuration of a widget instance, as currently stored.
+     *
+     * @param id The project widget id
+     * @return The configuration
+     */
+    @Query("SELECT backendConfig FROM ProjectWidget WHERE id = :id")
+    Optional<String> findBackendConfigById(@Param("id") Long id);
+
+    /**
+     * Update the configuration of a widget instance, if it has not changed since it has been read.
+     *
+     * @param id The project widget id
+     * @param backendConfig The new configuration
+     * @param previousBackendConfig The configuration as read
+     * @return The number of updated widget instances, 0 if the configuration has changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE ProjectWidget SET backendConfig = :backendConfig "
+            + "WHERE id = :id AND backendConfig = :previousBackendConfig")
+    int updateBackendConfig(
+            @Param("id") Long id,
+            @Param("backendConfig") String backendConfig,
+            @Param("previousBackendConfig") String previousBackendConfig);
 }
@@ -18,18 +18,20 @@
  */
 package com.michelin.suricate.service.api;
 
+import com.michelin.suricate.configuration.encoder.CachingStringEncryptor;
 import com.michelin.suricate.model.entity.Category;
 import com.michelin.suricate.model.entity.CategoryParameter;
 import com.michelin.suricate.model.entity.WidgetParam;
 import com.michelin.suricate.model.enumeration.DataTypeEnum;
 import com.michelin.suricate.repository.CategoryParametersRepository;
+import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
 import com.michelin.suricate.service.specification.CategoryParametersSearchSpecification;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import org.jasypt.encryption.StringEncryptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -42,7 +44,11 @@ public class CategoryParametersService {
     private CategoryParametersRepository categoryParametersRepository;
 
     @Autowired
-    @Qualifier("jasyptStringEncryptor") private StringEncryptor stringEncryptor;
+    @Qualifier("jasyptStringEncryptor") private CachingStringEncryptor stringEncryptor;
+
+    @Lazy
+    @Autowired
+    private JsExecutionScheduler jsExecutionScheduler;
 
     /**
      * Convert category parameters into widget parameters.
@@ -94,28 +100,36 @@ public class CategoryParametersService {
     }
 
     /**
-     * Update a category parameter.
+     * Update a category parameter. The replaced secret is evicted from the decrypted secrets.
      *
      * @param categoryParameter The category parameter to update
      * @param newValue The new value to set
      */
     @Transactional
     public void updateConfiguration(CategoryParameter categoryParameter, final String newValue) {
+        String previousValue = categoryParameter.getValue();
         categoryParameter.setValue(
                 categoryParameter.getDataType() == DataTypeEnum.PASSWORD
                         ? stringEncryptor.encrypt(newValue)
                         : newValue);
 
         categoryParametersRepository.save(categoryParameter);
+        jsExecutionScheduler.evictJsExecutionPlans();
+
+        if (categoryParameter.getDataType() == DataTypeEnum.PASSWORD) {
+            stringEncryptor.evict(previousValue);
+        }
     }
 
     /**
-     * Delete a category parameter by its key.
+     * Delete a category parameter by its key. The deleted secret is evicted from the decrypted secrets.
      *
      * @param key The key of the configuration
      */
     public void deleteOneByKey(String key) {
+        categoryParametersRepository.findValueByKey(key).ifPresent(stringEncryptor::evict);
         categoryParametersRepository.deleteById(key);
+        jsExecutionScheduler.evictJsExecutionPlans();
     }
 
     /**
@@ -138,5 +152,7 @@ public class CategoryParametersService {
 
             categoryParametersRepository.save(categoryParameter);
         }
+
+        jsExecutionScheduler.evictJsExecutionPlans();
     }
 }
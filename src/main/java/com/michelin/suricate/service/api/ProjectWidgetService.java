@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheException;
 import com.github.mustachejava.MustacheFactory;
+import com.michelin.suricate.configuration.encoder.CachingStringEncryptor;
 import com.michelin.suricate.model.dto.api.projectwidget.ProjectWidgetPositionRequestDto;
 import com.michelin.suricate.model.dto.websocket.UpdateEvent;
 import com.michelin.suricate.model.entity.Project;
@@ -41,6 +42,7 @@ import com.michelin.suricate.util.PropertiesUtils;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +50,6 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.jasypt.encryption.StringEncryptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
@@ -80,7 +81,7 @@ public class ProjectWidgetService {
     private ApplicationContext ctx;
 
     @Autowired
-    @Qualifier("jasyptStringEncryptor") private StringEncryptor stringEncryptor;
+    @Qualifier("jasyptStringEncryptor") private CachingStringEncryptor stringEncryptor;
 
     /**
      * Get all the project widget in database.
@@ -295,8 +296,8 @@ public class ProjectWidgetService {
     }
 
     /**
-     * Update the configuration and the custom CSS for a widget instance. Then schedule a new Js execution for the
-     * updated widget.
+     * Update the configuration and the custom CSS for a widget instance. The replaced secrets are evicted from the
+     * decrypted secrets. Then schedule a new Js execution for the updated widget.
      *
      * @param projectWidget The widget instance
      * @param customStyle The new CSS style
@@ -311,7 +312,9 @@ public class ProjectWidgetService {
         }
 
         if (backendConfig != null) {
+            String previousBackendConfig = projectWidget.getBackendConfig();
             projectWidget.setBackendConfig(encryptSecretParamsIfNeeded(projectWidget.getWidget(), backendConfig));
+            evictReplacedSecrets(previousBackendConfig, projectWidget.getBackendConfig());
         }
 
         projectWidgetRepository.save(projectWidget);
@@ -349,6 +352,20 @@ public class ProjectWidgetService {
         projectWidgetRepository.updateSuccessExecution(executionDate, executionLog, data, projectWidgetId, widgetState);
     }
 
+    /**
+     * Update the execution dates and the state of a widget instance when Js execution ends successfully without any
+     * change of the data and the log, so they are not rewritten.
+     *
+     * @param executionDate The last execution date
+     * @param projectWidgetId The project widget id to update
+     * @param widgetState The widget state
+     */
+    public void updateWidgetInstanceAfterUnchangedExecution(
+            final Date executionDate, final Long projectWidgetId, final WidgetStateEnum widgetState) {
+        projectWidgetRepository.updateLastExecutionDateAndLastSuccessDateAndState(
+                executionDate, projectWidgetId, widgetState);
+    }
+
     /**
      * Decrypt the secret params if exists.
      *
@@ -403,4 +420,24 @@ public class ProjectWidgetService {
                 .map(backendConfigEntrySet -> backendConfigEntrySet.getKey() + "=" + backendConfigEntrySet.getValue())
                 .collect(Collectors.joining("\n"));
     }
+
+    /**
+     * Evict from the decrypted secrets the values of a configuration that are not in its new version anymore. The
+     * secrets are encrypted with a random salt, so every secret of an updated configuration is replaced.
+     *
+     * @param previousBackendConfig The previous configuration
+     * @param backendConfig The new configuration
+     */
+    private void evictReplacedSecrets(String previousBackendConfig, String backendConfig) {
+        if (StringUtils.isBlank(previousBackendConfig)) {
+            return;
+        }
+
+        Collection<String> values =
+                PropertiesUtils.convertAndEscapeStringWidgetPropertiesToMap(backendConfig).values();
+
+        PropertiesUtils.convertAndEscapeStringWidgetPropertiesToMap(previousBackendConfig).values().stream()
+                .filter(previousValue -> !values.contains(previousValue))
+                .forEach(stringEncryptor::evict);
+    }
 }
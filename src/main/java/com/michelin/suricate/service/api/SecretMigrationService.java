@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.api;
+
+import com.michelin.suricate.configuration.encoder.VersionedStringEncryptor;
+import com.michelin.suricate.model.entity.CategoryParameter;
+import com.michelin.suricate.model.entity.ProjectWidget;
+import com.michelin.suricate.model.entity.WidgetParam;
+import com.michelin.suricate.model.enumeration.DataTypeEnum;
+import com.michelin.suricate.property.ApplicationProperties;
+import com.michelin.suricate.repository.CategoryParametersRepository;
+import com.michelin.suricate.repository.ProjectWidgetRepository;
+import com.michelin.suricate.util.PropertiesUtils;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Secret migration service. Encrypt again with the current codec the stored secrets encrypted with another one, while
+ * the widgets keep running as both codecs are decrypted.
+ */
+@Slf4j
+@Service
+public class SecretMigrationService {
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    @Autowired
+    private CategoryParametersRepository categoryParametersRepository;
+
+    @Autowired
+    private ProjectWidgetRepository projectWidgetRepository;
+
+    @Autowired
+    private WidgetService widgetService;
+
+    @Autowired
+    private VersionedStringEncryptor versionedStringEncryptor;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Migrate the stored secrets asynchronously, if the migration is enabled. */
+    @Async
+    public void migrateSecretsAsync() {
+        if (!applicationProperties.getEncryptor().isMigrate()) {
+            log.debug("Secret migration disabled");
+            return;
+        }
+
+        try {
+            migrateSecrets();
+        } catch (Exception e) {
+            log.error("An error has occurred when migrating the stored secrets", e);
+        }
+    }
+
+    /**
+     * Migrate the secret category parameters and the secret parameters of the widget instances. Each category parameter
+     * and each widget instance is migrated in its own transaction, so the rows are only locked while they are updated.
+     * A secret that cannot be migrated is logged and skipped, and the migration goes on with the next one.
+     *
+     * @return The number of migrated category parameters and widget instances
+     */
+    public int migrateSecrets() {
+        log.info("Migrating the stored secrets to the current codec");
+
+        int migratedCategoryParameters = migrateCategoryParameters();
+        int migratedProjectWidgets = migrateProjectWidgets();
+
+        log.info(
+                "{} category parameters and {} widget instances migrated to the current codec",
+                migratedCategoryParameters,
+                migratedProjectWidgets);
+
+        return migratedCategoryParameters + migratedProjectWidgets;
+    }
+
+    /**
+     * Migrate the secret category parameters. Only the value of the category parameters is updated, and only if it has
+     * not been edited meanwhile. An edited value is read and migrated again, and skipped after
+     * {@link #MAX_UPDATE_ATTEMPTS} attempts.
+     *
+     * @return The number of migrated category parameters
+     */
+    private int migrateCategoryParameters() {
+        int migrated = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        for (CategoryParameter categoryParameter : categoryParametersRepository.findAll()) {
+            if (categoryParameter.getDataType() != DataTypeEnum.PASSWORD) {
+                continue;
+            }
+
+            try {
+                MigrationResult result = transactionTemplate.execute(
+                        status -> migrateCategoryParameter(categoryParameter.getKey(), categoryParameter.getValue()));
+
+                if (result == MigrationResult.MIGRATED) {
+                    migrated++;
+                } else if (result == MigrationResult.SKIPPED) {
+                    skipped++;
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Cannot migrate the category parameter {}", categoryParameter.getKey(), e);
+            }
+        }
+
+        if (skipped > 0) {
+            log.warn("{} category parameters not migrated, as their value kept changing during the migration", skipped);
+        }
+
+        if (failed > 0) {
+            log.warn("{} category parameters not migrated, as their secret cannot be encrypted again", failed);
+        }
+
+        return migrated;
+    }
+
+    /**
+     * Migrate a secret category parameter, reading it again while it is edited meanwhile.
+     *
+     * @param key The category parameter key
+     * @param value The value of the category parameter
+     * @return The result of the migration
+     */
+    private MigrationResult migrateCategoryParameter(String key, String value) {
+        String previousValue = value;
+
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            if (StringUtils.isBlank(previousValue) || versionedStringEncryptor.isCurrent(previousValue)) {
+                return MigrationResult.UNCHANGED;
+            }
+
+            int updated = categoryParametersRepository.updateValue(key, reencrypt(previousValue), previousValue);
+
+            if (updated > 0) {
+                return MigrationResult.MIGRATED;
+            }
+
+            log.debug("Value of the category parameter {} changed during its migration", key);
+
+            previousValue = categoryParametersRepository.findValueByKey(key).orElse(null);
+        }
+
+        return MigrationResult.SKIPPED;
+    }
+
+    /**
+     * Migrate the secret parameters of the widget instances. Only the configuration of the widget instances is updated,
+     * to not overwrite their execution state, and only if it has not been edited meanwhile. An edited configuration is
+     * read and migrated again, and skipped after {@link #MAX_UPDATE_ATTEMPTS} attempts.
+     *
+     * @return The number of migrated widget instances
+     */
+    private int migrateProjectWidgets() {
+        int migrated = 0;
+        int skipped = 0;
+        int failed = 0;
+        Map<Long, List<WidgetParam>> widgetParamsByWidgetId = new HashMap<>();
+
+        for (Long projectWidgetId : projectWidgetRepository.findAllIds()) {
+            try {
+                MigrationResult result = transactionTemplate.execute(
+                        status -> migrateProjectWidget(projectWidgetId, widgetParamsByWidgetId));
+
+                if (result == MigrationResult.MIGRATED) {
+                    migrated++;
+                } else if (result == MigrationResult.SKIPPED) {
+                    skipped++;
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Cannot migrate the secret parameters of the widget instance {}", projectWidgetId, e);
+            }
+        }
+
+        if (skipped > 0) {
+            log.warn(
+                    "{} widget instances not migrated, as their configuration kept changing during the migration",
+                    skipped);
+        }
+
+        if (failed > 0) {
+            log.warn("{} widget instances not migrated, as their secrets cannot be encrypted again", failed);
+        }
+
+        return migrated;
+    }
+
+    /**
+     * Migrate the secret parameters of a widget instance.
+     *
+     * @param projectWidgetId The widget instance id
+     * @param widgetParamsByWidgetId The parameters of the widgets already read, by widget id
+     * @return The result of the migration
+     */
+    private MigrationResult migrateProjectWidget(
+            Long projectWidgetId, Map<Long, List<WidgetParam>> widgetParamsByWidgetId) {
+        ProjectWidget projectWidget = projectWidgetRepository.findById(projectWidgetId).orElse(null);
+
+        if (projectWidget == null
+                || StringUtils.isBlank(projectWidget.getBackendConfig())
+                || projectWidget.getWidget() == null) {
+            return MigrationResult.UNCHANGED;
+        }
+
+        List<WidgetParam> widgetParams = widgetParamsByWidgetId.computeIfAbsent(
+                projectWidget.getWidget().getId(),
+                widgetId -> widgetService.getWidgetParametersWithCategoryParameters(projectWidget.getWidget()));
+
+        return migrateBackendConfig(projectWidgetId, projectWidget.getBackendConfig(), widgetParams);
+    }
+
+    /**
+     * Migrate the configuration of a widget instance, reading it again while it is edited meanwhile.
+     *
+     * @param projectWidgetId The widget instance id
+     * @param backendConfig The configuration of the widget instance
+     * @param widgetParams The parameters of the widget
+     * @return The result of the migration
+     */
+    private MigrationResult migrateBackendConfig(
+            Long projectWidgetId, String backendConfig, List<WidgetParam> widgetParams) {
+        String previousBackendConfig = backendConfig;
+
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            String migratedBackendConfig = reencryptBackendConfig(previousBackendConfig, widgetParams);
+
+            if (migratedBackendConfig == null) {
+                return MigrationResult.UNCHANGED;
+            }
+
+            int updated = projectWidgetRepository.updateBackendConfig(
+                    projectWidgetId, migratedBackendConfig, previousBackendConfig);
+
+            if (updated > 0) {
+                return MigrationResult.MIGRATED;
+            }
+
+            log.debug("Configuration of the widget instance {} changed during its migration", projectWidgetId);
+
+            previousBackendConfig = projectWidgetRepository.findBackendConfigById(projectWidgetId).orElse(null);
+
+            if (StringUtils.isBlank(previousBackendConfig)) {
+                return MigrationResult.UNCHANGED;
+            }
+        }
+
+        return MigrationResult.SKIPPED;
+    }
+
+    /**
+     * Encrypt again with the current codec the secret parameters of a configuration.
+     *
+     * @param backendConfig The configuration
+     * @param widgetParams The parameters of the widget
+     * @return The migrated configuration, or null if no secret parameter needs to be migrated
+     */
+    private String reencryptBackendConfig(String backendConfig, List<WidgetParam> widgetParams) {
+        Map<String, String> backendConfigAsMap =
+                PropertiesUtils.convertAndEscapeStringWidgetPropertiesToMap(backendConfig);
+
+        boolean changed = false;
+        for (WidgetParam widgetParam : widgetParams) {
+            String encryptedValue = StringUtils.trimToNull(backendConfigAsMap.get(widgetParam.getName()));
+
+            if (widgetParam.getType() == DataTypeEnum.PASSWORD
+                    && encryptedValue != null
+                    && !versionedStringEncryptor.isCurrent(encryptedValue)) {
+                backendConfigAsMap.put(widgetParam.getName(), reencrypt(encryptedValue));
+                changed = true;
+            }
+        }
+
+        if (!changed) {
+            return null;
+        }
+
+        return backendConfigAsMap.entrySet().stream()
+                .map(backendConfigEntrySet -> backendConfigEntrySet.getKey() + "=" + backendConfigEntrySet.getValue())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Encrypt a secret again with the current codec.
+     *
+     * @param encryptedValue The secret encrypted with another codec
+     * @return The secret encrypted with the current codec
+     */
+    private String reencrypt(String encryptedValue) {
+        return versionedStringEncryptor.encrypt(versionedStringEncryptor.decrypt(encryptedValue));
+    }
+
+    /** Result of the migration of a category parameter or a widget instance. */
+    private enum MigrationResult {
+        MIGRATED,
+        UNCHANGED,
+        SKIPPED
+    }
+}
@@ -32,8 +32,11 @@ import com.michelin.suricate.model.enumeration.WidgetAvailabilityEnum;
 import com.michelin.suricate.repository.WidgetParamRepository;
 import com.michelin.suricate.repository.WidgetRepository;
 import com.michelin.suricate.service.specification.WidgetSearchSpecification;
+import com.michelin.suricate.util.http.CircuitBreakerInterceptor;
+import com.michelin.suricate.util.http.OkHttpClientUtils;
 import io.jsonwebtoken.lang.Collections;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -302,4 +305,21 @@ public class WidgetService {
         return widgetParamValues.stream()
                 .collect(Collectors.toMap(WidgetParamValue::getJsKey, WidgetParamValue::getValue));
     }
+
+    /**
+     * Get the circuits of the hosts called by the widgets, sorted by host.
+     *
+     * @return The circuits, or an empty list if the circuit breaker is disabled
+     */
+    public List<CircuitBreakerInterceptor.HostCircuit> getHostCircuits() {
+        CircuitBreakerInterceptor circuitBreaker = OkHttpClientUtils.getCircuitBreaker();
+
+        if (circuitBreaker == null) {
+            return List.of();
+        }
+
+        return circuitBreaker.getHostCircuits().stream()
+                .sorted(Comparator.comparing(CircuitBreakerInterceptor.HostCircuit::getHost))
+                .toList();
+    }
 }
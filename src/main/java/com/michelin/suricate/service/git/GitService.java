@@ -197,6 +197,10 @@ public class GitService {
                 categories.forEach(category -> {
                     categoryService.addOrUpdateCategory(category);
                     widgetService.addOrUpdateWidgets(category, allLibraries, repository);
+
+                    if (category.getWidgets() != null) {
+                        category.getWidgets().forEach(widget -> jsExecutionScheduler.evictJsSources(widget.getId()));
+                    }
                 });
 
                 cacheService.clearAllCache();
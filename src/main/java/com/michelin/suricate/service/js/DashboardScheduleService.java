@@ -18,19 +18,34 @@
  */
 package com.michelin.suricate.service.js;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.michelin.suricate.model.dto.api.projectwidget.ProjectWidgetResponseDto;
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
 import com.michelin.suricate.model.dto.js.JsResultDto;
+import com.michelin.suricate.model.dto.js.JsResultWriteDto;
+import com.michelin.suricate.model.dto.websocket.ProjectWidgetPatchDto;
 import com.michelin.suricate.model.dto.websocket.UpdateEvent;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.enumeration.JsExecutionErrorTypeEnum;
 import com.michelin.suricate.model.enumeration.UpdateType;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.property.ApplicationProperties;
 import com.michelin.suricate.service.api.ProjectService;
 import com.michelin.suricate.service.api.ProjectWidgetService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
 import com.michelin.suricate.service.mapper.ProjectWidgetMapper;
 import com.michelin.suricate.service.websocket.DashboardWebSocketService;
+import com.michelin.suricate.util.JsonPatchUtils;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
@@ -41,6 +56,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 public class DashboardScheduleService {
+    private final Map<Long, SentProjectWidget> sentProjectWidgetsByProjectWidgetId = new ConcurrentHashMap<>();
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -59,22 +76,47 @@ public class DashboardScheduleService {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JsResultWriterService jsResultWriterService;
+
     /**
-     * Process the Js result. Update the widget information. If the Js execution is successful then update the data. If
-     * the Js execution is failed, then just update the log. Schedule the next javascript execution except if the
-     * current execution did not throw a fatal error
+     * Process the Js result. Update the widget information. If the Js execution is successful then update the data,
+     * or only the execution dates when the data and the log are unchanged. If the Js execution is failed, then just
+     * update the log. The widget is pushed to the dashboards unless it is unchanged, after the update is written when
+     * the write-behind is enabled. Schedule the next javascript execution except if the current execution did not
+     * throw a fatal error, after the update is written when the write-behind reschedules after the commit. The next
+     * execution is built from the cached execution plan when it is still valid, otherwise it is reloaded from the
+     * database
      *
+     * @param jsExecutionDto The executed Js execution
      * @param jsResultDto The Js result
      * @param scheduler The Js execution scheduler
      */
     @Transactional
-    public void processJsResult(JsResultDto jsResultDto, JsExecutionScheduler scheduler) {
-        if (jsResultDto.isValid()) {
+    public void processJsResult(
+            JsExecutionDto jsExecutionDto, JsResultDto jsResultDto, JsExecutionScheduler scheduler) {
+        boolean unchanged = jsResultDto.isValid() && scheduler.isUnchangedJsResult(jsResultDto);
+        JsResultWriteDto jsResultWriteDto;
+
+        if (unchanged) {
+            log.debug(
+                    "The JavaScript result is unchanged for the widget instance: {}. Updating execution dates only",
+                    jsResultDto.getProjectWidgetId());
+
+            jsResultWriteDto = JsResultWriteDto.unchanged(
+                    jsResultDto.getLaunchDate(), jsResultDto.getProjectWidgetId(), WidgetStateEnum.RUNNING);
+        } else if (jsResultDto.isValid()) {
             log.debug(
                     "The JavaScript result is valid for the widget instance: {}. Updating widget in database",
                     jsResultDto.getProjectWidgetId());
 
-            projectWidgetService.updateWidgetInstanceAfterSucceededExecution(
+            jsResultWriteDto = JsResultWriteDto.succeeded(
                     jsResultDto.getLaunchDate(),
                     jsResultDto.getLog(),
                     jsResultDto.getData(),
@@ -87,7 +129,8 @@ public class DashboardScheduleService {
                     jsResultDto.getLog(),
                     jsResultDto);
 
-            projectWidgetService.updateWidgetInstanceAfterFailedExecution(
+            scheduler.evictJsResultHash(jsResultDto.getProjectWidgetId());
+            jsResultWriteDto = JsResultWriteDto.failed(
                     jsResultDto.getLaunchDate(),
                     jsResultDto.getLog(),
                     jsResultDto.getProjectWidgetId(),
@@ -96,6 +139,11 @@ public class DashboardScheduleService {
                             : WidgetStateEnum.WARNING);
         }
 
+        CompletableFuture<Void> jsResultWritten = writeJsResult(jsResultWriteDto);
+        boolean rescheduleAfterCommit = jsResultWritten != null
+                && applicationProperties.getWidgets().getExecution().getWriteBehind().isRescheduleAfterCommit();
+        JsExecutionDto newJsExecutionDto = null;
+
         if (jsResultDto.isFatal()) {
             log.debug(
                     "The JavaScript result contains a fatal error for the widget instance: {}. Logs: {}. Response data: {}",
@@ -103,12 +151,58 @@ public class DashboardScheduleService {
                     jsResultDto.getLog(),
                     jsResultDto);
         } else {
-            JsExecutionDto newJsExecutionDto =
-                    jsExecutionService.getJsExecutionByProjectWidgetId(jsResultDto.getProjectWidgetId());
-            scheduler.schedule(newJsExecutionDto, false);
+            newJsExecutionDto = scheduler.getNextJsExecution(jsExecutionDto, jsResultDto);
+            if (newJsExecutionDto == null) {
+                newJsExecutionDto =
+                        jsExecutionService.getJsExecutionByProjectWidgetId(jsResultDto.getProjectWidgetId());
+            }
+
+            if (!rescheduleAfterCommit) {
+                scheduler.schedule(newJsExecutionDto, false);
+            }
         }
 
-        sendWidgetUpdateNotification(jsResultDto.getProjectWidgetId(), jsResultDto.getProjectId());
+        if (jsResultWritten == null) {
+            if (!unchanged) {
+                sendWidgetUpdateNotification(jsResultDto.getProjectWidgetId(), jsResultDto.getProjectId());
+            }
+            return;
+        }
+
+        JsExecutionDto jsExecutionDtoAfterCommit = rescheduleAfterCommit ? newJsExecutionDto : null;
+        jsResultWritten.whenComplete((ignored, error) -> {
+            if (error != null) {
+                // The result is not in the database, so the next identical one must not be skipped
+                scheduler.evictJsResultHash(jsResultDto.getProjectWidgetId());
+            } else if (!unchanged) {
+                applicationContext
+                        .getBean(DashboardScheduleService.class)
+                        .sendWidgetUpdateNotificationAfterWrite(
+                                jsResultDto.getProjectWidgetId(), jsResultDto.getProjectId());
+            }
+
+            if (jsExecutionDtoAfterCommit != null) {
+                scheduleAfterWrite(jsExecutionDtoAfterCommit, scheduler);
+            }
+        });
+    }
+
+    /**
+     * Schedule the next execution of a widget instance once the write of its previous result is over, whether it has
+     * been committed or its retries have been exhausted. A failed result is then produced again by the next execution.
+     *
+     * @param jsExecutionDto The next Js execution
+     * @param scheduler The Js execution scheduler
+     */
+    private void scheduleAfterWrite(JsExecutionDto jsExecutionDto, JsExecutionScheduler scheduler) {
+        try {
+            scheduler.schedule(jsExecutionDto, false);
+        } catch (Exception e) {
+            log.error(
+                    "Cannot schedule the next execution of the widget instance {}",
+                    jsExecutionDto.getProjectWidgetId(),
+                    e);
+        }
     }
 
     /**
@@ -120,15 +214,80 @@ public class DashboardScheduleService {
      */
     @Transactional
     public void updateWidgetInstanceNoJsResult(String widgetLogs, Long projectWidgetId, Long projectId) {
-        projectWidgetService.updateWidgetInstanceAfterFailedExecution(
-                new Date(), widgetLogs, projectWidgetId, WidgetStateEnum.STOPPED);
+        CompletableFuture<Void> jsResultWritten = writeJsResult(
+                JsResultWriteDto.failed(new Date(), widgetLogs, projectWidgetId, WidgetStateEnum.STOPPED));
+
+        if (jsResultWritten == null) {
+            sendWidgetUpdateNotification(projectWidgetId, projectId);
+            return;
+        }
+
+        jsResultWritten.whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Cannot write the failure of the widget instance {}", projectWidgetId, error);
+            } else {
+                applicationContext
+                        .getBean(DashboardScheduleService.class)
+                        .sendWidgetUpdateNotificationAfterWrite(projectWidgetId, projectId);
+            }
+        });
+    }
+
+    /**
+     * Write a Js result to the widget instance. With the write-behind enabled, the result is written by the next
+     * flush of the Js result writer, so it does not overwrite a more recent result pending for the same instance.
+     *
+     * @param jsResultWriteDto The Js result write
+     * @return A future completed once the result is written with the write-behind enabled, null if it is written
+     */
+    private CompletableFuture<Void> writeJsResult(JsResultWriteDto jsResultWriteDto) {
+        if (applicationProperties.getWidgets().getExecution().getWriteBehind().isEnabled()) {
+            return jsResultWriterService.write(jsResultWriteDto);
+        }
 
-        sendWidgetUpdateNotification(projectWidgetId, projectId);
+        if (jsResultWriteDto.isDataUpdated()) {
+            projectWidgetService.updateWidgetInstanceAfterSucceededExecution(
+                    jsResultWriteDto.getLastExecutionDate(),
+                    jsResultWriteDto.getLog(),
+                    jsResultWriteDto.getData(),
+                    jsResultWriteDto.getProjectWidgetId(),
+                    jsResultWriteDto.getState());
+        } else if (jsResultWriteDto.getLastSuccessDate() != null) {
+            projectWidgetService.updateWidgetInstanceAfterUnchangedExecution(
+                    jsResultWriteDto.getLastExecutionDate(),
+                    jsResultWriteDto.getProjectWidgetId(),
+                    jsResultWriteDto.getState());
+        } else {
+            projectWidgetService.updateWidgetInstanceAfterFailedExecution(
+                    jsResultWriteDto.getLastExecutionDate(),
+                    jsResultWriteDto.getLog(),
+                    jsResultWriteDto.getProjectWidgetId(),
+                    jsResultWriteDto.getState());
+        }
+
+        return null;
+    }
+
+    /**
+     * Send the widget update notification once the result is written by the Js result writer, from a callback thread
+     * of the writer, in its own read-only transaction. The errors are logged since there is no caller left to handle
+     * them.
+     *
+     * @param projectWidgetId The project widget ID
+     * @param projectId The project ID
+     */
+    @Transactional(readOnly = true)
+    public void sendWidgetUpdateNotificationAfterWrite(Long projectWidgetId, Long projectId) {
+        try {
+            sendWidgetUpdateNotification(projectWidgetId, projectId);
+        } catch (RuntimeException e) {
+            log.error("Cannot send the update notification of the widget instance {}", projectWidgetId, e);
+        }
     }
 
     /**
      * Create a new widget event which will be sent through the web sockets to notify and update the widget on
-     * dashboard.
+     * dashboard. When the delta updates are enabled, only the changes since the previous event are sent.
      *
      * @param projectWidgetId The project widget ID
      * @param projectId The project ID
@@ -137,13 +296,129 @@ public class DashboardScheduleService {
         ProjectWidget projectWidget =
                 projectWidgetService.getOne(projectWidgetId).orElse(null);
 
-        UpdateEvent event = UpdateEvent.builder()
+        ProjectWidgetResponseDto projectWidgetResponseDto = projectWidgetMapper.toProjectWidgetDto(projectWidget);
+        String projectToken = projectService.getTokenByProjectId(projectId);
+
+        if (applicationProperties.getWidgets().getDeltaUpdate().isEnabled()) {
+            sendWidgetDeltaUpdateEvent(projectToken, projectWidgetId, projectWidgetResponseDto);
+            return;
+        }
+
+        dashboardWebSocketService.sendEventToWidgetInstanceSubscribers(
+                projectToken,
+                projectWidgetId,
+                UpdateEvent.builder()
+                        .type(UpdateType.REFRESH_WIDGET)
+                        .content(projectWidgetResponseDto)
+                        .build());
+    }
+
+    /**
+     * Send the event updating a widget instance from the previous event sent for it. The first event is a full
+     * refresh. The next ones are JSON Patches of the previous widget instance, numbered by a sequence increasing by
+     * one, so the screens missing an event know they have to reload the widget instance.
+     *
+     * <p>The diff, the send and the sequence increment hold the lock of the widget instance only, so the events of a
+     * widget instance are sent in the order of their sequence while a slow broker does not delay the other widget
+     * instances. Each event is the patch of the previous one, so the screens stay consistent even when a notification
+     * reads an older widget instance than a concurrent one: the next event brings it up to date.
+     *
+     * @param projectToken The project token
+     * @param projectWidgetId The project widget ID
+     * @param projectWidgetResponseDto The widget instance to send
+     */
+    private void sendWidgetDeltaUpdateEvent(
+            String projectToken, Long projectWidgetId, ProjectWidgetResponseDto projectWidgetResponseDto) {
+        UpdateEvent refreshEvent = UpdateEvent.builder()
                 .type(UpdateType.REFRESH_WIDGET)
-                .content(projectWidgetMapper.toProjectWidgetDto(projectWidget))
+                .content(projectWidgetResponseDto)
                 .build();
 
-        dashboardWebSocketService.sendEventToWidgetInstanceSubscribers(
-                projectService.getTokenByProjectId(projectId), projectWidgetId, event);
+        // The widget instance has been removed
+        if (projectWidgetResponseDto == null) {
+            evictSentProjectWidget(projectWidgetId);
+            dashboardWebSocketService.sendEventToWidgetInstanceSubscribers(projectToken, projectWidgetId, refreshEvent);
+            return;
+        }
+
+        JsonNode projectWidgetNode = toPatchDocument(projectWidgetResponseDto);
+        SentProjectWidget sentProjectWidget =
+                sentProjectWidgetsByProjectWidgetId.computeIfAbsent(projectWidgetId, key -> new SentProjectWidget());
+
+        synchronized (sentProjectWidget) {
+            if (sentProjectWidget.getProjectWidgetNode() == null) {
+                dashboardWebSocketService.sendEventToWidgetInstanceSubscribers(
+                        projectToken, projectWidgetId, refreshEvent);
+                sentProjectWidget.sent(0, projectWidgetNode);
+                return;
+            }
+
+            ArrayNode patch = JsonPatchUtils.diff(sentProjectWidget.getProjectWidgetNode(), projectWidgetNode);
+            if (patch.isEmpty()) {
+                log.debug("The widget instance {} did not change since the previous event", projectWidgetId);
+                return;
+            }
+
+            long sequence = sentProjectWidget.getSequence() + 1;
+            dashboardWebSocketService.sendEventToWidgetInstanceSubscribers(
+                    projectToken,
+                    projectWidgetId,
+                    UpdateEvent.builder()
+                            .type(UpdateType.PATCH_WIDGET)
+                            .content(ProjectWidgetPatchDto.builder()
+                                    .projectWidgetId(projectWidgetId)
+                                    .sequence(sequence)
+                                    .patch(patch)
+                                    .build())
+                            .build());
+            sentProjectWidget.sent(sequence, projectWidgetNode);
+        }
+    }
+
+    /**
+     * Convert a widget instance to the document the patches are computed on. The data is parsed when it is a JSON
+     * object or array, and the HTML is split into lines, so a patch only carries the changed values of the data and the
+     * changed lines of the HTML instead of both whole strings.
+     *
+     * @param projectWidgetResponseDto The widget instance
+     * @return The document of the widget instance
+     */
+    private JsonNode toPatchDocument(ProjectWidgetResponseDto projectWidgetResponseDto) {
+        ObjectNode projectWidgetNode = objectMapper.valueToTree(projectWidgetResponseDto);
+
+        if (projectWidgetResponseDto.getData() != null) {
+            try {
+                JsonNode dataNode = objectMapper
+                        .reader()
+                        .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                        .readTree(projectWidgetResponseDto.getData());
+
+                if (dataNode != null && dataNode.isContainerNode()) {
+                    projectWidgetNode.set("data", dataNode);
+                }
+            } catch (JsonProcessingException e) {
+                log.debug("The data of the widget instance {} is not JSON", projectWidgetResponseDto.getId());
+            }
+        }
+
+        if (projectWidgetResponseDto.getInstantiateHtml() != null) {
+            ArrayNode lines = projectWidgetNode.putArray("instantiateHtml");
+            for (String line : projectWidgetResponseDto.getInstantiateHtml().split("\n", -1)) {
+                lines.add(line);
+            }
+        }
+
+        return projectWidgetNode;
+    }
+
+    /**
+     * Forget the last widget instance sent to the screens, so its next event is a full refresh. Called when its
+     * execution is cancelled, as the widget instance is either removed, reconfigured or not displayed anymore.
+     *
+     * @param projectWidgetId The project widget ID
+     */
+    public void evictSentProjectWidget(Long projectWidgetId) {
+        sentProjectWidgetsByProjectWidgetId.remove(projectWidgetId);
     }
 
     /**
@@ -156,4 +431,25 @@ public class DashboardScheduleService {
         JsExecutionDto jsExecutionDto = jsExecutionService.getJsExecutionByProjectWidgetId(projectWidgetId);
         applicationContext.getBean(JsExecutionScheduler.class).cancelAndScheduleJsExecution(jsExecutionDto);
     }
+
+    /**
+     * The last widget instance sent to the screens, with the sequence number of its event. Guarded by its own lock.
+     */
+    @Getter
+    private static final class SentProjectWidget {
+        private long sequence;
+
+        private JsonNode projectWidgetNode;
+
+        /**
+         * Record the widget instance sent to the screens.
+         *
+         * @param sequence The sequence number of the event
+         * @param projectWidgetNode The widget instance sent
+         */
+        private void sent(long sequence, JsonNode projectWidgetNode) {
+            this.sequence = sequence;
+            this.projectWidgetNode = projectWidgetNode;
+        }
+    }
 }
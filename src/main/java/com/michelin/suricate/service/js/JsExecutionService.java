@@ -25,7 +25,10 @@ import com.michelin.suricate.model.entity.ProjectGrid;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
 import com.michelin.suricate.service.api.ProjectWidgetService;
+import com.michelin.suricate.util.BoundedOutputStream;
+import com.michelin.suricate.util.JavaScriptUtils;
 import com.michelin.suricate.util.JsonUtils;
+import com.michelin.suricate.util.PropertiesUtils;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -91,8 +94,48 @@ public class JsExecutionService {
         WidgetStateEnum state = projectWidget.getState();
         Date lastSuccess = projectWidget.getLastSuccessDate();
 
-        return new JsExecutionDto(
+        JsExecutionDto jsExecutionDto = new JsExecutionDto(
                 properties, script, previousData, projectId, technicalId, delay, timeout, state, lastSuccess);
+        jsExecutionDto.setAdaptiveDelay(isAdaptiveDelay(projectWidget));
+        jsExecutionDto.setOutputCapacity(getOutputCapacity(projectWidget));
+
+        return jsExecutionDto;
+    }
+
+    /**
+     * Get the capacity of the console output declared by the widget, raised to the minimum capacity if lower.
+     *
+     * @param projectWidget The project widget
+     * @return The capacity, or null if the widget does not declare it
+     */
+    private Integer getOutputCapacity(final ProjectWidget projectWidget) {
+        Integer outputCapacity = projectWidget.getWidget().getOutputCapacity();
+
+        if (outputCapacity != null && outputCapacity < BoundedOutputStream.MIN_CAPACITY) {
+            log.warn(
+                    "The output capacity {} of the widget {} is lower than the minimum, {} bytes are used",
+                    outputCapacity,
+                    projectWidget.getWidget().getTechnicalName(),
+                    BoundedOutputStream.MIN_CAPACITY);
+            return BoundedOutputStream.MIN_CAPACITY;
+        }
+
+        return outputCapacity;
+    }
+
+    /**
+     * Check if the widget or the widget instance opted in to the adaptive delay.
+     *
+     * @param projectWidget The project widget
+     * @return true if the delay of the widget instance can back off while its data does not change
+     */
+    private boolean isAdaptiveDelay(final ProjectWidget projectWidget) {
+        if (projectWidget.getWidget().isAdaptiveDelay()) {
+            return true;
+        }
+
+        return Boolean.parseBoolean(PropertiesUtils.convertStringWidgetPropertiesToMap(projectWidget.getBackendConfig())
+                .get(JavaScriptUtils.ADAPTIVE_DELAY_PROPERTY));
     }
 
     /**
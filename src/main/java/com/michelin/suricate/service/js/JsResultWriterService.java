@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js;
+
+import com.michelin.suricate.model.dto.js.JsResultWriteDto;
+import com.michelin.suricate.property.ApplicationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Js result writer service. Collects the Js results during a short flush window and writes them to the widget
+ * instances with JDBC batch updates in a single transaction. The latest result of a widget instance wins. The writes
+ * of a failed transaction are retried by the next flushes, merged with the later writes of their widget instances.
+ *
+ * <p>The futures of the writes are completed on a pool of callback threads, outside any transaction, so the actions
+ * depending on the writes run concurrently and do not delay the next flush.
+ */
+@Slf4j
+@Service
+public class JsResultWriterService {
+    private static final String UPDATE_PROJECT_WIDGET_SQL = "UPDATE project_widget SET last_execution_date = ?, "
+            + "last_success_date = COALESCE(?, last_success_date), state = ?, "
+            + "log = CASE WHEN ? THEN ? ELSE log END, data = CASE WHEN ? THEN ? ELSE data END WHERE id = ?";
+
+    private final Map<Long, PendingJsResultWrite> pendingWritesByProjectWidgetId = new LinkedHashMap<>();
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService flushExecutor;
+
+    private ExecutorService callbackExecutor;
+
+    /** Start flushing the pending writes periodically when the write-behind is enabled. */
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.WriteBehind writeBehindProperties =
+                applicationProperties.getWidgets().getExecution().getWriteBehind();
+
+        if (!writeBehindProperties.isEnabled()) {
+            return;
+        }
+
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("js-result-writer").daemon().factory());
+        flushExecutor.scheduleWithFixedDelay(
+                this::flushQuietly,
+                writeBehindProperties.getFlushInterval(),
+                writeBehindProperties.getFlushInterval(),
+                TimeUnit.MILLISECONDS);
+        callbackExecutor = Executors.newFixedThreadPool(
+                Math.max(1, writeBehindProperties.getCallbackPoolSize()),
+                Thread.ofPlatform().name("js-result-callback-", 0).daemon().factory());
+    }
+
+    /**
+     * Add a write to the pending writes. It is merged with the pending write of the same widget instance, if any.
+     * The pending writes are flushed at the end of the flush window, or as soon as they reach the maximum batch size.
+     *
+     * @param write The write
+     * @return A future completed once the write is committed, on a callback thread when the write-behind is started
+     */
+    public CompletableFuture<Void> write(JsResultWriteDto write) {
+        CompletableFuture<Void> future;
+        boolean full;
+
+        synchronized (pendingWritesByProjectWidgetId) {
+            PendingJsResultWrite pendingWrite = pendingWritesByProjectWidgetId.get(write.getProjectWidgetId());
+            if (pendingWrite == null) {
+                pendingWrite = new PendingJsResultWrite(write, new CompletableFuture<>());
+                pendingWritesByProjectWidgetId.put(write.getProjectWidgetId(), pendingWrite);
+            } else {
+                pendingWrite.setWrite(pendingWrite.getWrite().merge(write));
+            }
+
+            future = pendingWrite.getFuture();
+            full = pendingWritesByProjectWidgetId.size()
+                    >= applicationProperties.getWidgets().getExecution().getWriteBehind().getMaxBatchSize();
+        }
+
+        if (flushExecutor == null || flushExecutor.isShutdown()) {
+            flush();
+        } else if (full) {
+            flushExecutor.execute(this::flushQuietly);
+        }
+
+        return future;
+    }
+
+    /**
+     * Flush the pending writes. They are written with JDBC batch updates in a single transaction, then their futures
+     * are completed once the transaction is committed. If the transaction fails, the writes are pending again to be
+     * retried by the next flush, and their futures are completed exceptionally once the retries are exhausted.
+     *
+     * @return The number of flushed writes
+     */
+    public synchronized int flush() {
+        List<PendingJsResultWrite> pendingWrites;
+        synchronized (pendingWritesByProjectWidgetId) {
+            if (pendingWritesByProjectWidgetId.isEmpty()) {
+                return 0;
+            }
+
+            pendingWrites = new ArrayList<>(pendingWritesByProjectWidgetId.values());
+            pendingWritesByProjectWidgetId.clear();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    UPDATE_PROJECT_WIDGET_SQL,
+                    pendingWrites,
+                    applicationProperties.getWidgets().getExecution().getWriteBehind().getMaxBatchSize(),
+                    (preparedStatement, pendingWrite) -> {
+                        JsResultWriteDto write = pendingWrite.getWrite();
+                        preparedStatement.setTimestamp(1, toTimestamp(write.getLastExecutionDate()));
+                        preparedStatement.setTimestamp(2, toTimestamp(write.getLastSuccessDate()));
+                        preparedStatement.setString(3, write.getState() != null ? write.getState().name() : null);
+                        preparedStatement.setBoolean(4, write.isLogUpdated());
+                        preparedStatement.setString(5, write.getLog());
+                        preparedStatement.setBoolean(6, write.isDataUpdated());
+                        preparedStatement.setString(7, write.getData());
+                        preparedStatement.setLong(8, write.getProjectWidgetId());
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Cannot write the results of {} widget instances", pendingWrites.size(), e);
+            pendingWrites.forEach(pendingWrite -> retryOrFail(pendingWrite, e));
+            return 0;
+        }
+
+        log.debug("Wrote the results of {} widget instances", pendingWrites.size());
+
+        pendingWrites.forEach(pendingWrite -> complete(pendingWrite.getFuture(), null));
+
+        return pendingWrites.size();
+    }
+
+    /**
+     * Give a failed write back to the pending writes, to be retried by the next flush. A later write of the same widget
+     * instance is merged into it, and both futures are completed by the retry. The future is completed exceptionally
+     * when the retries are exhausted or when the write-behind is stopped, as no flush would retry the write.
+     *
+     * @param failedWrite The failed write
+     * @param error The error of the write
+     */
+    private void retryOrFail(PendingJsResultWrite failedWrite, RuntimeException error) {
+        int maxRetries = applicationProperties.getWidgets().getExecution().getWriteBehind().getMaxRetries();
+
+        if (failedWrite.getRetries() >= maxRetries
+                || flushExecutor == null
+                || flushExecutor.isShutdown()) {
+            complete(failedWrite.getFuture(), error);
+            return;
+        }
+
+        failedWrite.setRetries(failedWrite.getRetries() + 1);
+
+        synchronized (pendingWritesByProjectWidgetId) {
+            Long projectWidgetId = failedWrite.getWrite().getProjectWidgetId();
+            PendingJsResultWrite laterWrite = pendingWritesByProjectWidgetId.get(projectWidgetId);
+
+            if (laterWrite == null) {
+                pendingWritesByProjectWidgetId.put(projectWidgetId, failedWrite);
+                return;
+            }
+
+            laterWrite.setWrite(failedWrite.getWrite().merge(laterWrite.getWrite()));
+            laterWrite.setRetries(Math.max(laterWrite.getRetries(), failedWrite.getRetries()));
+            laterWrite.getFuture().whenComplete((ignored, laterError) -> {
+                if (laterError != null) {
+                    failedWrite.getFuture().completeExceptionally(laterError);
+                } else {
+                    failedWrite.getFuture().complete(null);
+                }
+            });
+        }
+    }
+
+    /**
+     * Complete the future of a write on a callback thread, or on the current thread once the write-behind is stopped.
+     *
+     * @param future The future of the write
+     * @param error The error of the write, null if it is committed
+     */
+    private void complete(CompletableFuture<Void> future, Throwable error) {
+        Runnable completion = error != null ? () -> future.completeExceptionally(error) : () -> future.complete(null);
+
+        if (callbackExecutor == null || callbackExecutor.isShutdown()) {
+            completion.run();
+            return;
+        }
+
+        try {
+            callbackExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // The write-behind has been stopped meanwhile
+            completion.run();
+        }
+    }
+
+    /**
+     * Stop flushing the pending writes periodically. The pending writes are flushed if configured, dropped otherwise.
+     * The writes coming after are flushed immediately. The callbacks already submitted still run.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (flushExecutor == null) {
+            return;
+        }
+
+        // A running flush completes first, as the flushes are serialized
+        flushExecutor.shutdown();
+
+        if (applicationProperties.getWidgets().getExecution().getWriteBehind().isFlushOnShutdown()) {
+            log.info("Flushed the results of {} widget instances on shutdown", flush());
+        } else {
+            synchronized (pendingWritesByProjectWidgetId) {
+                log.info(
+                        "Dropped the results of {} widget instances on shutdown",
+                        pendingWritesByProjectWidgetId.size());
+                pendingWritesByProjectWidgetId.values().forEach(pendingWrite -> pendingWrite.getFuture().cancel(false));
+                pendingWritesByProjectWidgetId.clear();
+            }
+        }
+
+        callbackExecutor.shutdown();
+    }
+
+    /** Flush the pending writes from the flush thread, which must not die on an unexpected error. */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("An error occurred while flushing the widget results", e);
+        }
+    }
+
+    /**
+     * Convert a date to a SQL timestamp.
+     *
+     * @param date The date
+     * @return The timestamp, or null if the date is null
+     */
+    private static Timestamp toTimestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+
+    /** A pending write, the future completed once it is committed, and the number of times it has been retried. */
+    @Getter
+    @Setter
+    private static final class PendingJsResultWrite {
+        private JsResultWriteDto write;
+        private final CompletableFuture<Void> future;
+        private int retries;
+
+        /**
+         * Constructor.
+         *
+         * @param write The write
+         * @param future The future completed once the write is committed
+         */
+        private PendingJsResultWrite(JsResultWriteDto write, CompletableFuture<Void> future) {
+            this.write = write;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.context;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+
+/**
+ * Pool of the JavaScript context of a widget instance, evaluating its script once. The context keeps its global scope
+ * between executions, so a pool must not be shared between widget instances. As the executions of a widget instance
+ * are sequential, the pool keeps a single context. When it is borrowed, for instance while an execution is cancelled
+ * and rescheduled, a transient context is created and closed after its use, so an execution never waits for a context.
+ */
+@Slf4j
+public class JsContextPool implements AutoCloseable {
+    private final Engine engine;
+
+    private final Source source;
+
+    private final long idleTimeoutNanos;
+
+    private final ResourceLimits resourceLimits;
+
+    private PooledJsContext idleContext;
+
+    private boolean pooledContextOpened;
+
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param engine The shared engine
+     * @param source The prepared source of the widget
+     * @param idleTimeout The duration after which an idle context is closed
+     */
+    public JsContextPool(Engine engine, Source source, Duration idleTimeout) {
+        this(engine, source, idleTimeout, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param engine The shared engine
+     * @param source The prepared source of the widget
+     * @param idleTimeout The duration after which an idle context is closed
+     * @param resourceLimits The resource limits of the contexts, or null for no limit
+     */
+    public JsContextPool(Engine engine, Source source, Duration idleTimeout, ResourceLimits resourceLimits) {
+        this.engine = engine;
+        this.source = source;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.resourceLimits = resourceLimits;
+    }
+
+    /**
+     * Borrow the context of the pool, or a transient context if it is already borrowed.
+     *
+     * @return The borrowed context
+     */
+    public PooledJsContext borrow() {
+        boolean pooled;
+
+        synchronized (this) {
+            if (idleContext != null) {
+                PooledJsContext borrowedContext = idleContext;
+                idleContext = null;
+                return borrowedContext;
+            }
+
+            pooled = !closed && !pooledContextOpened;
+            if (pooled) {
+                pooledContextOpened = true;
+            }
+        }
+
+        try {
+            return new PooledJsContext(engine, source, pooled, resourceLimits);
+        } catch (RuntimeException e) {
+            if (pooled) {
+                synchronized (this) {
+                    pooledContextOpened = false;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Give back a context after a successful execution.
+     *
+     * @param context The context to give back
+     */
+    public void release(PooledJsContext context) {
+        if (context.isPooled()) {
+            synchronized (this) {
+                if (!closed) {
+                    context.markReleased();
+                    idleContext = context;
+                    return;
+                }
+
+                pooledContextOpened = false;
+            }
+        }
+
+        context.close();
+    }
+
+    /**
+     * Close a context after a failed or canceled execution, so the next execution starts from a fresh context.
+     *
+     * @param context The context to close
+     */
+    public void invalidate(PooledJsContext context) {
+        if (context.isPooled()) {
+            synchronized (this) {
+                pooledContextOpened = false;
+            }
+        }
+
+        context.close();
+    }
+
+    /**
+     * Close the context if it has been idle for longer than the idle timeout.
+     *
+     * @return True if the pool does not hold any context anymore
+     */
+    public boolean evictIdleContexts() {
+        PooledJsContext evictedContext = null;
+        boolean empty;
+
+        synchronized (this) {
+            if (idleContext != null && System.nanoTime() - idleContext.getLastReleaseNanos() >= idleTimeoutNanos) {
+                evictedContext = idleContext;
+                idleContext = null;
+                pooledContextOpened = false;
+            }
+
+            empty = !pooledContextOpened;
+        }
+
+        if (evictedContext != null) {
+            log.debug("Closing the idle JavaScript context of the source {}", source.getName());
+            evictedContext.close();
+        }
+
+        return empty;
+    }
+
+    /** Close the pool and its idle context. A borrowed context is closed when it is given back. */
+    @Override
+    public void close() {
+        PooledJsContext closedContext;
+
+        synchronized (this) {
+            closed = true;
+            closedContext = idleContext;
+            if (closedContext != null) {
+                idleContext = null;
+                pooledContextOpened = false;
+            }
+        }
+
+        if (closedContext != null) {
+            closedContext.close();
+        }
+    }
+}
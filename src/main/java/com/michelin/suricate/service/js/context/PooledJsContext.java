@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.context;
+
+import com.michelin.suricate.util.BoundedOutputStream;
+import com.michelin.suricate.util.JavaScriptUtils;
+import com.michelin.suricate.util.exception.js.NoRunFunctionException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A JavaScript context in which the script of a widget is evaluated once, then only the members specific to a widget
+ * instance are rebound before each execution. The script is evaluated at the first execution, after its members are
+ * bound, so its top-level code can read the widget properties, the previous data and the widget instance ID. Unlike a
+ * new context per execution, the top-level code is not run again by the next executions: the values it reads are the
+ * ones of the first execution, and the global variables it sets are kept between the executions. The run function
+ * always reads the current members.
+ */
+public class PooledJsContext implements AutoCloseable {
+    private final Context context;
+
+    private final Value bindings;
+
+    private final Source source;
+
+    private Value runFunction;
+
+    private final BoundedOutputStream output = new BoundedOutputStream(BoundedOutputStream.DEFAULT_CAPACITY);
+
+    private final Set<String> boundMembers = new HashSet<>();
+
+    @Getter
+    private final boolean pooled;
+
+    @Getter
+    private long lastReleaseNanos;
+
+    /**
+     * Constructor. The given source is evaluated at the first execution.
+     *
+     * @param engine The shared engine
+     * @param source The prepared source of the widget
+     * @param pooled True if the context is kept by a pool after its use, false if it is closed
+     */
+    public PooledJsContext(Engine engine, Source source, boolean pooled) {
+        this(engine, source, pooled, null);
+    }
+
+    /**
+     * Constructor. The given source is evaluated at the first execution.
+     *
+     * @param engine The shared engine
+     * @param source The prepared source of the widget
+     * @param pooled True if the context is kept by a pool after its use, false if it is closed
+     * @param resourceLimits The resource limits of the context, or null for no limit
+     */
+    public PooledJsContext(Engine engine, Source source, boolean pooled, ResourceLimits resourceLimits) {
+        this.pooled = pooled;
+        this.source = source;
+        this.context = JavaScriptUtils.newContextBuilder(engine, output, resourceLimits).build();
+
+        try {
+            bindings = context.getBindings("js");
+        } catch (RuntimeException e) {
+            context.close();
+            throw e;
+        }
+
+        lastReleaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Rebind the members of a widget instance. The members bound by a previous execution and not bound anymore are
+     * removed. The console output of the previous execution is discarded. At the first execution, the script is then
+     * evaluated and its run function resolved.
+     *
+     * @param members The members to bind
+     * @throws NoRunFunctionException If the script does not define any run function
+     */
+    public void bind(Map<String, Object> members) {
+        bind(members, output.getCapacity());
+    }
+
+    /**
+     * Rebind the members of a widget instance. The members bound by a previous execution and not bound anymore are
+     * removed. The console output of the previous execution is discarded. At the first execution, the script is then
+     * evaluated and its run function resolved.
+     *
+     * @param members The members to bind
+     * @param outputCapacity The maximum number of bytes of console output kept for the execution
+     * @throws NoRunFunctionException If the script does not define any run function
+     */
+    public void bind(Map<String, Object> members, int outputCapacity) {
+        output.reset(outputCapacity);
+
+        for (String boundMember : boundMembers) {
+            if (!members.containsKey(boundMember)) {
+                bindings.removeMember(boundMember);
+            }
+        }
+
+        boundMembers.clear();
+
+        for (Map.Entry<String, Object> member : members.entrySet()) {
+            bindings.putMember(member.getKey(), member.getValue());
+            boundMembers.add(member.getKey());
+        }
+
+        if (runFunction == null) {
+            context.eval(source);
+            runFunction = bindings.getMember("run");
+
+            if (runFunction == null) {
+                throw new NoRunFunctionException("No run function defined");
+            }
+        }
+    }
+
+    /**
+     * Execute the run function of the script. The resource limits are reset, so the statements run by the previous
+     * executions are not counted.
+     *
+     * @return The value returned by the run function
+     */
+    public Value run() {
+        context.resetLimits();
+        return runFunction.execute();
+    }
+
+    /**
+     * Get the console output of the current execution.
+     *
+     * @return The console output
+     */
+    public String getOutput() {
+        return output.toString();
+    }
+
+    /** Mark the context as released by an execution. */
+    void markReleased() {
+        lastReleaseNanos = System.nanoTime();
+    }
+
+    /** Close the context. Cancel the current execution if any. */
+    @Override
+    public void close() {
+        context.close(true);
+    }
+}
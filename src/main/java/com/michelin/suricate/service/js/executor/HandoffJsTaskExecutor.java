@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor where a timer only triggers the tasks when their delay expires, and hands them off to the workers. With
+ * virtual thread workers, a blocked task does not hold a platform thread, so the number of tasks in flight is only
+ * bounded by the concurrency limit.
+ */
+public class HandoffJsTaskExecutor implements JsTaskExecutor {
+    private final JsTimer timer;
+
+    private final ExecutorService workers;
+
+    private final Semaphore concurrencyLimit;
+
+    /**
+     * Constructor.
+     *
+     * @param timer The timer triggering the tasks, which is not stopped with the executor
+     * @param workers The workers running the tasks
+     * @param maxConcurrency The maximum number of tasks running at the same time, or 0 for no limit
+     */
+    public HandoffJsTaskExecutor(JsTimer timer, ExecutorService workers, int maxConcurrency) {
+        this.timer = timer;
+        this.workers = workers;
+        this.concurrencyLimit = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    @Override
+    public <T> ScheduledFuture<T> schedule(Callable<T> task, long delay, TimeUnit unit) {
+        FutureTask<T> futureTask = new FutureTask<>(limit(task));
+        JsTimeout trigger = timer.schedule(() -> handOff(futureTask), delay, unit);
+
+        return new HandoffScheduledFuture<>(futureTask, trigger);
+    }
+
+    @Override
+    public void scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        timer.schedule(
+                () -> handOff(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        scheduleNextExecution(task, delay, unit);
+                    }
+                }),
+                initialDelay,
+                unit);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    @Override
+    public void shutdownNow() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Schedule the next execution of a periodic task, unless the executor or the timer has been stopped.
+     *
+     * @param task The task
+     * @param delay The delay before the next execution
+     * @param unit The unit of the delay
+     */
+    private void scheduleNextExecution(Runnable task, long delay, TimeUnit unit) {
+        if (!workers.isShutdown()) {
+            try {
+                scheduleWithFixedDelay(task, delay, delay, unit);
+            } catch (RejectedExecutionException e) {
+                // The timer has been stopped, so is the periodic task
+            }
+        }
+    }
+
+    /**
+     * Hand a triggered task off to the workers. A task rejected because of a shutdown is canceled, so nobody waits for
+     * it forever.
+     *
+     * @param task The task
+     */
+    private void handOff(Runnable task) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (task instanceof FutureTask<?> futureTask) {
+                futureTask.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Wrap a task so it waits for a permit of the concurrency limit before running.
+     *
+     * @param task The task
+     * @param <T> The type of the task result
+     * @return The wrapped task
+     */
+    private <T> Callable<T> limit(Callable<T> task) {
+        if (concurrencyLimit == null) {
+            return task;
+        }
+
+        return () -> {
+            concurrencyLimit.acquire();
+            try {
+                return task.call();
+            } finally {
+                concurrencyLimit.release();
+            }
+        };
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed wheel timer. The timeouts are spread over a circular array of buckets, each bucket covering one tick.
+ * Scheduling and canceling a timeout only push it to a lock-free queue, drained by the timer thread at every tick, so
+ * both are O(1) and never contend on a shared heap like a {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * The price is a precision of one tick.
+ */
+@Slf4j
+public class HashedWheelJsTimer implements JsTimer {
+    private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100000;
+
+    private final long tickNanos;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final long startNanos;
+
+    private final Thread worker;
+
+    private volatile boolean stopped;
+
+    private long tick;
+
+    /**
+     * Constructor. The timer thread starts immediately.
+     *
+     * @param name The name of the timer thread
+     * @param tickDuration The duration of a tick
+     * @param ticksPerWheel The number of buckets, rounded up to a power of two
+     */
+    public HashedWheelJsTimer(String name, Duration tickDuration, int ticksPerWheel) {
+        if (tickDuration.toNanos() <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive");
+        }
+
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("The number of ticks per wheel must be between 1 and 2^30");
+        }
+
+        tickNanos = tickDuration.toNanos();
+        wheel = new Bucket[roundToPowerOfTwo(ticksPerWheel)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = wheel.length - 1;
+        startNanos = System.nanoTime();
+        worker = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    @Override
+    public JsTimeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new RejectedExecutionException("The timer is stopped");
+        }
+
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+
+        // Guard against an overflow of a very long delay
+        WheelTimeout timeout = new WheelTimeout(task, deadline < 0 ? Long.MAX_VALUE : deadline);
+        pendingTimeouts.add(timeout);
+
+        return timeout;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    /** Loop of the timer thread, which expires the timeouts of the current bucket at every tick. */
+    private void run() {
+        while (!stopped) {
+            long deadline = waitForNextTick();
+
+            if (deadline > 0) {
+                removeCancelledTimeouts();
+                transferPendingTimeouts();
+                wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                tick++;
+            }
+        }
+    }
+
+    /**
+     * Sleep until the end of the current tick.
+     *
+     * @return The elapsed time since the start of the timer, or -1 if the timer has been stopped while sleeping
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+
+        while (true) {
+            long currentTime = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - currentTime;
+
+            if (sleepNanos <= 0) {
+                return currentTime;
+            }
+
+            try {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleepNanos + 999999));
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /** Remove the canceled timeouts from their bucket. */
+    private void removeCancelledTimeouts() {
+        WheelTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /** Move the newly scheduled timeouts to the bucket of their deadline. */
+    private void transferPendingTimeouts() {
+        for (int i = 0; i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK; i++) {
+            WheelTimeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+
+            if (timeout.isCancelled()) {
+                continue;
+            }
+
+            long calculatedTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculatedTick - tick) / wheel.length;
+
+            // A timeout whose deadline has already passed expires at the current tick
+            wheel[(int) (Math.max(calculatedTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Round a number of ticks up to a power of two.
+     *
+     * @param ticksPerWheel The number of ticks
+     * @return The power of two
+     */
+    private static int roundToPowerOfTwo(int ticksPerWheel) {
+        int normalizedTicksPerWheel = 1;
+        while (normalizedTicksPerWheel < ticksPerWheel) {
+            normalizedTicksPerWheel <<= 1;
+        }
+        return normalizedTicksPerWheel;
+    }
+
+    /** Timeout of the wheel, linked into the bucket of its deadline. */
+    private final class WheelTimeout implements JsTimeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        private long remainingRounds;
+
+        private Bucket bucket;
+
+        private WheelTimeout next;
+
+        private WheelTimeout prev;
+
+        /**
+         * Constructor.
+         *
+         * @param task The task
+         * @param deadline The deadline, relative to the start of the timer
+         */
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - (System.nanoTime() - startNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /** Run the task of the timeout, unless it has been canceled in the meantime. */
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("An error has occurred when running the task of a timer", t);
+            }
+        }
+    }
+
+    /** Bucket of the wheel, a doubly linked list of timeouts only accessed by the timer thread. */
+    private final class Bucket {
+        private WheelTimeout head;
+
+        private WheelTimeout tail;
+
+        /**
+         * Append a timeout to the bucket.
+         *
+         * @param timeout The timeout
+         */
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+
+            if (head == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Expire the timeouts of the current round, and count down the rounds of the others.
+         *
+         * @param deadline The elapsed time since the start of the timer
+         */
+        private void expireTimeouts(long deadline) {
+            WheelTimeout timeout = head;
+
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+
+                timeout = next;
+            }
+        }
+
+        /**
+         * Unlink a timeout from the bucket.
+         *
+         * @param timeout The timeout
+         */
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+
+            if (timeout == head) {
+                head = timeout.next;
+            }
+
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
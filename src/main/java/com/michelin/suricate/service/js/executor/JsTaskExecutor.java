@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/** Executor running the delayed tasks of the widget executions, and the stages chained to them. */
+public interface JsTaskExecutor extends Executor {
+    /**
+     * Schedule a task after a given delay.
+     *
+     * @param task The task
+     * @param delay The delay before the execution of the task
+     * @param unit The unit of the delay
+     * @param <T> The type of the task result
+     * @return The future of the task
+     */
+    <T> ScheduledFuture<T> schedule(Callable<T> task, long delay, TimeUnit unit);
+
+    /**
+     * Schedule a periodic task, until the executor is stopped.
+     *
+     * @param task The task
+     * @param initialDelay The delay before the first execution of the task
+     * @param delay The delay between the end of an execution and the start of the next one
+     * @param unit The unit of the delays
+     */
+    void scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit);
+
+    /** Stop the executor and interrupt the running tasks. */
+    void shutdownNow();
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.TimeUnit;
+
+/** Handle of a task scheduled on a {@link JsTimer}. */
+public interface JsTimeout {
+    /**
+     * Get the remaining delay before the expiration of the timeout.
+     *
+     * @param unit The unit of the delay
+     * @return The remaining delay, zero or negative if the timeout has expired
+     */
+    long getDelay(TimeUnit unit);
+
+    /**
+     * Cancel the timeout, so its task is not run.
+     *
+     * @return False if the timeout has already expired or been canceled, true otherwise
+     */
+    boolean cancel();
+
+    /**
+     * Check if the timeout has been canceled.
+     *
+     * @return True if the timeout has been canceled
+     */
+    boolean isCancelled();
+}
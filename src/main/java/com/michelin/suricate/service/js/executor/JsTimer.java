@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer triggering the delayed tasks of the widget executions. The tasks run on the timer thread, so they must only
+ * hand the actual work off to another executor.
+ */
+public interface JsTimer {
+    /**
+     * Schedule a task after a given delay.
+     *
+     * @param task The task
+     * @param delay The delay before the execution of the task
+     * @param unit The unit of the delay
+     * @return The timeout of the task
+     * @throws RejectedExecutionException If the timer is stopped
+     */
+    JsTimeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /** Stop the timer. The pending tasks are never run. */
+    void stop();
+}
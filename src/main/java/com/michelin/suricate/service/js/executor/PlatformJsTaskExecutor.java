@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/** Executor running the tasks on a fixed pool of platform threads. */
+public class PlatformJsTaskExecutor implements JsTaskExecutor {
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param poolSize The number of platform threads
+     */
+    public PlatformJsTaskExecutor(int poolSize) {
+        executor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(poolSize);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public <T> ScheduledFuture<T> schedule(Callable<T> task, long delay, TimeUnit unit) {
+        return executor.schedule(task, delay, unit);
+    }
+
+    @Override
+    public void scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        executor.scheduleWithFixedDelay(task, initialDelay, delay, unit);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/** Timer backed by a single thread {@link ScheduledThreadPoolExecutor}. */
+public class ScheduledExecutorJsTimer implements JsTimer {
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Constructor. */
+    public ScheduledExecutorJsTimer() {
+        executor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(1);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public JsTimeout schedule(Runnable task, long delay, TimeUnit unit) {
+        ScheduledFuture<?> scheduledFuture = executor.schedule(task, delay, unit);
+
+        return new JsTimeout() {
+            @Override
+            public long getDelay(TimeUnit delayUnit) {
+                return scheduledFuture.getDelay(delayUnit);
+            }
+
+            @Override
+            public boolean cancel() {
+                return scheduledFuture.cancel(false);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return scheduledFuture.isCancelled();
+            }
+        };
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.js.JsResultDto;
+import com.michelin.suricate.service.js.executor.JsTimer;
+import com.michelin.suricate.util.JavaScriptUtils;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Coalesce the Js executions of the widget instances sharing the same script and the same effective properties. The
+ * first execution of a key runs the script, and its result is shared with every execution of the same key starting
+ * while it runs or within the coalescing window after it completes. Each widget instance gets its own copy of the
+ * result, so it is still persisted and notified separately.
+ *
+ * <p>The secret properties are stored encrypted with a random salt, so the same secret has a different ciphertext in
+ * each widget instance. The key is therefore built from the effective properties, with the secrets decrypted, and only
+ * their SHA-256 digest is kept.
+ */
+@Slf4j
+public class JsExecutionCoalescer {
+    private final JsTimer timer;
+
+    private final long windowMillis;
+
+    private final Map<String, CompletableFuture<JsResultDto>> executionsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param timer The timer evicting the results at the end of the coalescing window
+     * @param window The duration during which the result of an execution is shared after its completion
+     */
+    public JsExecutionCoalescer(JsTimer timer, Duration window) {
+        this.timer = timer;
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Run the Js execution of a widget instance, or share the result of a running or recent execution of the same key.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param widgetProperties The effective widget properties, with the secrets decrypted and the default values
+     * @param execution The execution of the script
+     * @return The Js result of the widget instance
+     */
+    public JsResultDto execute(
+            JsExecutionDto jsExecutionDto,
+            Supplier<Map<String, String>> widgetProperties,
+            Supplier<JsResultDto> execution) {
+        String key = getKey(jsExecutionDto, widgetProperties);
+
+        if (key == null) {
+            return execution.get();
+        }
+
+        CompletableFuture<JsResultDto> ownExecution = new CompletableFuture<>();
+        CompletableFuture<JsResultDto> sharedExecution = executionsByKey.putIfAbsent(key, ownExecution);
+
+        if (sharedExecution == null) {
+            return executeAndShare(key, ownExecution, execution);
+        }
+
+        try {
+            JsResultDto sharedJsResultDto = sharedExecution.get();
+
+            log.debug(
+                    "Sharing the result of a coalesced JavaScript execution with the widget instance {}",
+                    jsExecutionDto.getProjectWidgetId());
+
+            return copy(sharedJsResultDto, jsExecutionDto);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The coalesced JavaScript execution has been interrupted");
+        } catch (ExecutionException | CancellationException e) {
+            // The shared execution has been interrupted, so this widget instance runs its own
+            return execution.get();
+        }
+    }
+
+    /**
+     * Run an execution and share its result until the end of the coalescing window. An interrupted execution is not
+     * shared, as it does not hold any result.
+     *
+     * @param key The key of the execution
+     * @param ownExecution The future sharing the result
+     * @param execution The execution of the script
+     * @return The Js result
+     */
+    private JsResultDto executeAndShare(
+            String key, CompletableFuture<JsResultDto> ownExecution, Supplier<JsResultDto> execution) {
+        try {
+            JsResultDto jsResultDto = execution.get();
+
+            if (jsResultDto.getData() == null && jsResultDto.getError() == null) {
+                executionsByKey.remove(key, ownExecution);
+                ownExecution.cancel(false);
+            } else {
+                ownExecution.complete(jsResultDto);
+                scheduleEviction(key, ownExecution);
+            }
+
+            return jsResultDto;
+        } catch (RuntimeException | Error e) {
+            executionsByKey.remove(key, ownExecution);
+            ownExecution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stop sharing the result of an execution at the end of the coalescing window.
+     *
+     * @param key The key of the execution
+     * @param ownExecution The future sharing the result
+     */
+    private void scheduleEviction(String key, CompletableFuture<JsResultDto> ownExecution) {
+        try {
+            timer.schedule(() -> executionsByKey.remove(key, ownExecution), windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            executionsByKey.remove(key, ownExecution);
+        }
+    }
+
+    /**
+     * Build the coalescing key of a Js execution, from the hash of the script, of the effective properties, of the
+     * previous success and, if the script reads it, of the previous data.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param widgetProperties The effective widget properties, with the secrets decrypted and the default values
+     * @return The key, or null if the script depends on the widget instance or its properties cannot be resolved
+     */
+    static String getKey(JsExecutionDto jsExecutionDto, Supplier<Map<String, String>> widgetProperties) {
+        String script = Objects.toString(jsExecutionDto.getScript(), StringUtils.EMPTY);
+
+        if (script.contains(JavaScriptUtils.WIDGET_INSTANCE_ID_VARIABLE)) {
+            return null;
+        }
+
+        Map<String, String> effectiveWidgetProperties;
+        try {
+            effectiveWidgetProperties = new TreeMap<>(widgetProperties.get());
+        } catch (RuntimeException e) {
+            // The execution reports the error itself, as its own result
+            log.debug("Cannot resolve the properties of the widget instance {}", jsExecutionDto.getProjectWidgetId());
+            return null;
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher().putString(script, StandardCharsets.UTF_8);
+
+        for (Map.Entry<String, String> property : effectiveWidgetProperties.entrySet()) {
+            hasher.putChar('\0')
+                    .putString(property.getKey(), StandardCharsets.UTF_8)
+                    .putBoolean(property.getValue() != null)
+                    .putString(Objects.toString(property.getValue(), StringUtils.EMPTY), StandardCharsets.UTF_8);
+        }
+
+        hasher.putChar('\0').putBoolean(jsExecutionDto.isAlreadySuccess());
+
+        if (script.contains(JavaScriptUtils.PREVIOUS_DATA_VARIABLE)) {
+            hasher.putChar('\0')
+                    .putString(
+                            Objects.toString(jsExecutionDto.getPreviousData(), StringUtils.EMPTY),
+                            StandardCharsets.UTF_8);
+        }
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Copy a shared Js result for a widget instance.
+     *
+     * @param sharedJsResultDto The shared Js result
+     * @param jsExecutionDto The Js execution of the widget instance
+     * @return The Js result of the widget instance
+     */
+    private static JsResultDto copy(JsResultDto sharedJsResultDto, JsExecutionDto jsExecutionDto) {
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setData(sharedJsResultDto.getData());
+        jsResultDto.setLog(sharedJsResultDto.getLog());
+        jsResultDto.setError(sharedJsResultDto.getError());
+        jsResultDto.setLaunchDate(sharedJsResultDto.getLaunchDate());
+        jsResultDto.setProjectId(jsExecutionDto.getProjectId());
+        jsResultDto.setProjectWidgetId(jsExecutionDto.getProjectWidgetId());
+        return jsResultDto;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import com.google.common.hash.Hashing;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Level the load of the Js executions over time. Each widget instance gets a stable phase offset within its period,
+ * and its executions are aligned on it, so the instances sharing the same delay do not run in synchronized bursts.
+ * The initial executions of a newly connected project are spread over a window for the same reason.
+ */
+public class JsExecutionLoadLeveler {
+    private final long initialSpreadMillis;
+
+    private final Clock clock;
+
+    /**
+     * Constructor.
+     *
+     * @param initialSpread The window over which the initial executions of a project are spread
+     */
+    public JsExecutionLoadLeveler(Duration initialSpread) {
+        this(initialSpread, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param initialSpread The window over which the initial executions of a project are spread
+     * @param clock The clock used to align the executions on their phase
+     */
+    public JsExecutionLoadLeveler(Duration initialSpread, Clock clock) {
+        this.initialSpreadMillis = initialSpread.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Get the phase offset of a widget instance within its period. The offset only depends on the widget instance
+     * ID, so it is stable across the executions and the restarts.
+     *
+     * @param projectWidgetId The widget instance ID
+     * @param periodMillis The period of the widget instance, in milliseconds
+     * @return The phase offset, in milliseconds
+     */
+    public long getPhaseOffset(long projectWidgetId, long periodMillis) {
+        return Math.floorMod(Hashing.murmur3_128().hashLong(projectWidgetId).asLong(), periodMillis);
+    }
+
+    /**
+     * Get the delay before the next execution of a widget instance. The next execution is aligned on the next slot
+     * of the phase of the widget instance which is at least half a period away, so the average delay between two
+     * executions stays the configured one.
+     *
+     * @param projectWidgetId The widget instance ID
+     * @param delay The delay between two executions
+     * @return The delay before the next execution, in milliseconds
+     */
+    public long getNextExecutionDelay(Long projectWidgetId, Duration delay) {
+        long periodMillis = delay.toMillis();
+
+        if (projectWidgetId == null || periodMillis <= 0) {
+            return Math.max(periodMillis, 0);
+        }
+
+        long now = clock.millis();
+        long phaseOffset = getPhaseOffset(projectWidgetId, periodMillis);
+        long nextExecution = now + periodMillis - Math.floorMod(now + periodMillis - phaseOffset, periodMillis);
+
+        if (nextExecution - now < periodMillis / 2) {
+            nextExecution += periodMillis;
+        }
+
+        return nextExecution - now;
+    }
+
+    /**
+     * Get the additional delay of an initial execution, so the initial executions of a project are evenly spread over
+     * the window.
+     *
+     * @param index The index of the execution among the initial executions
+     * @param count The number of initial executions
+     * @return The additional delay, in milliseconds
+     */
+    public long getInitialExecutionSpread(int index, int count) {
+        if (count <= 1) {
+            return 0;
+        }
+
+        return initialSpreadMillis * index / count;
+    }
+}
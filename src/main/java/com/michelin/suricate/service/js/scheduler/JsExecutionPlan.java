@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
+import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.util.PropertiesUtils;
+import com.michelin.suricate.util.SecretMasker;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Immutable execution plan of a widget instance. It holds everything an execution needs that only changes when the
+ * widget, the configuration of the instance or the category parameters change, so the steady-state executions do not
+ * read them from the database again.
+ */
+@Getter
+public class JsExecutionPlan {
+    private final Long projectId;
+
+    private final Long projectWidgetId;
+
+    private final Long widgetId;
+
+    private final Long projectGridId;
+
+    private final String properties;
+
+    private final String script;
+
+    private final Long delay;
+
+    private final Long timeout;
+
+    private final boolean adaptiveDelay;
+
+    private final Integer outputCapacity;
+
+    private final List<WidgetVariableResponseDto> widgetParameters;
+
+    private final Map<String, String> widgetProperties;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<SecretMasker> secretMasker = new AtomicReference<>();
+
+    /**
+     * Constructor.
+     *
+     * @param jsExecutionDto The Js execution the plan is built from
+     * @param widgetId The widget ID
+     * @param projectGridId The ID of the grid displaying the widget instance
+     * @param widgetParameters The widget parameters, including the category parameters
+     */
+    public JsExecutionPlan(
+            JsExecutionDto jsExecutionDto,
+            Long widgetId,
+            Long projectGridId,
+            List<WidgetVariableResponseDto> widgetParameters) {
+        this.projectId = jsExecutionDto.getProjectId();
+        this.projectWidgetId = jsExecutionDto.getProjectWidgetId();
+        this.widgetId = widgetId;
+        this.projectGridId = projectGridId;
+        this.properties = jsExecutionDto.getProperties();
+        this.script = jsExecutionDto.getScript();
+        this.delay = jsExecutionDto.getDelay();
+        this.timeout = jsExecutionDto.getTimeout();
+        this.adaptiveDelay = jsExecutionDto.isAdaptiveDelay();
+        this.outputCapacity = jsExecutionDto.getOutputCapacity();
+        this.widgetParameters =
+                widgetParameters != null ? Collections.unmodifiableList(widgetParameters) : Collections.emptyList();
+        this.widgetProperties =
+                Collections.unmodifiableMap(PropertiesUtils.convertStringWidgetPropertiesToMap(properties));
+    }
+
+    /**
+     * Check if the plan has been built from the same configuration as a Js execution.
+     *
+     * @param jsExecutionDto The Js execution
+     * @return true if the plan can be used to run the Js execution
+     */
+    public boolean matches(JsExecutionDto jsExecutionDto) {
+        return Objects.equals(projectWidgetId, jsExecutionDto.getProjectWidgetId())
+                && Objects.equals(properties, jsExecutionDto.getProperties())
+                && Objects.equals(script, jsExecutionDto.getScript())
+                && Objects.equals(delay, jsExecutionDto.getDelay())
+                && Objects.equals(timeout, jsExecutionDto.getTimeout())
+                && adaptiveDelay == jsExecutionDto.isAdaptiveDelay()
+                && Objects.equals(outputCapacity, jsExecutionDto.getOutputCapacity());
+    }
+
+    /**
+     * Get the masker of the secrets of the widget instance, built once for the values of its properties.
+     *
+     * @param widgetPropertiesValues The values of the widget properties, decrypted and with their default values
+     * @return The masker
+     */
+    public SecretMasker getSecretMasker(Collection<String> widgetPropertiesValues) {
+        SecretMasker current = secretMasker.get();
+
+        if (current != null && current.masks(widgetPropertiesValues)) {
+            return current;
+        }
+
+        SecretMasker built = SecretMasker.of(widgetPropertiesValues);
+        secretMasker.set(built);
+        return built;
+    }
+
+    /**
+     * Create the next Js execution of the widget instance.
+     *
+     * @param previousData The data of the last execution
+     * @param widgetState The state of the widget instance
+     * @param alreadySuccess true if the widget instance already succeeded once
+     * @return The Js execution
+     */
+    public JsExecutionDto newJsExecution(String previousData, WidgetStateEnum widgetState, boolean alreadySuccess) {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto(
+                properties, script, previousData, projectId, projectWidgetId, delay, timeout, widgetState, null);
+        jsExecutionDto.setAlreadySuccess(alreadySuccess);
+        jsExecutionDto.setAdaptiveDelay(adaptiveDelay);
+        jsExecutionDto.setOutputCapacity(outputCapacity);
+
+        return jsExecutionDto;
+    }
+}
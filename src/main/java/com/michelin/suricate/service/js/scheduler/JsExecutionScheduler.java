@@ -18,6 +18,8 @@
  */
 package com.michelin.suricate.service.js.scheduler;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
 import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
@@ -25,25 +27,48 @@ import com.michelin.suricate.model.entity.Project;
 import com.michelin.suricate.model.entity.ProjectGrid;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.property.ApplicationProperties;
 import com.michelin.suricate.service.api.ProjectWidgetService;
 import com.michelin.suricate.service.api.WidgetService;
 import com.michelin.suricate.service.js.DashboardScheduleService;
 import com.michelin.suricate.service.js.JsExecutionService;
+import com.michelin.suricate.service.js.context.JsContextPool;
+import com.michelin.suricate.service.js.executor.HandoffJsTaskExecutor;
+import com.michelin.suricate.service.js.executor.HashedWheelJsTimer;
+import com.michelin.suricate.service.js.executor.JsTaskExecutor;
+import com.michelin.suricate.service.js.executor.JsTimeout;
+import com.michelin.suricate.service.js.executor.JsTimer;
+import com.michelin.suricate.service.js.executor.PlatformJsTaskExecutor;
+import com.michelin.suricate.service.js.executor.ScheduledExecutorJsTimer;
 import com.michelin.suricate.service.js.task.JsExecutionAsyncTask;
 import com.michelin.suricate.service.js.task.JsResultAsyncTask;
+import com.michelin.suricate.util.JavaScriptUtils;
+import com.michelin.suricate.util.JsonValidator;
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.StringUtils;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
 import org.jasypt.encryption.StringEncryptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -56,20 +81,51 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 public class JsExecutionScheduler {
-    private static final int EXECUTOR_POOL_SIZE = 60;
-
     private static final long JS_IMMEDIATE_EXECUTION_DELAY = 1L;
 
-    private final Map<Long, Pair<WeakReference<ScheduledFuture<JsResultDto>>, WeakReference<ScheduledFuture<Void>>>>
-            jsTasksByProjectWidgetId = new ConcurrentHashMap<>();
+    private static final long JS_EXECUTION_TIMEOUT = 60L;
+
+    private final Map<Long, WeakReference<CompletableFuture<JsResultDto>>> jsTasksByProjectWidgetId =
+            new ConcurrentHashMap<>();
+
+    private final Map<Long, JsExecutionPlan> jsExecutionPlansByProjectWidgetId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> jsEffectiveDelaysByProjectWidgetId = new ConcurrentHashMap<>();
+
+    private final Map<Long, HashCode> jsResultHashesByProjectWidgetId = new ConcurrentHashMap<>();
+
+    private final Map<Long, PendingJsExecution> pendingJsExecutionsByProjectWidgetId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Long>> displayedGridIdsByProjectId = new ConcurrentHashMap<>();
+
+    private final Map<String, Source> jsSourcesByWidgetScript = new ConcurrentHashMap<>();
 
-    private ScheduledThreadPoolExecutor jsExecutionExecutor;
+    private final Map<String, JsContextPool> jsContextPoolsByWidgetInstanceScript = new ConcurrentHashMap<>();
 
-    private ScheduledThreadPoolExecutor jsResultExecutor;
+    private final Engine engine = Engine.newBuilder("js")
+            .option("engine.WarnInterpreterOnly", "false")
+            .build();
+
+    private JsTaskExecutor jsExecutionExecutor;
+
+    private ExecutorService jsResultExecutor;
+
+    private JsTimer jsTimer;
+
+    private JsExecutionCoalescer jsExecutionCoalescer;
+
+    private JsExecutionLoadLeveler jsExecutionLoadLeveler;
+
+    private ResourceLimits jsResourceLimits;
+
+    private JsonValidator jsonValidator = JsonValidator.DEFAULT;
 
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Lazy
     @Autowired
     private ProjectWidgetService projectWidgetService;
@@ -87,39 +143,138 @@ public class JsExecutionScheduler {
     @Autowired
     @Qualifier("jasyptStringEncryptor") private StringEncryptor stringEncryptor;
 
-    /** Init the Js executors. */
+    /**
+     * Init the Js executors and timer. The Js results are processed on their own virtual threads, as their retries
+     * wait between the attempts and must not hold the threads of the Js executions.
+     */
     @Transactional
     public void init() {
-        log.debug("Initializing the JavaScript executors");
+        log.debug("Initializing the JavaScript executors and timer");
 
         if (jsExecutionExecutor != null) {
             jsExecutionExecutor.shutdownNow();
         }
 
-        jsExecutionExecutor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(EXECUTOR_POOL_SIZE);
-        jsExecutionExecutor.setRemoveOnCancelPolicy(true);
-
         if (jsResultExecutor != null) {
             jsResultExecutor.shutdownNow();
         }
 
-        jsResultExecutor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(EXECUTOR_POOL_SIZE);
-        jsResultExecutor.setRemoveOnCancelPolicy(true);
+        if (jsTimer != null) {
+            jsTimer.stop();
+        }
+
+        ApplicationProperties.Execution executionProperties = applicationProperties.getWidgets().getExecution();
+
+        // The contexts of the shared engine must all use the same limits, so they are built only once
+        if (jsResourceLimits == null) {
+            jsResourceLimits = JavaScriptUtils.newResourceLimits(executionProperties.getStatementLimit());
+        }
+
+        jsonValidator = new JsonValidator(
+                executionProperties.getJsonValidation().getMaxSize(),
+                executionProperties.getJsonValidation().getMaxDepth());
+        jsTimer = createJsTimer(executionProperties.getTimer());
+        jsExecutionExecutor = createJsTaskExecutor(executionProperties);
+        jsResultExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("js-result-", 0).factory());
+        jsExecutionCoalescer = executionProperties.getCoalescing().isEnabled()
+                ? new JsExecutionCoalescer(
+                        jsTimer, Duration.ofSeconds(executionProperties.getCoalescing().getWindow()))
+                : null;
+        jsExecutionLoadLeveler = executionProperties.getLoadLeveling().isEnabled()
+                ? new JsExecutionLoadLeveler(
+                        Duration.ofSeconds(executionProperties.getLoadLeveling().getInitialSpread()))
+                : null;
+
+        ApplicationProperties.ContextPool contextPoolProperties = executionProperties.getContextPool();
+        if (contextPoolProperties.isEnabled()) {
+            jsExecutionExecutor.scheduleWithFixedDelay(
+                    this::evictIdleJsContexts,
+                    contextPoolProperties.getIdleTimeout(),
+                    contextPoolProperties.getIdleTimeout(),
+                    TimeUnit.SECONDS);
+        }
 
         jsTasksByProjectWidgetId.clear();
+        jsExecutionPlansByProjectWidgetId.clear();
+        jsEffectiveDelaysByProjectWidgetId.clear();
+        jsResultHashesByProjectWidgetId.clear();
+        pendingJsExecutionsByProjectWidgetId.clear();
+        displayedGridIdsByProjectId.clear();
 
         projectWidgetService.resetProjectWidgetsState();
     }
 
     /**
-     * Schedule a list of Js executions.
+     * Create the timer according to the configured timer type. The hashed wheel timer schedules and cancels in
+     * constant time, at the price of a precision of one tick.
+     *
+     * @param timerProperties The timer properties
+     * @return The timer
+     */
+    private JsTimer createJsTimer(ApplicationProperties.ExecutionTimer timerProperties) {
+        if ("hashed-wheel".equals(timerProperties.getType())) {
+            log.debug(
+                    "Triggering the JavaScript tasks with a hashed wheel timer ({} ticks of {} ms)",
+                    timerProperties.getTicksPerWheel(),
+                    timerProperties.getTickDuration());
+            return new HashedWheelJsTimer(
+                    "js-timer",
+                    Duration.ofMillis(timerProperties.getTickDuration()),
+                    timerProperties.getTicksPerWheel());
+        }
+
+        return new ScheduledExecutorJsTimer();
+    }
+
+    /**
+     * Create the executor according to the configured execution mode. In the virtual mode, the tasks run on virtual
+     * threads and the concurrency limit replaces the size of the thread pool. In the platform mode, the tasks run on a
+     * fixed pool of threads, which also triggers them unless the hashed wheel timer is used.
+     *
+     * @param executionProperties The execution properties
+     * @return The executor
+     */
+    private JsTaskExecutor createJsTaskExecutor(ApplicationProperties.Execution executionProperties) {
+        if ("virtual".equals(executionProperties.getMode())) {
+            log.debug(
+                    "Running the JavaScript tasks on virtual threads (concurrency limit: {})",
+                    executionProperties.getMaxConcurrency());
+            return new HandoffJsTaskExecutor(
+                    jsTimer,
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("js-execution-", 0).factory()),
+                    executionProperties.getMaxConcurrency());
+        }
+
+        log.debug("Running the JavaScript tasks on {} platform threads", executionProperties.getPoolSize());
+
+        if ("hashed-wheel".equals(executionProperties.getTimer().getType())) {
+            return new HandoffJsTaskExecutor(
+                    jsTimer, Executors.newFixedThreadPool(executionProperties.getPoolSize()), 0);
+        }
+
+        return new PlatformJsTaskExecutor(executionProperties.getPoolSize());
+    }
+
+    /**
+     * Schedule a list of Js executions. When the load leveling is enabled, the executions starting now are spread over
+     * the initial spread window.
      *
      * @param jsExecutionDtos The list of Js execution to schedule
      * @param startJsRequestNow Should the Js execution starts now or from the widget configured delay
      */
     public void scheduleJsRequests(final List<JsExecutionDto> jsExecutionDtos, boolean startJsRequestNow) {
         try {
-            jsExecutionDtos.forEach(jsExecRequest -> schedule(jsExecRequest, startJsRequestNow));
+            if (jsExecutionLoadLeveler == null || !startJsRequestNow) {
+                jsExecutionDtos.forEach(jsExecRequest -> schedule(jsExecRequest, startJsRequestNow));
+                return;
+            }
+
+            for (int i = 0; i < jsExecutionDtos.size(); i++) {
+                schedule(
+                        jsExecutionDtos.get(i),
+                        true,
+                        jsExecutionLoadLeveler.getInitialExecutionSpread(i, jsExecutionDtos.size()));
+            }
         } catch (Exception e) {
             log.error("An error has occurred when scheduling a JavaScript request for a new project subscription", e);
         }
@@ -129,15 +284,27 @@ public class JsExecutionScheduler {
      * Method used to schedule the Js execution updating the associated widget. Checks if the given Js execution can be
      * executed and set the widget in a pause state if it cannot be. If the widget was in a pause state from a previous
      * execution, then set the widget in a running state before executing the request. Create an asynchronous task which
-     * will execute the Js execution and execute the widget. Schedule this task according to the computed delay. Create
-     * another asynchronous task which will wait for the result of the first task (the result of the widget execution).
-     * It waits during the whole duration set in the widget description as timeout.
+     * will execute the Js execution and execute the widget. Schedule this task according to the computed delay. The
+     * result of the task is processed by a stage chained to its completion, so no thread waits for it. The task times
+     * out after the duration set in the widget description, counted from its start.
      *
      * @param jsExecutionDto The Js execution
      * @param startJsRequestNow Should the Js execution starts now or from the widget configured delay
      */
     public void schedule(final JsExecutionDto jsExecutionDto, final boolean startJsRequestNow) {
-        if (jsExecutionDto == null || jsExecutionExecutor == null || jsResultExecutor == null) {
+        schedule(jsExecutionDto, startJsRequestNow, 0L);
+    }
+
+    /**
+     * Schedule the Js execution updating the associated widget.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param startJsRequestNow Should the Js execution starts now or from the widget configured delay
+     * @param initialSpreadMillis The additional delay of an execution starting now, in milliseconds
+     */
+    private void schedule(
+            final JsExecutionDto jsExecutionDto, final boolean startJsRequestNow, final long initialSpreadMillis) {
+        if (jsExecutionDto == null || jsExecutionExecutor == null) {
             return;
         }
 
@@ -156,34 +323,553 @@ public class JsExecutionScheduler {
             projectWidgetService.updateState(WidgetStateEnum.RUNNING, jsExecutionDto.getProjectWidgetId(), new Date());
         }
 
-        ProjectWidget projectWidget =
-                projectWidgetService.getOne(jsExecutionDto.getProjectWidgetId()).orElse(new ProjectWidget());
+        // The widgets not declaring the capacity of their console output get the configured one, resolved before the
+        // execution plan is built so the next executions created from the plan match it
+        if (jsExecutionDto.getOutputCapacity() == null) {
+            jsExecutionDto.setOutputCapacity(applicationProperties.getWidgets().getExecution().getOutputCapacity());
+        }
 
-        List<WidgetVariableResponseDto> widgetParameters =
-                widgetService.getWidgetParametersForJsExecution(projectWidget.getWidget());
+        JsExecutionPlan jsExecutionPlan = getJsExecutionPlan(jsExecutionDto);
 
-        long jsRequestExecutionDelay = startJsRequestNow ? JS_IMMEDIATE_EXECUTION_DELAY : jsExecutionDto.getDelay();
+        long jsRequestExecutionDelay = startJsRequestNow
+                ? TimeUnit.SECONDS.toMillis(JS_IMMEDIATE_EXECUTION_DELAY) + initialSpreadMillis
+                : getNextExecutionDelay(jsExecutionDto, jsExecutionPlan);
 
         log.debug(
-                "The JavaScript execution of the widget instance {} will start in {} second(s)",
+                "The JavaScript execution of the widget instance {} will start in {} ms",
                 jsExecutionDto.getProjectWidgetId(),
                 jsRequestExecutionDelay);
 
+        Long widgetId = jsExecutionPlan.getWidgetId();
+
+        JsExecutionAsyncTask jsExecutionAsyncTask = JsExecutionAsyncTask.builder()
+                .jsExecutionDto(jsExecutionDto)
+                .stringEncryptor(stringEncryptor)
+                .widgetParameters(jsExecutionPlan.getWidgetParameters())
+                .parsedWidgetProperties(jsExecutionPlan.getWidgetProperties())
+                .engine(engine)
+                .source(getJsSource(widgetId, jsExecutionDto.getScript()))
+                .contextPool(
+                        getJsContextPool(widgetId, jsExecutionDto.getProjectWidgetId(), jsExecutionDto.getScript()))
+                .resourceLimits(jsResourceLimits)
+                .secretMaskerProvider(jsExecutionPlan::getSecretMasker)
+                .jsonValidator(jsonValidator)
+                .build();
+
+        CompletableFuture<JsResultDto> jsExecutionFuture = new CompletableFuture<>();
+
+        PendingJsExecution pendingJsExecution = new PendingJsExecution(
+                jsExecutionDto, jsExecutionFuture, System.currentTimeMillis() + jsRequestExecutionDelay);
+        if (jsExecutionDto.getProjectWidgetId() != null) {
+            PendingJsExecution replacedJsExecution =
+                    pendingJsExecutionsByProjectWidgetId.put(jsExecutionDto.getProjectWidgetId(), pendingJsExecution);
+
+            // The replaced execution will never be executed, so its pipeline is canceled right away
+            if (replacedJsExecution != null) {
+                replacedJsExecution.getJsExecutionFuture().cancel(true);
+            }
+        }
+
         ScheduledFuture<JsResultDto> scheduledJsRequestTask = jsExecutionExecutor.schedule(
-                new JsExecutionAsyncTask(jsExecutionDto, stringEncryptor, widgetParameters),
+                () -> execute(
+                        pendingJsExecution,
+                        jsExecutionAsyncTask,
+                        jsExecutionFuture,
+                        getJsExecutionTimeout(jsExecutionDto),
+                        jsExecutionCoalescer),
                 jsRequestExecutionDelay,
-                TimeUnit.SECONDS);
+                TimeUnit.MILLISECONDS);
+
+        // Propagate the cancellation and the timeout of the pipeline to the Js execution task. The thread is
+        // interrupted to leave the blocking host calls, and the context is closed to stop the running script
+        jsExecutionFuture.whenComplete((jsResultDto, throwable) -> {
+            if (throwable != null) {
+                scheduledJsRequestTask.cancel(true);
+                jsExecutionAsyncTask.cancel();
+            }
+        });
 
-        JsResultAsyncTask jsResultAsyncTask = applicationContext.getBean(
-                JsResultAsyncTask.class, scheduledJsRequestTask, jsExecutionDto, this, dashboardScheduleService);
+        JsResultAsyncTask jsResultAsyncTask =
+                applicationContext.getBean(JsResultAsyncTask.class, jsExecutionDto, this, dashboardScheduleService);
 
-        ScheduledFuture<Void> scheduledJsResponseTask =
-                jsResultExecutor.schedule(jsResultAsyncTask, jsRequestExecutionDelay, TimeUnit.SECONDS);
+        jsExecutionFuture.whenCompleteAsync(jsResultAsyncTask, jsResultExecutor);
 
-        jsTasksByProjectWidgetId.put(
-                jsExecutionDto.getProjectWidgetId(),
-                ImmutablePair.of(
-                        new WeakReference<>(scheduledJsRequestTask), new WeakReference<>(scheduledJsResponseTask)));
+        jsTasksByProjectWidgetId.put(jsExecutionDto.getProjectWidgetId(), new WeakReference<>(jsExecutionFuture));
+    }
+
+    /**
+     * Execute a Js execution task and complete the pipeline of the widget instance with its result. The timeout of the
+     * pipeline is armed on the timer when the task starts, and disarmed when the pipeline completes. When the
+     * coalescing is enabled, the result of an identical execution of another widget instance may be used instead.
+     *
+     * <p>The execution is skipped if it has been claimed by a refresh, a cancellation or a new schedule since it was
+     * scheduled. Its pipeline is then canceled, so the stages chained to it always run.
+     *
+     * @param pendingJsExecution The Js execution, as scheduled
+     * @param jsExecutionAsyncTask The Js execution task
+     * @param jsExecutionFuture The pipeline of the widget instance
+     * @param jsExecutionTimeout The timeout of the Js execution, in seconds
+     * @param coalescer The coalescer of the Js executions, or null if the coalescing is disabled
+     * @return The Js result, or null if the execution has been skipped
+     */
+    private JsResultDto execute(
+            PendingJsExecution pendingJsExecution,
+            JsExecutionAsyncTask jsExecutionAsyncTask,
+            CompletableFuture<JsResultDto> jsExecutionFuture,
+            long jsExecutionTimeout,
+            JsExecutionCoalescer coalescer) {
+        JsExecutionDto jsExecutionDto = pendingJsExecution.getJsExecutionDto();
+        Long projectWidgetId = jsExecutionDto.getProjectWidgetId();
+
+        if (projectWidgetId != null
+                && !pendingJsExecutionsByProjectWidgetId.remove(projectWidgetId, pendingJsExecution)) {
+            log.debug(
+                    "The JavaScript execution of the widget instance {} has been claimed. Skipping it",
+                    projectWidgetId);
+            jsExecutionFuture.completeExceptionally(
+                    new CancellationException("The JavaScript execution has been claimed"));
+            return null;
+        }
+
+        try {
+            JsTimeout timeout = jsTimer.schedule(
+                    () -> jsExecutionFuture.completeExceptionally(new TimeoutException(
+                            "The JavaScript execution exceeded " + jsExecutionTimeout + " second(s)")),
+                    jsExecutionTimeout,
+                    TimeUnit.SECONDS);
+            jsExecutionFuture.whenComplete((jsResultDto, throwable) -> timeout.cancel());
+
+            JsResultDto jsResultDto = coalescer != null
+                    ? coalescer.execute(
+                            jsExecutionDto,
+                            jsExecutionAsyncTask::getEffectiveWidgetProperties,
+                            jsExecutionAsyncTask::call)
+                    : jsExecutionAsyncTask.call();
+            jsExecutionFuture.complete(jsResultDto);
+            return jsResultDto;
+        } catch (RuntimeException | Error e) {
+            jsExecutionFuture.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the execution plan of a widget instance. The plan is built from the database on the first execution, and
+     * rebuilt when the Js execution does not match it anymore or once it has been evicted.
+     *
+     * @param jsExecutionDto The Js execution
+     * @return The execution plan
+     */
+    public JsExecutionPlan getJsExecutionPlan(JsExecutionDto jsExecutionDto) {
+        Long projectWidgetId = jsExecutionDto.getProjectWidgetId();
+        JsExecutionPlan jsExecutionPlan =
+                projectWidgetId != null ? jsExecutionPlansByProjectWidgetId.get(projectWidgetId) : null;
+
+        if (jsExecutionPlan != null && jsExecutionPlan.matches(jsExecutionDto)) {
+            return jsExecutionPlan;
+        }
+
+        log.debug("Building the execution plan of the widget instance {}", projectWidgetId);
+
+        ProjectWidget projectWidget =
+                projectWidgetService.getOne(projectWidgetId).orElse(new ProjectWidget());
+
+        List<WidgetVariableResponseDto> widgetParameters =
+                widgetService.getWidgetParametersForJsExecution(projectWidget.getWidget());
+
+        jsExecutionPlan = new JsExecutionPlan(
+                jsExecutionDto,
+                projectWidget.getWidget() != null ? projectWidget.getWidget().getId() : null,
+                projectWidget.getProjectGrid() != null ? projectWidget.getProjectGrid().getId() : null,
+                widgetParameters);
+
+        if (projectWidgetId != null) {
+            jsExecutionPlansByProjectWidgetId.put(projectWidgetId, jsExecutionPlan);
+        }
+
+        return jsExecutionPlan;
+    }
+
+    /**
+     * Create the next Js execution of a widget instance from its execution plan and the result of its last
+     * execution, without reading the database.
+     *
+     * @param jsExecutionDto The last Js execution
+     * @param jsResultDto The result of the last Js execution
+     * @return The next Js execution, or null if the execution plan has been evicted
+     */
+    public JsExecutionDto getNextJsExecution(JsExecutionDto jsExecutionDto, JsResultDto jsResultDto) {
+        JsExecutionPlan jsExecutionPlan = jsExecutionDto != null && jsResultDto.getProjectWidgetId() != null
+                ? jsExecutionPlansByProjectWidgetId.get(jsResultDto.getProjectWidgetId())
+                : null;
+
+        if (jsExecutionPlan == null || !jsExecutionPlan.matches(jsExecutionDto)) {
+            return null;
+        }
+
+        if (jsResultDto.isValid()) {
+            return jsExecutionPlan.newJsExecution(jsResultDto.getData(), WidgetStateEnum.RUNNING, true);
+        }
+
+        return jsExecutionPlan.newJsExecution(
+                jsExecutionDto.getPreviousData(), WidgetStateEnum.WARNING, jsExecutionDto.isAlreadySuccess());
+    }
+
+    /** Evict the execution plans of all the widget instances. Called when the category parameters change. */
+    public void evictJsExecutionPlans() {
+        log.debug("Evicting the execution plans of all the widget instances");
+        jsExecutionPlansByProjectWidgetId.clear();
+    }
+
+    /**
+     * Get the delay before the next Js execution. The delay declared by the widget is used, unless the adaptive delay
+     * applies to the widget instance and its data did not change during the last executions.
+     *
+     * @param jsExecutionDto The Js execution
+     * @return The delay, in seconds
+     */
+    public long getEffectiveDelay(JsExecutionDto jsExecutionDto) {
+        if (!isAdaptiveDelay(jsExecutionDto) || jsExecutionDto.getProjectWidgetId() == null) {
+            return jsExecutionDto.getDelay();
+        }
+
+        return jsEffectiveDelaysByProjectWidgetId.getOrDefault(
+                jsExecutionDto.getProjectWidgetId(), jsExecutionDto.getDelay());
+    }
+
+    /**
+     * Get the delay before the next Js execution, from its effective delay. The delay is stretched while the grid of
+     * the widget instance is hidden on every screen. When the load leveling is enabled, the execution is aligned on the
+     * phase of the widget instance.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param jsExecutionPlan The execution plan of the widget instance
+     * @return The delay, in milliseconds
+     */
+    private long getNextExecutionDelay(JsExecutionDto jsExecutionDto, JsExecutionPlan jsExecutionPlan) {
+        Duration delay = Duration.ofSeconds(getEffectiveDelay(jsExecutionDto));
+
+        if (isGridHidden(jsExecutionPlan.getProjectId(), jsExecutionPlan.getProjectGridId())) {
+            double hiddenDelayMultiplier =
+                    applicationProperties.getWidgets().getExecution().getGridVisibility().getHiddenDelayMultiplier();
+            delay = Duration.ofMillis((long) (delay.toMillis() * hiddenDelayMultiplier));
+        }
+
+        if (jsExecutionLoadLeveler == null) {
+            return delay.toMillis();
+        }
+
+        return jsExecutionLoadLeveler.getNextExecutionDelay(jsExecutionDto.getProjectWidgetId(), delay);
+    }
+
+    /**
+     * Update the grids of a project displayed by the connected screens. The widget instances of the other grids run at
+     * a reduced rate until their grid is displayed again.
+     *
+     * @param projectId The project ID
+     * @param displayedGridIds The IDs of the displayed grids, or null if every grid must be considered displayed
+     */
+    public void updateDisplayedGrids(Long projectId, Set<Long> displayedGridIds) {
+        if (projectId == null) {
+            return;
+        }
+
+        if (displayedGridIds == null
+                || !applicationProperties.getWidgets().getExecution().getGridVisibility().isEnabled()) {
+            displayedGridIdsByProjectId.remove(projectId);
+            return;
+        }
+
+        log.debug("The grids {} of the project {} are displayed", displayedGridIds, projectId);
+        displayedGridIdsByProjectId.put(projectId, Set.copyOf(displayedGridIds));
+    }
+
+    /**
+     * Check if a grid is hidden on every screen connected to its project.
+     *
+     * @param projectId The project ID
+     * @param projectGridId The grid ID
+     * @return true if the grid is hidden
+     */
+    public boolean isGridHidden(Long projectId, Long projectGridId) {
+        if (projectId == null || projectGridId == null) {
+            return false;
+        }
+
+        Set<Long> displayedGridIds = displayedGridIdsByProjectId.get(projectId);
+        return displayedGridIds != null && !displayedGridIds.contains(projectGridId);
+    }
+
+    /**
+     * Refresh the widget instances of a hidden grid just before it is displayed. The executions which would not run
+     * before the grid is displayed are started right away, so the grid is not displayed with stale data.
+     *
+     * @param projectGridId The grid ID
+     * @param displayDelay The delay before the grid is displayed, in seconds
+     */
+    public void refreshGridBeforeDisplay(Long projectGridId, long displayDelay) {
+        ApplicationProperties.GridVisibility gridVisibilityProperties =
+                applicationProperties.getWidgets().getExecution().getGridVisibility();
+
+        if (projectGridId == null || jsTimer == null || !gridVisibilityProperties.isEnabled()) {
+            return;
+        }
+
+        long displayDelayMillis = TimeUnit.SECONDS.toMillis(displayDelay);
+        long displayTime = System.currentTimeMillis() + displayDelayMillis;
+        long preRefreshLeadMillis = TimeUnit.SECONDS.toMillis(gridVisibilityProperties.getPreRefreshLead());
+        long refreshDelayMillis = Math.max(0, displayDelayMillis - preRefreshLeadMillis);
+
+        jsTimer.schedule(
+                () -> jsExecutionExecutor.execute(() -> refreshGrid(projectGridId, displayTime)),
+                refreshDelayMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start right away the pending executions of the widget instances of a grid which would run after the grid is
+     * displayed.
+     *
+     * @param projectGridId The grid ID
+     * @param displayTime The time at which the grid is displayed, in milliseconds since the epoch
+     */
+    void refreshGrid(Long projectGridId, long displayTime) {
+        jsExecutionPlansByProjectWidgetId.values().stream()
+                .filter(jsExecutionPlan -> projectGridId.equals(jsExecutionPlan.getProjectGridId()))
+                .map(JsExecutionPlan::getProjectWidgetId)
+                .forEach(projectWidgetId -> {
+                    PendingJsExecution pendingJsExecution = pendingJsExecutionsByProjectWidgetId.get(projectWidgetId);
+
+                    if (pendingJsExecution != null
+                            && pendingJsExecution.getExecutionTime() > displayTime
+                            && pendingJsExecutionsByProjectWidgetId.remove(projectWidgetId, pendingJsExecution)) {
+                        log.debug(
+                                "Refreshing the widget instance {} before its grid {} is displayed",
+                                projectWidgetId,
+                                projectGridId);
+
+                        pendingJsExecution.getJsExecutionFuture().cancel(true);
+                        schedule(pendingJsExecution.getJsExecutionDto(), true);
+                    }
+                });
+    }
+
+    /**
+     * Get the current delay between the executions of a widget instance.
+     *
+     * @param projectWidgetId The widget instance ID
+     * @return The delay, in seconds, or null if the widget instance is not scheduled
+     */
+    public Long getEffectiveDelay(Long projectWidgetId) {
+        JsExecutionPlan jsExecutionPlan =
+                projectWidgetId != null ? jsExecutionPlansByProjectWidgetId.get(projectWidgetId) : null;
+
+        if (jsExecutionPlan == null) {
+            return null;
+        }
+
+        return jsEffectiveDelaysByProjectWidgetId.getOrDefault(projectWidgetId, jsExecutionPlan.getDelay());
+    }
+
+    /**
+     * Update the delay of a widget instance from the result of its last execution. While the execution returns the
+     * same data as the previous one, the delay backs off up to the configured ceiling. As soon as the data changes or
+     * the execution fails, the delay snaps back to the one declared by the widget.
+     *
+     * @param jsExecutionDto The last Js execution
+     * @param jsResultDto The result of the last Js execution
+     */
+    public void updateEffectiveDelay(JsExecutionDto jsExecutionDto, JsResultDto jsResultDto) {
+        Long projectWidgetId = jsExecutionDto.getProjectWidgetId();
+        if (projectWidgetId == null) {
+            return;
+        }
+
+        Long delay = jsExecutionDto.getDelay();
+        if (!isAdaptiveDelay(jsExecutionDto)
+                || delay == null
+                || delay <= 0
+                || !jsResultDto.isValid()
+                || !Objects.equals(jsExecutionDto.getPreviousData(), jsResultDto.getData())) {
+            if (jsEffectiveDelaysByProjectWidgetId.remove(projectWidgetId) != null) {
+                log.debug(
+                        "The data of the widget instance {} changed. Restoring the delay to {} second(s)",
+                        projectWidgetId,
+                        delay);
+            }
+            return;
+        }
+
+        ApplicationProperties.AdaptiveDelay adaptiveDelayProperties =
+                applicationProperties.getWidgets().getExecution().getAdaptiveDelay();
+        long maxDelay = Math.max(delay, adaptiveDelayProperties.getMaxDelay());
+
+        long effectiveDelay = jsEffectiveDelaysByProjectWidgetId.compute(projectWidgetId, (key, currentDelay) -> {
+            long previousDelay = currentDelay != null ? currentDelay : delay;
+            long nextDelay = Math.max(
+                    previousDelay + 1, (long) Math.ceil(previousDelay * adaptiveDelayProperties.getMultiplier()));
+
+            return Math.min(maxDelay, nextDelay);
+        });
+
+        log.debug(
+                "The data of the widget instance {} did not change. Backing off the delay to {} second(s)",
+                projectWidgetId,
+                effectiveDelay);
+    }
+
+    /**
+     * Check if a successful result is the same as the last result stored for the widget instance, by comparing the
+     * hashes of their data and logs. The hash of the result is kept for the next execution. Always false when the
+     * change detection is disabled.
+     *
+     * @param jsResultDto The successful result of the Js execution
+     * @return true if the data and the log are unchanged
+     */
+    public boolean isUnchangedJsResult(JsResultDto jsResultDto) {
+        Long projectWidgetId = jsResultDto.getProjectWidgetId();
+        if (projectWidgetId == null
+                || !applicationProperties.getWidgets().getExecution().getChangeDetection().isEnabled()) {
+            return false;
+        }
+
+        String data = Objects.toString(jsResultDto.getData(), StringUtils.EMPTY);
+        String executionLog = Objects.toString(jsResultDto.getLog(), StringUtils.EMPTY);
+        HashCode jsResultHash = Hashing.murmur3_128()
+                .newHasher()
+                .putInt(data.length())
+                .putString(data, StandardCharsets.UTF_8)
+                .putInt(executionLog.length())
+                .putString(executionLog, StandardCharsets.UTF_8)
+                .hash();
+
+        return jsResultHash.equals(jsResultHashesByProjectWidgetId.put(projectWidgetId, jsResultHash));
+    }
+
+    /**
+     * Forget the hash of the last result of a widget instance, so its next result is stored entirely.
+     *
+     * @param projectWidgetId The widget instance ID
+     */
+    public void evictJsResultHash(Long projectWidgetId) {
+        if (projectWidgetId != null) {
+            jsResultHashesByProjectWidgetId.remove(projectWidgetId);
+        }
+    }
+
+    /**
+     * Check if the adaptive delay applies to a Js execution, either because it is enabled for all the widgets or
+     * because the widget or the widget instance opted in.
+     *
+     * @param jsExecutionDto The Js execution
+     * @return true if the delay can back off
+     */
+    private boolean isAdaptiveDelay(JsExecutionDto jsExecutionDto) {
+        return jsExecutionDto.isAdaptiveDelay()
+                || applicationProperties.getWidgets().getExecution().getAdaptiveDelay().isEnabled();
+    }
+
+    /**
+     * Get the timeout of a Js execution. The timeout defined by the widget is used if it is greater than the default
+     * one.
+     *
+     * @param jsExecutionDto The Js execution
+     * @return The timeout, in seconds
+     */
+    private long getJsExecutionTimeout(JsExecutionDto jsExecutionDto) {
+        return jsExecutionDto.getTimeout() == null || jsExecutionDto.getTimeout() < JS_EXECUTION_TIMEOUT
+                ? JS_EXECUTION_TIMEOUT
+                : jsExecutionDto.getTimeout();
+    }
+
+    /**
+     * Get the compiled source of a widget script. The source is cached by widget ID and script hash, so the shared
+     * engine can reuse the parsing and the JIT profiles of the script across the executions of all the widget
+     * instances.
+     *
+     * @param widgetId The widget ID
+     * @param script The raw script of the widget
+     * @return The source, or null if the widget has no ID
+     */
+    public Source getJsSource(Long widgetId, String script) {
+        if (widgetId == null) {
+            return null;
+        }
+
+        return jsSourcesByWidgetScript.computeIfAbsent(getJsSourceKey(widgetId, script), key -> Source.newBuilder(
+                        "js", JavaScriptUtils.prepare(script), "widget-" + widgetId + ".js")
+                .cached(true)
+                .buildLiteral());
+    }
+
+    /**
+     * Get the pool holding the context of a widget script for a widget instance. The pools are not shared between the
+     * instances of a widget, as the global scope of a context keeps the values written by the previous executions,
+     * including the decrypted secret properties. As the executions of a widget instance are sequential, a pool keeps a
+     * single context.
+     *
+     * @param widgetId The widget ID
+     * @param projectWidgetId The widget instance ID
+     * @param script The raw script of the widget
+     * @return The context pool, or null if the context pooling is disabled or the widget or its instance has no ID
+     */
+    public JsContextPool getJsContextPool(Long widgetId, Long projectWidgetId, String script) {
+        ApplicationProperties.ContextPool contextPoolProperties =
+                applicationProperties.getWidgets().getExecution().getContextPool();
+
+        if (widgetId == null || projectWidgetId == null || !contextPoolProperties.isEnabled()) {
+            return null;
+        }
+
+        return jsContextPoolsByWidgetInstanceScript.computeIfAbsent(
+                getJsSourceKey(widgetId, script) + ":" + projectWidgetId,
+                key -> new JsContextPool(
+                        engine,
+                        getJsSource(widgetId, script),
+                        Duration.ofSeconds(contextPoolProperties.getIdleTimeout()),
+                        jsResourceLimits));
+    }
+
+    /** Close the idle contexts of every pool. The pools which do not hold any context anymore are removed. */
+    public void evictIdleJsContexts() {
+        jsContextPoolsByWidgetInstanceScript.forEach((key, contextPool) -> {
+            if (contextPool.evictIdleContexts() && jsContextPoolsByWidgetInstanceScript.remove(key, contextPool)) {
+                contextPool.close();
+            }
+        });
+    }
+
+    /**
+     * Build the key of a widget script, made of the widget ID and the hash of the script.
+     *
+     * @param widgetId The widget ID
+     * @param script The raw script of the widget
+     * @return The key
+     */
+    private String getJsSourceKey(Long widgetId, String script) {
+        return widgetId + ":"
+                + Hashing.sha256().hashString(Objects.toString(script, StringUtils.EMPTY), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evict the cached sources and execution plans, and close the context pools of a widget. Called when the widget is
+     * updated from a repository.
+     *
+     * @param widgetId The widget ID
+     */
+    public void evictJsSources(Long widgetId) {
+        if (widgetId != null) {
+            log.debug("Evicting the cached JavaScript sources of the widget {}", widgetId);
+            jsSourcesByWidgetScript.keySet().removeIf(key -> key.startsWith(widgetId + ":"));
+            jsExecutionPlansByProjectWidgetId.values().removeIf(plan -> widgetId.equals(plan.getWidgetId()));
+            jsContextPoolsByWidgetInstanceScript.entrySet().removeIf(entry -> {
+                if (entry.getKey().startsWith(widgetId + ":")) {
+                    entry.getValue().close();
+                    return true;
+                }
+                return false;
+            });
+        }
     }
 
     /**
@@ -219,38 +905,65 @@ public class JsExecutionScheduler {
     }
 
     /**
-     * Cancel the widget execution by canceling both Js tasks.
+     * Cancel the widget execution by canceling its pipeline, which cancels the Js task. The execution plan and the last
+     * widget instance sent to the screens are evicted, as the widget instance is either removed, reconfigured or not
+     * displayed anymore.
      *
      * @param projectWidgetId the widget instance ID
      */
     public void cancelWidgetExecution(Long projectWidgetId) {
-        Pair<WeakReference<ScheduledFuture<JsResultDto>>, WeakReference<ScheduledFuture<Void>>> pairOfJsFutureTasks =
+        WeakReference<CompletableFuture<JsResultDto>> jsExecutionFutureReference =
                 jsTasksByProjectWidgetId.get(projectWidgetId);
 
-        if (pairOfJsFutureTasks != null) {
-            cancelScheduledFutureTask(projectWidgetId, pairOfJsFutureTasks.getLeft());
-            cancelScheduledFutureTask(projectWidgetId, pairOfJsFutureTasks.getRight());
+        if (jsExecutionFutureReference != null) {
+            cancelScheduledFutureTask(projectWidgetId, jsExecutionFutureReference);
+        }
+
+        if (projectWidgetId != null) {
+            jsExecutionPlansByProjectWidgetId.remove(projectWidgetId);
+            jsEffectiveDelaysByProjectWidgetId.remove(projectWidgetId);
+            jsResultHashesByProjectWidgetId.remove(projectWidgetId);
+            pendingJsExecutionsByProjectWidgetId.remove(projectWidgetId);
+            dashboardScheduleService.evictSentProjectWidget(projectWidgetId);
+            jsContextPoolsByWidgetInstanceScript.entrySet().removeIf(entry -> {
+                if (entry.getKey().endsWith(":" + projectWidgetId)) {
+                    entry.getValue().close();
+                    return true;
+                }
+                return false;
+            });
         }
 
         projectWidgetService.updateState(WidgetStateEnum.STOPPED, projectWidgetId);
     }
 
     /**
-     * Cancel a scheduled future task for a widget instance.
+     * Cancel a future task for a widget instance.
      *
      * @param projectWidgetId The widget instance ID
-     * @param scheduledFutureTaskReference The reference containing the future task
+     * @param futureTaskReference The reference containing the future task
      */
     public void cancelScheduledFutureTask(
-            Long projectWidgetId, WeakReference<? extends ScheduledFuture<?>> scheduledFutureTaskReference) {
-        if (scheduledFutureTaskReference != null) {
-            ScheduledFuture<?> scheduledFutureTask = scheduledFutureTaskReference.get();
+            Long projectWidgetId, WeakReference<? extends Future<?>> futureTaskReference) {
+        if (futureTaskReference != null) {
+            Future<?> futureTask = futureTaskReference.get();
 
-            if (scheduledFutureTask != null && (!scheduledFutureTask.isDone() || !scheduledFutureTask.isCancelled())) {
+            if (futureTask != null && (!futureTask.isDone() || !futureTask.isCancelled())) {
                 log.debug("Canceling the future JavaScript execution task for the widget instance {}", projectWidgetId);
 
-                scheduledFutureTask.cancel(true);
+                futureTask.cancel(true);
             }
         }
     }
+
+    /** A scheduled Js execution which has not started yet. */
+    @Getter
+    @AllArgsConstructor
+    private static final class PendingJsExecution {
+        private final JsExecutionDto jsExecutionDto;
+
+        private final CompletableFuture<JsResultDto> jsExecutionFuture;
+
+        private final long executionTime;
+    }
 }
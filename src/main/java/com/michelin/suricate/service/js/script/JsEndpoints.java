@@ -20,17 +20,32 @@ package com.michelin.suricate.service.js.script;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.michelin.suricate.util.exception.js.FatalException;
 import com.michelin.suricate.util.exception.js.RemoteException;
 import com.michelin.suricate.util.exception.js.RequestException;
+import com.michelin.suricate.util.http.CircuitOpenException;
 import com.michelin.suricate.util.http.OkHttpClientUtils;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
 import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
@@ -41,6 +56,9 @@ import org.springframework.http.HttpStatus;
 /** Javascript endpoints called by the widgets. */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class JsEndpoints {
+    private static final Map<String, CompletableFuture<ResponseSnapshot>> REQUESTS_IN_FLIGHT =
+            new ConcurrentHashMap<>();
+
     /**
      * Create and submit an HTTP request according to the given parameters.
      *
@@ -51,12 +69,32 @@ public final class JsEndpoints {
      * @param body The body of the request. Can be null in case of GET HTTP request
      * @return The response body of the request or the value of the requested header
      * @throws IOException If an error occurred during the execution of the request
-     * @throws RemoteException If an error occurred during the execution of the request
+     * @throws RemoteException If an error occurred during the execution of the request, or the circuit of the host
+     *     is open
      * @throws RequestException If an error occurred during the execution of the request
      */
     private static String executeRequest(
             String url, String headerName, String headerValue, String headerToReturn, String body, boolean returnCode)
             throws IOException, RemoteException, RequestException {
+        Request request = buildRequest(url, headerName, headerValue, body);
+
+        try {
+            return getResult(executeSingleFlight(request, body, !returnCode), headerToReturn, returnCode);
+        } catch (CircuitOpenException e) {
+            throw new RemoteException(e.getMessage());
+        }
+    }
+
+    /**
+     * Create an HTTP request according to the given parameters.
+     *
+     * @param url The URL of the endpoint to call
+     * @param headerName The name of the header to add
+     * @param headerValue The value to set to the added header
+     * @param body The body of the request. Can be null in case of GET HTTP request
+     * @return The request
+     */
+    private static Request buildRequest(String url, String headerName, String headerValue, String body) {
         Request.Builder builder = new Request.Builder().url(url);
 
         if (StringUtils.isNotBlank(headerName)) {
@@ -67,38 +105,218 @@ public final class JsEndpoints {
             builder.post(RequestBody.create(body, MediaType.parse(APPLICATION_JSON_VALUE)));
         }
 
-        Request request = builder.build();
-        String returnedValue;
+        return builder.build();
+    }
+
+    /**
+     * Get the value returned to the widget from the response of a request.
+     *
+     * @param response The snapshot of the response
+     * @param headerToReturn The name of the header to return
+     * @param returnCode true to only return the http status code
+     * @return The response body of the request, the value of the requested header or the http status code
+     * @throws RemoteException If the request failed with a server error
+     * @throws RequestException If the request failed with a request error
+     */
+    private static String getResult(ResponseSnapshot response, String headerToReturn, boolean returnCode)
+            throws RemoteException, RequestException {
+        if (returnCode) {
+            return String.valueOf(response.code);
+        }
+
+        if (response.code >= HttpStatus.OK.value() && response.code < HttpStatus.MULTIPLE_CHOICES.value()) {
+            if (StringUtils.isNotBlank(headerToReturn)) {
+                return response.headers.get(headerToReturn);
+            }
 
-        try (Response response =
-                OkHttpClientUtils.getUnsafeOkHttpClient().newCall(request).execute()) {
-            if (returnCode) {
-                return String.valueOf(response.code());
+            return response.body;
+        }
+
+        if (response.code >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            throw new RemoteException("A server error occurred during the execution of the request /"
+                    + response.method + " "
+                    + response.url + " (code " + response.code
+                    + ").");
+        }
+
+        throw new RequestException("A request error occurred during the execution of the request /"
+                + response.method + " "
+                + response.url + " (code " + response.code
+                + "). Error body details: "
+                + (StringUtils.isNotBlank(response.body) ? response.body : "Empty body"));
+    }
+
+    /**
+     * Execute GET HTTP requests concurrently on the asynchronous dispatcher of the HTTP client, and wait for all
+     * their responses.
+     *
+     * @param requests The requests
+     * @return The response bodies of the requests, in the same order
+     * @throws IOException If an error occurred during the execution of a request
+     * @throws RemoteException If a request failed with a server error, or the circuit of its host is open
+     * @throws RequestException If a request failed with a request error
+     */
+    private static String[] executeRequests(List<Request> requests)
+            throws IOException, RemoteException, RequestException {
+        Map<Call, CompletableFuture<ResponseSnapshot>> enqueuedCalls = new HashMap<>();
+
+        try {
+            List<CompletableFuture<ResponseSnapshot>> responses = new ArrayList<>(requests.size());
+            for (Request request : requests) {
+                responses.add(enqueueSingleFlight(request, enqueuedCalls));
+            }
+
+            String[] results = new String[requests.size()];
+            for (int i = 0; i < requests.size(); i++) {
+                results[i] = getResult(awaitResponse(requests.get(i), null, true, responses.get(i)), null, false);
             }
-            if (response.isSuccessful()) {
-                if (StringUtils.isNotBlank(headerToReturn)) {
-                    returnedValue = response.header(headerToReturn);
-                } else {
-                    returnedValue = Objects.requireNonNull(response.body()).string();
+
+            return results;
+        } catch (CircuitOpenException e) {
+            throw new RemoteException(e.getMessage());
+        } finally {
+            // Do not let the remaining calls run when a request failed or the execution has been interrupted
+            enqueuedCalls.forEach((call, flight) -> {
+                if (!flight.isDone()) {
+                    flight.completeExceptionally(new InterruptedIOException("Canceled"));
+                    call.cancel();
                 }
-            } else {
-                if (response.code() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
-                    throw new RemoteException("A server error occurred during the execution of the request /"
-                            + response.request().method() + " "
-                            + response.request().url() + " (code " + response.code()
-                            + ").");
-                } else {
-                    String bodyString = response.body().string();
-                    throw new RequestException("A request error occurred during the execution of the request /"
-                            + response.request().method() + " "
-                            + response.request().url() + " (code " + response.code()
-                            + "). Error body details: "
-                            + (StringUtils.isNotBlank(bodyString) ? bodyString : "Empty body"));
+            });
+        }
+    }
+
+    /**
+     * Wait for the response of a request executed by another thread.
+     *
+     * @param request The request
+     * @param body The body of the request
+     * @param readBody true to read the response body, false if only the status code and the headers are needed
+     * @param response The future response
+     * @return The snapshot of the response
+     * @throws IOException If an error occurred during the execution of the request
+     */
+    private static ResponseSnapshot awaitResponse(
+            Request request, String body, boolean readBody, CompletableFuture<ResponseSnapshot> response)
+            throws IOException {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the request /" + request.method() + " "
+                    + request.url());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedIOException) {
+                // The shared request has been interrupted with the execution of its widget, retry it
+                return executeSingleFlight(request, body, readBody);
+            }
+
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Enqueue an HTTP request on the asynchronous dispatcher, sharing the response with the identical requests
+     * already in flight.
+     *
+     * @param request The request
+     * @param enqueuedCalls The calls enqueued by the current execution
+     * @return The future snapshot of the response
+     */
+    private static CompletableFuture<ResponseSnapshot> enqueueSingleFlight(
+            Request request, Map<Call, CompletableFuture<ResponseSnapshot>> enqueuedCalls) {
+        String key = getRequestKey(request, null, true);
+        CompletableFuture<ResponseSnapshot> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseSnapshot> inFlight = REQUESTS_IN_FLIGHT.putIfAbsent(key, flight);
+
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        flight.whenComplete((response, throwable) -> REQUESTS_IN_FLIGHT.remove(key, flight));
+
+        Call call = OkHttpClientUtils.getUnsafeOkHttpClient().newCall(request);
+        enqueuedCalls.put(call, flight);
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    flight.complete(ResponseSnapshot.of(response, true));
+                } catch (IOException | RuntimeException e) {
+                    flight.completeExceptionally(e);
                 }
             }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                flight.completeExceptionally(e);
+            }
+        });
+
+        return flight;
+    }
+
+    /**
+     * Execute an HTTP request, sharing the response with the identical requests already in flight. Identical requests
+     * have the same method, URL, headers and body, and need the response body or not.
+     *
+     * @param request The request
+     * @param body The body of the request
+     * @param readBody true to read the response body, false if only the status code and the headers are needed
+     * @return The snapshot of the response
+     * @throws IOException If an error occurred during the execution of the request
+     */
+    private static ResponseSnapshot executeSingleFlight(Request request, String body, boolean readBody)
+            throws IOException {
+        String key = getRequestKey(request, body, readBody);
+        CompletableFuture<ResponseSnapshot> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseSnapshot> inFlight = REQUESTS_IN_FLIGHT.putIfAbsent(key, flight);
+
+        if (inFlight != null) {
+            return awaitResponse(request, body, readBody, inFlight);
         }
 
-        return returnedValue;
+        try (Response response =
+                OkHttpClientUtils.getUnsafeOkHttpClient().newCall(request).execute()) {
+            ResponseSnapshot snapshot = ResponseSnapshot.of(response, readBody);
+            flight.complete(snapshot);
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            REQUESTS_IN_FLIGHT.remove(key, flight);
+        }
+    }
+
+    /**
+     * Compute the single-flight key of a request. The key is hashed to avoid keeping the header values, like
+     * credentials.
+     *
+     * @param request The request
+     * @param body The body of the request
+     * @param readBody true if the response body is read, so the requests only sharing the status code are separated
+     * @return The key
+     */
+    private static String getRequestKey(Request request, String body, boolean readBody) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(request.method(), StandardCharsets.UTF_8);
+        hasher.putString(request.url().toString(), StandardCharsets.UTF_8);
+
+        for (String name : new TreeSet<>(request.headers().names())) {
+            hasher.putString(name, StandardCharsets.UTF_8);
+
+            for (String value : request.headers(name)) {
+                hasher.putString(value, StandardCharsets.UTF_8);
+            }
+        }
+
+        hasher.putString(Objects.toString(body, StringUtils.EMPTY), StandardCharsets.UTF_8);
+        hasher.putBoolean(readBody);
+        return hasher.hash().toString();
     }
 
     /**
@@ -163,6 +381,31 @@ public final class JsEndpoints {
         return JsEndpoints.executeRequest(url, headerName, headerValue, headerToReturn, null, false);
     }
 
+    /**
+     * Perform GET HTTP calls concurrently.
+     *
+     * @param urls The URLs of the endpoints to call
+     * @return The response bodies of the requests, in the same order as the URLs
+     */
+    public static String[] getAll(List<String> urls) throws RemoteException, IOException, RequestException {
+        return JsEndpoints.getAll(urls, null, null);
+    }
+
+    /**
+     * Perform GET HTTP calls concurrently.
+     *
+     * @param urls The URLs of the endpoints to call
+     * @param headerName The name of the header to add to each request
+     * @param headerValue The value to set to the added header
+     * @return The response bodies of the requests, in the same order as the URLs
+     */
+    public static String[] getAll(List<String> urls, String headerName, String headerValue)
+            throws RemoteException, IOException, RequestException {
+        return JsEndpoints.executeRequests(urls.stream()
+                .map(url -> buildRequest(url, headerName, headerValue, null))
+                .toList());
+    }
+
     /**
      * Perform a POST HTTP call.
      *
@@ -219,7 +462,8 @@ public final class JsEndpoints {
     }
 
     /**
-     * Check if a thread is interrupted. This method is injected during the Js execution preparation
+     * Check if a thread is interrupted. Kept for the scripts calling it explicitly, the executions are cancelled by
+     * closing their context
      *
      * @throws InterruptedException an exception if the thread is interrupted
      */
@@ -268,4 +512,43 @@ public final class JsEndpoints {
     public static void throwTimeout() throws TimeoutException {
         throw new TimeoutException("Timeout");
     }
+
+    /** Response of an HTTP request, read once and shared between the identical requests. */
+    private static final class ResponseSnapshot {
+        private final String method;
+
+        private final String url;
+
+        private final int code;
+
+        private final Headers headers;
+
+        private final String body;
+
+        private ResponseSnapshot(String method, String url, int code, Headers headers, String body) {
+            this.method = method;
+            this.url = url;
+            this.code = code;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * Read a response into a snapshot. The body is not downloaded when it is not needed, like for the requests
+         * only returning the status code.
+         *
+         * @param response The response
+         * @param readBody true to read the response body
+         * @return The snapshot of the response
+         * @throws IOException If the response body cannot be read
+         */
+        private static ResponseSnapshot of(Response response, boolean readBody) throws IOException {
+            return new ResponseSnapshot(
+                    response.request().method(),
+                    response.request().url().toString(),
+                    response.code(),
+                    response.headers(),
+                    readBody ? response.body().string() : null);
+        }
+    }
 }
@@ -23,33 +23,44 @@ import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
 import com.michelin.suricate.model.enumeration.DataTypeEnum;
 import com.michelin.suricate.model.enumeration.JsExecutionErrorTypeEnum;
-import com.michelin.suricate.service.js.script.JsEndpoints;
+import com.michelin.suricate.service.js.context.JsContextPool;
+import com.michelin.suricate.service.js.context.PooledJsContext;
+import com.michelin.suricate.util.BoundedOutputStream;
 import com.michelin.suricate.util.JavaScriptUtils;
-import com.michelin.suricate.util.JsonUtils;
+import com.michelin.suricate.util.JsonValidator;
 import com.michelin.suricate.util.PropertiesUtils;
+import com.michelin.suricate.util.SecretMasker;
 import com.michelin.suricate.util.ToStringUtils;
 import com.michelin.suricate.util.exception.js.NoRunFunctionException;
 import com.michelin.suricate.util.exception.js.RemoteException;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.UnknownHostException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Strings;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.graalvm.polyglot.Context;
-import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.jasypt.encryption.StringEncryptor;
 
 /** Task that execute the Javascript script of a widget instance. */
 @Slf4j
-@AllArgsConstructor
 public class JsExecutionAsyncTask implements Callable<JsResultDto> {
     private final JsExecutionDto jsExecutionDto;
 
@@ -57,13 +68,90 @@ public class JsExecutionAsyncTask implements Callable<JsResultDto> {
 
     private final List<WidgetVariableResponseDto> widgetParameters;
 
+    private final Map<String, String> parsedWidgetProperties;
+
+    private final Engine engine;
+
+    private final Source source;
+
+    private final JsContextPool contextPool;
+
+    private final ResourceLimits resourceLimits;
+
+    private final Function<Collection<String>, SecretMasker> secretMaskerProvider;
+
+    private final JsonValidator jsonValidator;
+
+    private Map<String, String> effectiveWidgetProperties;
+
+    private boolean cancelled;
+
+    private Runnable runningContextCanceller;
+
+    /**
+     * Constructor. The script is parsed from the Js execution in a dedicated engine.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param stringEncryptor The string encryptor used to decrypt the secret properties
+     * @param widgetParameters The widget parameters
+     */
+    public JsExecutionAsyncTask(
+            JsExecutionDto jsExecutionDto,
+            StringEncryptor stringEncryptor,
+            List<WidgetVariableResponseDto> widgetParameters) {
+        this(jsExecutionDto, stringEncryptor, widgetParameters, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructor used by the builder. Every argument after the widget parameters is optional.
+     *
+     * @param jsExecutionDto The Js execution
+     * @param stringEncryptor The string encryptor used to decrypt the secret properties
+     * @param widgetParameters The widget parameters
+     * @param parsedWidgetProperties The widget properties already parsed from the Js execution, or null to parse them
+     * @param engine The shared engine, or null to let each context create its own engine
+     * @param source The prepared source of the widget, or null to parse the script of the Js execution
+     * @param contextPool The pool of contexts of the widget, or null to execute the script in a new context
+     * @param resourceLimits The resource limits of the new contexts, or null for no limit
+     * @param secretMaskerProvider The provider of the masker hiding the widget properties values from the logs, or
+     *     null to build a new masker for each execution
+     * @param jsonValidator The validator of the JSON returned by the script, or null for the default validator
+     */
+    @Builder
+    private JsExecutionAsyncTask(
+            JsExecutionDto jsExecutionDto,
+            StringEncryptor stringEncryptor,
+            List<WidgetVariableResponseDto> widgetParameters,
+            Map<String, String> parsedWidgetProperties,
+            Engine engine,
+            Source source,
+            JsContextPool contextPool,
+            ResourceLimits resourceLimits,
+            Function<Collection<String>, SecretMasker> secretMaskerProvider,
+            JsonValidator jsonValidator) {
+        this.jsExecutionDto = jsExecutionDto;
+        this.stringEncryptor = stringEncryptor;
+        this.widgetParameters = widgetParameters;
+        this.parsedWidgetProperties = parsedWidgetProperties;
+        this.engine = engine;
+        this.source = source;
+        this.contextPool = contextPool;
+        this.resourceLimits = resourceLimits;
+        this.secretMaskerProvider = secretMaskerProvider != null ? secretMaskerProvider : SecretMasker::of;
+        this.jsonValidator = jsonValidator != null ? jsonValidator : JsonValidator.DEFAULT;
+    }
+
     /**
      * Method automatically called by the scheduler after the given delay. Convert the widget properties set by the user
-     * to a map. Then, decrypt the secret properties and set default value to unset properties. Then, set the mandatory
-     * variables to the engine script. - The widget properties - The data of the previous widget execution - The widget
-     * instance ID Compile the Javascript script of the widget, evaluate it and get the JSON result The method handles
-     * multiple types of exceptions: - InterruptedIOException: triggered when the execution of the widget is interrupted
-     * because the Js execution has been canceled (because the user left the dashboard, or because of a timeout, etc...)
+     * to a map, unless they are already parsed. Then, decrypt the secret properties and set default value to unset
+     * properties. Then, bind the mandatory variables: the widget properties, the data of the previous widget execution
+     * and the widget instance ID. Without a context pool, the script is evaluated in a new context, from the prepared
+     * source when there is one, and its run function is executed. With a context pool, a context is borrowed, the
+     * variables are rebound, the script is evaluated if the context has never run it, and its run function is executed.
+     * The JSON result is validated, and the console output is kept as log with the secret values hidden. The method
+     * handles multiple types of exceptions: - InterruptedIOException or cancellation: triggered when the execution of
+     * the widget is interrupted because the Js execution has been canceled (because the user left the dashboard, or
+     * because of a timeout, etc...)
      *
      * @return The response from Js result
      */
@@ -74,72 +162,55 @@ public class JsExecutionAsyncTask implements Callable<JsResultDto> {
         JsResultDto jsResultDto = new JsResultDto();
         jsResultDto.setLaunchDate(new Date());
 
-        try (OutputStream output = new ByteArrayOutputStream()) {
-            try (Context context = Context.newBuilder("js")
-                    .out(output)
-                    .err(output)
-                    .options(Map.of("engine.WarnInterpreterOnly", "false"))
-                    .allowHostAccess(HostAccess.ALL)
-                    .allowHostClassLookup(className -> className.equals(JsEndpoints.class.getName()))
-                    .build()) {
-
-                // Get widget parameters values set by the user
-                Map<String, String> widgetProperties =
-                        PropertiesUtils.convertStringWidgetPropertiesToMap(jsExecutionDto.getProperties());
-
-                // Decrypt widget secret properties
-                decryptWidgetProperties(widgetProperties);
-
-                // Set default value to widget properties
-                setDefaultValueToWidgetProperties(widgetProperties);
-
-                Value bindings = context.getBindings("js");
-                // Populate properties in the engine
-                for (Map.Entry<String, String> entry : widgetProperties.entrySet()) {
-                    bindings.putMember(entry.getKey().toUpperCase(), entry.getValue());
-                }
+        try {
+            Map<String, String> widgetProperties = getEffectiveWidgetProperties();
 
-                // Add the data of the previous execution
-                bindings.putMember(JavaScriptUtils.PREVIOUS_DATA_VARIABLE, jsExecutionDto.getPreviousData());
+            Map<String, Object> members = new HashMap<>();
+            // Populate properties in the engine
+            for (Map.Entry<String, String> entry : widgetProperties.entrySet()) {
+                members.put(entry.getKey().toUpperCase(), entry.getValue());
+            }
 
-                // Add the project widget id (id of the widget instance)
-                bindings.putMember(JavaScriptUtils.WIDGET_INSTANCE_ID_VARIABLE, jsExecutionDto.getProjectWidgetId());
+            // Add the data of the previous execution
+            members.put(JavaScriptUtils.PREVIOUS_DATA_VARIABLE, jsExecutionDto.getPreviousData());
 
-                context.eval("js", JavaScriptUtils.prepare(jsExecutionDto.getScript()));
+            // Add the project widget id (id of the widget instance)
+            members.put(JavaScriptUtils.WIDGET_INSTANCE_ID_VARIABLE, jsExecutionDto.getProjectWidgetId());
 
-                Value runFunction = bindings.getMember("run");
+            Pair<String, String> jsonAndOutput =
+                    contextPool != null ? executeInPooledContext(members) : executeInNewContext(members);
+            String json = jsonAndOutput.getLeft();
+            String output = jsonAndOutput.getRight();
 
-                if (runFunction == null) {
-                    throw new NoRunFunctionException("No run function defined");
-                }
+            SecretMasker secretMasker = secretMaskerProvider.apply(widgetProperties.values());
 
-                String json = runFunction.execute().asString();
+            if (jsonValidator.isValid(json)) {
+                jsResultDto.setData(json);
+                jsResultDto.setLog(ToStringUtils.hideSecretsInLogs(output, secretMasker));
+            } else {
+                log.debug(
+                        "The JSON response obtained after the JavaScript execution of "
+                                + "the widget instance {} is invalid",
+                        jsExecutionDto.getProjectWidgetId());
+                // An oversized response is not copied to the logs
+                String invalidJson = jsonValidator.exceedsMaxSize(json)
+                        ? "it exceeds " + jsonValidator.getMaxSize() + " characters"
+                        : json;
+                log.debug("The JSON response is: {}", invalidJson);
 
-                if (JsonUtils.isValid(json)) {
-                    jsResultDto.setData(json);
-                    jsResultDto.setLog(
-                            ToStringUtils.hideWidgetConfigurationInLogs(output.toString(), widgetProperties.values()));
-                } else {
-                    log.debug(
-                            "The JSON response obtained after the JavaScript execution of "
-                                    + "the widget instance {} is invalid",
-                            jsExecutionDto.getProjectWidgetId());
-                    log.debug("The JSON response is: {}", json);
-
-                    jsResultDto.setLog(ToStringUtils.hideWidgetConfigurationInLogs(
-                            output + "\nThe JSON response is not valid - " + json, widgetProperties.values()));
-                    jsResultDto.setError(
-                            jsExecutionDto.isAlreadySuccess()
-                                    ? JsExecutionErrorTypeEnum.ERROR
-                                    : JsExecutionErrorTypeEnum.FATAL);
-                }
+                jsResultDto.setLog(ToStringUtils.hideSecretsInLogs(
+                        output + "\nThe JSON response is not valid - " + invalidJson, secretMasker));
+                jsResultDto.setError(
+                        jsExecutionDto.isAlreadySuccess()
+                                ? JsExecutionErrorTypeEnum.ERROR
+                                : JsExecutionErrorTypeEnum.FATAL);
             }
         } catch (Exception exception) {
             Throwable rootCause = ExceptionUtils.getRootCause(exception);
 
             // Do not set logs during an interruption, as it is caused by a canceling
             // of the Js execution, the return Js result will not be processed by the JsResultAsyncTask
-            if (rootCause instanceof InterruptedIOException) {
+            if (isCancelled() || rootCause instanceof InterruptedIOException) {
                 log.info(
                         "The execution of the widget instance {} has been interrupted",
                         jsExecutionDto.getProjectWidgetId());
@@ -169,6 +240,163 @@ public class JsExecutionAsyncTask implements Callable<JsResultDto> {
         return jsResultDto;
     }
 
+    /**
+     * Evaluate the script in a new context, then execute its run function.
+     *
+     * @param members The members to bind before the evaluation of the script
+     * @return The JSON returned by the run function and the console output
+     * @throws IOException If the output stream cannot be closed
+     */
+    private Pair<String, String> executeInNewContext(Map<String, Object> members) throws IOException {
+        try (OutputStream output = new BoundedOutputStream(getOutputCapacity());
+                Context context =
+                        JavaScriptUtils.newContextBuilder(engine, output, resourceLimits).build()) {
+            attachRunningContext(() -> context.close(true));
+
+            Value bindings = context.getBindings("js");
+            members.forEach(bindings::putMember);
+
+            if (source != null) {
+                context.eval(source);
+            } else {
+                context.eval("js", JavaScriptUtils.prepare(jsExecutionDto.getScript()));
+            }
+
+            Value runFunction = bindings.getMember("run");
+
+            if (runFunction == null) {
+                throw new NoRunFunctionException("No run function defined");
+            }
+
+            String json = runFunction.execute().asString();
+
+            return ImmutablePair.of(json, output.toString());
+        } finally {
+            detachRunningContext();
+        }
+    }
+
+    /**
+     * Borrow a context from the pool of the widget, rebind the members of the widget instance, then execute the run
+     * function. The context is closed if the execution fails, so the pool never keeps a context in an unknown state.
+     *
+     * @param members The members to rebind
+     * @return The JSON returned by the run function and the console output
+     */
+    private Pair<String, String> executeInPooledContext(Map<String, Object> members) {
+        PooledJsContext pooledContext = contextPool.borrow();
+        String json;
+        String output;
+
+        try {
+            attachRunningContext(pooledContext::close);
+            pooledContext.bind(members, getOutputCapacity());
+            json = pooledContext.run().asString();
+            output = pooledContext.getOutput();
+        } catch (RuntimeException e) {
+            detachRunningContext();
+            contextPool.invalidate(pooledContext);
+            throw e;
+        }
+
+        // The context may be closed by a cancellation received at the end of the execution
+        if (detachRunningContext()) {
+            contextPool.invalidate(pooledContext);
+            throw new CancellationException("The execution has been cancelled");
+        }
+
+        contextPool.release(pooledContext);
+
+        return ImmutablePair.of(json, output);
+    }
+
+    /**
+     * Get the maximum number of bytes of console output kept for the execution.
+     *
+     * @return The capacity of the console output
+     */
+    private int getOutputCapacity() {
+        return jsExecutionDto.getOutputCapacity() != null
+                ? jsExecutionDto.getOutputCapacity()
+                : BoundedOutputStream.DEFAULT_CAPACITY;
+    }
+
+    /**
+     * Cancel the execution. The context running the script is closed asynchronously, so the caller is not blocked
+     * until the script leaves its current statement or host call.
+     */
+    public void cancel() {
+        Runnable canceller;
+
+        synchronized (this) {
+            cancelled = true;
+            canceller = runningContextCanceller;
+            runningContextCanceller = null;
+        }
+
+        if (canceller != null) {
+            Thread.ofVirtual().name("js-execution-cancel").start(canceller);
+        }
+    }
+
+    /**
+     * Check if the execution has been cancelled.
+     *
+     * @return true if the execution has been cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Register the way to cancel the context running the script.
+     *
+     * @param canceller The canceller of the running context
+     * @throws CancellationException If the execution has already been cancelled
+     */
+    private synchronized void attachRunningContext(Runnable canceller) {
+        if (cancelled) {
+            throw new CancellationException("The execution has been cancelled");
+        }
+
+        runningContextCanceller = canceller;
+    }
+
+    /**
+     * Unregister the canceller of the running context.
+     *
+     * @return true if the execution has been cancelled
+     */
+    private synchronized boolean detachRunningContext() {
+        runningContextCanceller = null;
+        return cancelled;
+    }
+
+    /**
+     * Get the effective widget properties: the values set by the user, with the secret properties decrypted and the
+     * default values of the unset properties. They are computed once per task.
+     *
+     * @return The effective widget properties
+     */
+    public Map<String, String> getEffectiveWidgetProperties() {
+        if (effectiveWidgetProperties == null) {
+            // Get widget parameters values set by the user
+            Map<String, String> widgetProperties = parsedWidgetProperties != null
+                    ? new TreeMap<>(parsedWidgetProperties)
+                    : PropertiesUtils.convertStringWidgetPropertiesToMap(jsExecutionDto.getProperties());
+
+            // Decrypt widget secret properties
+            decryptWidgetProperties(widgetProperties);
+
+            // Set default value to widget properties
+            setDefaultValueToWidgetProperties(widgetProperties);
+
+            effectiveWidgetProperties = widgetProperties;
+        }
+
+        return effectiveWidgetProperties;
+    }
+
     /**
      * Decrypt the encrypted widget secret properties.
      *
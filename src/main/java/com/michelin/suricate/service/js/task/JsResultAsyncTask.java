@@ -22,11 +22,10 @@ import com.michelin.suricate.model.dto.js.JsExecutionDto;
 import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.service.js.DashboardScheduleService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.context.annotation.Scope;
@@ -35,21 +34,18 @@ import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
-/** Task that get the result of a Javascript script execution. */
+/** Stage chained to the completion of a Javascript script execution, which processes its result. */
 @Slf4j
 @Component
 @Scope(value = "prototype")
-public class JsResultAsyncTask implements Callable<Void> {
+public class JsResultAsyncTask implements BiConsumer<JsResultDto, Throwable> {
     public static final int MAX_RETRY = 10;
-    private static final int TIMEOUT = 60;
     private static final int MAX_BACK_OFF_PERIOD = 10000;
 
     private static final int MIN_BACK_OFF_PERIOD = 1000;
 
     private final DashboardScheduleService dashboardScheduleService;
 
-    private final ScheduledFuture<JsResultDto> scheduledJsExecutionTask;
-
     private final JsExecutionDto jsExecutionDto;
 
     private final JsExecutionScheduler scheduler;
@@ -59,17 +55,14 @@ public class JsResultAsyncTask implements Callable<Void> {
     /**
      * Constructor.
      *
-     * @param scheduledJsExecutionTask The scheduled asynchronous task which will execute the Js execution
      * @param jsExecutionDto The Js execution itself
      * @param scheduler The Js execution scheduler
      * @param dashboardScheduleService The dashboard schedule service
      */
     public JsResultAsyncTask(
-            ScheduledFuture<JsResultDto> scheduledJsExecutionTask,
             JsExecutionDto jsExecutionDto,
             JsExecutionScheduler scheduler,
             DashboardScheduleService dashboardScheduleService) {
-        this.scheduledJsExecutionTask = scheduledJsExecutionTask;
         this.jsExecutionDto = jsExecutionDto;
         this.scheduler = scheduler;
         this.dashboardScheduleService = dashboardScheduleService;
@@ -77,102 +70,103 @@ public class JsResultAsyncTask implements Callable<Void> {
     }
 
     /**
-     * Method automatically called by the scheduler after the given delay. Compute a timeout duration to wait a response
-     * from the Js execution request. Wait for a response from the Js execution task. We wait for the given amount of
-     * time. Update the widget from the Js result and notify the Front-End. Perform some retries on the widget update.
-     * If all the retries fail, then schedule a new Js execution.
+     * Method automatically called when the Js execution completes. Update the widget from the Js result and notify the
+     * Front-End. Perform some retries on the widget update. If all the retries fail, then schedule a new Js execution.
+     * If the Js execution failed or exceeded its timeout, update the widget without Js result.
+     *
+     * @param jsResultDto The Js result, or null if the Js execution did not complete normally
+     * @param throwable The failure of the Js execution, or null if it completed normally
      */
     @Override
-    public Void call() {
-        try {
-            long jsExecutionTimeout = jsExecutionDto.getTimeout() == null || jsExecutionDto.getTimeout() < TIMEOUT
-                    ? TIMEOUT
-                    : jsExecutionDto.getTimeout();
+    public void accept(JsResultDto jsResultDto, Throwable throwable) {
+        if (throwable == null) {
+            scheduler.updateEffectiveDelay(jsExecutionDto, jsResultDto);
+            processJsResult(jsResultDto);
+            return;
+        }
+
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
 
+        if (cause instanceof CancellationException) {
             log.debug(
-                    "Waiting for the response of the JavaScript execution "
-                            + "of the widget instance {} (until {} seconds before timeout)",
-                    jsExecutionDto.getProjectWidgetId(),
-                    jsExecutionTimeout);
-
-            // Wait for a response of the Js execution task
-            JsResultDto jsResultDto = scheduledJsExecutionTask.get(jsExecutionTimeout, TimeUnit.SECONDS);
-
-            retryTemplate.execute(
-                    retryContext -> {
-                        log.debug(
-                                "Update the widget instance {} (try {}/{})",
-                                jsResultDto.getProjectWidgetId(),
-                                retryContext.getRetryCount(),
-                                MAX_RETRY);
-
-                        dashboardScheduleService.processJsResult(jsResultDto, scheduler);
-
-                        return null;
-                    },
-                    context -> {
-                        log.error(
-                                "Updating the widget instance {} failed after {} attempts",
-                                jsExecutionDto.getProjectWidgetId(),
-                                MAX_RETRY);
-
-                        scheduler.schedule(jsExecutionDto, false);
-
-                        return null;
-                    });
-        } catch (InterruptedException ie) {
+                    "The JavaScript execution has been canceled for the widget instance {}",
+                    jsExecutionDto.getProjectWidgetId());
+            return;
+        }
+
+        Throwable rootCause = ExceptionUtils.getRootCause(cause);
+
+        String widgetLogs;
+
+        // Handle the case when the Js execution exceeds the timeout define by the widget.
+        // The Js execution has already been canceled by the pipeline
+        if (rootCause instanceof TimeoutException) {
+            widgetLogs = "The JavaScript execution exceeded the timeout defined by the widget";
+
             log.error(
-                    "Interrupted exception caught. Re-interrupting the thread for the widget instance {}",
+                    "The JavaScript execution exceeded the timeout defined by the widget instance {}."
+                            + " The JavaScript execution has been cancelled.",
                     jsExecutionDto.getProjectWidgetId());
+        } else {
+            widgetLogs = rootCause.toString();
 
-            Thread.currentThread().interrupt();
-        } catch (CancellationException cancellationException) {
-            if (scheduledJsExecutionTask.isCancelled()) {
-                log.debug(
-                        "The JavaScript execution has been canceled for the widget instance {}",
-                        jsExecutionDto.getProjectWidgetId());
-            }
+            log.error(
+                    "An error has occurred in the JavaScript execution of the widget instance {}."
+                            + " The JavaScript execution has been canceled.",
+                    jsExecutionDto.getProjectWidgetId(),
+                    cause);
+        }
+
+        try {
+            scheduler.evictJsResultHash(jsExecutionDto.getProjectWidgetId());
+            dashboardScheduleService.updateWidgetInstanceNoJsResult(
+                    widgetLogs, jsExecutionDto.getProjectWidgetId(), jsExecutionDto.getProjectId());
         } catch (Exception exception) {
-            Throwable rootCause = ExceptionUtils.getRootCause(exception);
-
-            String widgetLogs;
-
-            // Handle the case when the Js execution exceeds the timeout define by the widget.
-            // Set the widget logs and cancel the widget execution
-            if (rootCause instanceof TimeoutException) {
-                widgetLogs = "The JavaScript execution exceeded the timeout defined by the widget";
-
-                log.error(
-                        "The JavaScript execution exceeded the timeout defined by the widget instance {}."
-                                + " The JavaScript execution is going to be cancelled.",
-                        jsExecutionDto.getProjectWidgetId());
-            } else {
-                widgetLogs = rootCause.toString();
-
-                log.error(
-                        "An error has occurred in the JavaScript result task for the widget instance {}."
-                                + " The JavaScript execution is going to be canceled.",
-                        jsExecutionDto.getProjectWidgetId(),
-                        exception);
-            }
-
-            scheduledJsExecutionTask.cancel(true);
-
-            try {
-                dashboardScheduleService.updateWidgetInstanceNoJsResult(
-                        widgetLogs, jsExecutionDto.getProjectWidgetId(), jsExecutionDto.getProjectId());
-            } catch (Exception exception1) {
-                log.error(
-                        "Cannot update the widget instance {} with no JavaScript result cause of database issue. "
-                                + "Rescheduling a new JavaScript execution",
-                        jsExecutionDto.getProjectWidgetId(),
-                        exception1);
-
-                scheduler.schedule(jsExecutionDto, false);
-            }
+            log.error(
+                    "Cannot update the widget instance {} with no JavaScript result cause of database issue. "
+                            + "Rescheduling a new JavaScript execution",
+                    jsExecutionDto.getProjectWidgetId(),
+                    exception);
+
+            scheduler.schedule(jsExecutionDto, false);
         }
+    }
 
-        return null;
+    /**
+     * Update the widget from the Js result, with some retries.
+     *
+     * @param jsResultDto The Js result
+     */
+    private void processJsResult(JsResultDto jsResultDto) {
+        retryTemplate.execute(
+                retryContext -> {
+                    log.debug(
+                            "Update the widget instance {} (try {}/{})",
+                            jsResultDto.getProjectWidgetId(),
+                            retryContext.getRetryCount(),
+                            MAX_RETRY);
+
+                    // The previous attempt may have stored the hash of a result it could not write
+                    if (retryContext.getRetryCount() > 0) {
+                        scheduler.evictJsResultHash(jsResultDto.getProjectWidgetId());
+                    }
+
+                    dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, scheduler);
+
+                    return null;
+                },
+                context -> {
+                    log.error(
+                            "Updating the widget instance {} failed after {} attempts",
+                            jsExecutionDto.getProjectWidgetId(),
+                            MAX_RETRY);
+
+                    scheduler.schedule(jsExecutionDto, false);
+
+                    return null;
+                });
     }
 
     /** Init the Spring retry template which will perform some retries on the widget update. */
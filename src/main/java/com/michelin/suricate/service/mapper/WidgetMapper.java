@@ -18,8 +18,10 @@
  */
 package com.michelin.suricate.service.mapper;
 
+import com.michelin.suricate.model.dto.api.widget.CircuitBreakerResponseDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetResponseDto;
 import com.michelin.suricate.model.entity.Widget;
+import com.michelin.suricate.util.http.CircuitBreakerInterceptor;
 import java.util.Collection;
 import java.util.List;
 import org.mapstruct.IterableMapping;
@@ -80,4 +82,28 @@ public abstract class WidgetMapper {
     @Named("toWidgetsDtos")
     @IterableMapping(qualifiedByName = "toWidgetDto")
     public abstract List<WidgetResponseDto> toWidgetsDtos(Collection<Widget> widgets);
+
+    /**
+     * Map the circuit of a host called by the widgets into a DTO.
+     *
+     * @param hostCircuit The circuit to map
+     * @return The circuit as DTO
+     */
+    @Named("toCircuitBreakerDto")
+    @Mapping(
+            target = "openedDate",
+            expression = "java( hostCircuit.getOpenedAt() != null "
+                    + "? java.util.Date.from(hostCircuit.getOpenedAt()) : null )")
+    public abstract CircuitBreakerResponseDto toCircuitBreakerDto(CircuitBreakerInterceptor.HostCircuit hostCircuit);
+
+    /**
+     * Map a list of circuits of the hosts called by the widgets into a list of DTOs.
+     *
+     * @param hostCircuits The list of circuits to map
+     * @return The list of circuits as DTOs
+     */
+    @Named("toCircuitBreakersDtos")
+    @IterableMapping(qualifiedByName = "toCircuitBreakerDto")
+    public abstract List<CircuitBreakerResponseDto> toCircuitBreakersDtos(
+            Collection<CircuitBreakerInterceptor.HostCircuit> hostCircuits);
 }
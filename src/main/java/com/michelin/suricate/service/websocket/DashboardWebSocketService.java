@@ -22,10 +22,13 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.websocket.DisplayedGridDto;
 import com.michelin.suricate.model.dto.websocket.UpdateEvent;
 import com.michelin.suricate.model.dto.websocket.WebsocketClient;
 import com.michelin.suricate.model.entity.Project;
+import com.michelin.suricate.model.entity.ProjectGrid;
 import com.michelin.suricate.model.enumeration.UpdateType;
+import com.michelin.suricate.service.api.ProjectGridService;
 import com.michelin.suricate.service.api.ProjectService;
 import com.michelin.suricate.service.js.JsExecutionService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
@@ -33,6 +36,8 @@ import com.michelin.suricate.service.mapper.ProjectMapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -62,6 +67,10 @@ public class DashboardWebSocketService {
     @Autowired
     private ProjectMapper projectMapper;
 
+    @Lazy
+    @Autowired
+    private ProjectGridService projectGridService;
+
     @Autowired
     private JsExecutionService jsExecutionService;
 
@@ -209,12 +218,86 @@ public class DashboardWebSocketService {
         websocketClientByProjectToken.remove(websocketClient.getProjectToken(), websocketClient);
 
         if (!websocketClientByProjectToken.containsKey(websocketClient.getProjectToken())) {
-            projectService
-                    .getOneByToken(websocketClient.getProjectToken())
-                    .ifPresent(jsExecutionScheduler::cancelWidgetsExecutionByProject);
+            projectService.getOneByToken(websocketClient.getProjectToken()).ifPresent(project -> {
+                jsExecutionScheduler.updateDisplayedGrids(project.getId(), null);
+                jsExecutionScheduler.cancelWidgetsExecutionByProject(project);
+            });
+        } else if (getWebsocketClientsByProjectToken(websocketClient.getProjectToken()).stream()
+                .anyMatch(client -> client.getDisplayedGridId() != null)) {
+            updateDisplayedGrids(websocketClient.getProjectToken());
         }
     }
 
+    /**
+     * Update the grid displayed by the screen of a websocket session. The widget instances of the grids hidden on
+     * every screen of the project run at a reduced rate, and the next grid of the rotation is refreshed just before it
+     * is displayed. The grids which do not belong to the project of the screen are ignored, and the delay before the
+     * next grid is displayed cannot exceed the display time of the current grid.
+     *
+     * @param sessionId The session ID
+     * @param displayedGridDto The grid displayed by the screen
+     */
+    public void updateDisplayedGrid(final String sessionId, final DisplayedGridDto displayedGridDto) {
+        Optional<WebsocketClient> websocketClient = getWebsocketClientsBySessionId(sessionId);
+
+        if (websocketClient.isEmpty() || displayedGridDto.getGridId() == null) {
+            return;
+        }
+
+        String projectToken = websocketClient.get().getProjectToken();
+        Optional<ProjectGrid> displayedGrid =
+                projectGridService.findByIdAndProjectToken(displayedGridDto.getGridId(), projectToken);
+
+        if (displayedGrid.isEmpty()) {
+            log.debug(
+                    "The grid {} displayed by the screen {} does not belong to the project {}",
+                    displayedGridDto.getGridId(),
+                    websocketClient.get().getScreenCode(),
+                    projectToken);
+            return;
+        }
+
+        log.debug(
+                "The screen {} of the project {} displays the grid {}",
+                websocketClient.get().getScreenCode(),
+                websocketClient.get().getProjectToken(),
+                displayedGridDto.getGridId());
+
+        websocketClient.get().setDisplayedGridId(displayedGridDto.getGridId());
+        updateDisplayedGrids(projectToken);
+
+        if (displayedGridDto.getNextGridId() != null
+                && displayedGridDto.getTime() != null
+                && displayedGrid.get().getTime() != null
+                && projectGridService
+                        .findByIdAndProjectToken(displayedGridDto.getNextGridId(), projectToken)
+                        .isPresent()) {
+            jsExecutionScheduler.refreshGridBeforeDisplay(
+                    displayedGridDto.getNextGridId(),
+                    Math.clamp(displayedGridDto.getTime(), 0L, displayedGrid.get().getTime()));
+        }
+    }
+
+    /**
+     * Update the grids of a project displayed by its connected screens. Every grid is considered displayed as long as
+     * a screen does not report its displayed grid.
+     *
+     * @param projectToken The project token
+     */
+    private void updateDisplayedGrids(final String projectToken) {
+        List<WebsocketClient> websocketClients = getWebsocketClientsByProjectToken(projectToken);
+
+        Set<Long> displayedGridIds = websocketClients.stream().anyMatch(client -> client.getDisplayedGridId() == null)
+                ? null
+                : websocketClients.stream()
+                        .map(WebsocketClient::getDisplayedGridId)
+                        .collect(Collectors.toSet());
+
+        projectService
+                .getOneByToken(projectToken)
+                .ifPresent(project -> jsExecutionScheduler.updateDisplayedGrids(project.getId(), displayedGridIds));
+    }
+
     /**
      * Disconnect screen from project.
      *
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import lombok.Getter;
+
+/**
+ * Output stream keeping at most a fixed number of bytes: the first half of the capacity holds the head of the output
+ * and the second half is a ring buffer holding its tail. The bytes in between are dropped and only counted. The
+ * buffers grow with the output up to the capacity, so a small output allocates little.
+ *
+ * <p>When bytes have been dropped, the output is cut on line boundaries, so a line, and any secret it contains, is
+ * either kept entirely or dropped entirely. Not thread-safe.
+ */
+public class BoundedOutputStream extends OutputStream {
+    /** The default capacity, in bytes. */
+    public static final int DEFAULT_CAPACITY = 1048576;
+
+    /** The minimum capacity, in bytes: one for the head and one for the tail. */
+    public static final int MIN_CAPACITY = 2;
+
+    private static final int MIN_BUFFER_LENGTH = 256;
+
+    @Getter
+    private int capacity;
+
+    private int headCapacity;
+
+    private int tailCapacity;
+
+    private byte[] head = new byte[0];
+
+    private byte[] tail = new byte[0];
+
+    private int headCount;
+
+    private long tailCount;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity The maximum number of bytes kept, at least 2
+     */
+    public BoundedOutputStream(int capacity) {
+        setCapacity(capacity);
+    }
+
+    @Override
+    public void write(int b) {
+        if (headCount < headCapacity) {
+            head = grow(head, headCount + 1, headCapacity);
+            head[headCount++] = (byte) b;
+            return;
+        }
+
+        int position = (int) (tailCount % tailCapacity);
+        tail = grow(tail, position + 1, tailCapacity);
+        tail[position] = (byte) b;
+        tailCount++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+
+        int headLength = Math.min(len, headCapacity - headCount);
+        if (headLength > 0) {
+            head = grow(head, headCount + headLength, headCapacity);
+            System.arraycopy(b, off, head, headCount, headLength);
+            headCount += headLength;
+            off += headLength;
+            len -= headLength;
+        }
+
+        if (len == 0) {
+            return;
+        }
+
+        // Only the last bytes fitting in the tail are copied
+        if (len > tailCapacity) {
+            tailCount += len - tailCapacity;
+            off += len - tailCapacity;
+            len = tailCapacity;
+        }
+
+        int position = (int) (tailCount % tailCapacity);
+        int firstLength = Math.min(len, tailCapacity - position);
+        tail = grow(tail, len > firstLength ? tailCapacity : position + firstLength, tailCapacity);
+        System.arraycopy(b, off, tail, position, firstLength);
+        System.arraycopy(b, off + firstLength, tail, 0, len - firstLength);
+        tailCount += len;
+    }
+
+    /**
+     * Get the number of bytes written since the last reset.
+     *
+     * @return The number of bytes written
+     */
+    public long size() {
+        return headCount + tailCount;
+    }
+
+    /**
+     * Get the number of bytes written since the last reset that do not fit in the capacity.
+     *
+     * @return The number of bytes dropped
+     */
+    public long getDroppedBytes() {
+        return Math.max(0, tailCount - tailCapacity);
+    }
+
+    /** Discard the output written so far. The buffers are kept for the next writes. */
+    public void reset() {
+        headCount = 0;
+        tailCount = 0;
+    }
+
+    /**
+     * Discard the output written so far and change the capacity. The buffers are kept if the capacity is unchanged.
+     *
+     * @param capacity The maximum number of bytes kept, at least 2
+     */
+    public void reset(int capacity) {
+        reset();
+
+        if (capacity != this.capacity) {
+            setCapacity(capacity);
+        }
+    }
+
+    /**
+     * Decode the output kept as UTF-8. When bytes have been dropped, the partial lines around the dropped bytes are
+     * dropped as well, and replaced by a line giving the number of dropped bytes.
+     *
+     * @return The output
+     */
+    @Override
+    public String toString() {
+        int tailLength = (int) Math.min(tailCount, tailCapacity);
+        byte[] orderedTail = new byte[tailLength];
+        int position = (int) (tailCount % tailCapacity);
+        if (tailCount > tailCapacity) {
+            System.arraycopy(tail, position, orderedTail, 0, tailCapacity - position);
+            System.arraycopy(tail, 0, orderedTail, tailCapacity - position, position);
+        } else {
+            System.arraycopy(tail, 0, orderedTail, 0, tailLength);
+        }
+
+        if (getDroppedBytes() == 0) {
+            byte[] output = Arrays.copyOf(head, headCount + tailLength);
+            System.arraycopy(orderedTail, 0, output, headCount, tailLength);
+            return new String(output, StandardCharsets.UTF_8);
+        }
+
+        int headEnd = headCount;
+        while (headEnd > 0 && head[headEnd - 1] != '\n') {
+            headEnd--;
+        }
+
+        int tailStart = 0;
+        while (tailStart < tailLength && orderedTail[tailStart++] != '\n') {
+            // Skip the partial first line of the tail
+        }
+
+        long droppedBytes = size() - headEnd - (tailLength - tailStart);
+
+        return new String(head, 0, headEnd, StandardCharsets.UTF_8)
+                + "[... " + droppedBytes + " bytes of console output dropped ...]\n"
+                + new String(orderedTail, tailStart, tailLength - tailStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Set the capacity and release the buffers.
+     *
+     * @param capacity The maximum number of bytes kept, at least 2
+     */
+    private void setCapacity(int capacity) {
+        if (capacity < MIN_CAPACITY) {
+            throw new IllegalArgumentException("The capacity must be at least 2 bytes");
+        }
+
+        this.capacity = capacity;
+        this.headCapacity = capacity / 2;
+        this.tailCapacity = capacity - headCapacity;
+        this.head = new byte[0];
+        this.tail = new byte[0];
+    }
+
+    /**
+     * Grow a buffer to hold at least the given length, doubling its length up to the given maximum.
+     *
+     * @param buffer The buffer
+     * @param minLength The length required
+     * @param maxLength The maximum length of the buffer
+     * @return The buffer, or a larger copy
+     */
+    private static byte[] grow(byte[] buffer, int minLength, int maxLength) {
+        if (buffer.length >= minLength) {
+            return buffer;
+        }
+
+        return Arrays.copyOf(
+                buffer, Math.min(maxLength, Math.max(minLength, Math.max(MIN_BUFFER_LENGTH, buffer.length * 2))));
+    }
+}
@@ -19,9 +19,15 @@
 package com.michelin.suricate.util;
 
 import com.michelin.suricate.service.js.script.JsEndpoints;
+import java.io.OutputStream;
+import java.util.Map;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.ResourceLimits;
 
 /** Javascript utils. */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -32,36 +38,67 @@ public final class JavaScriptUtils {
     /** Name of the variable used to store the widget instance ID. */
     public static final String WIDGET_INSTANCE_ID_VARIABLE = "SURI_INSTANCE_ID";
 
+    /** Name of the widget instance property used to opt in to the adaptive delay. */
+    public static final String ADAPTIVE_DELAY_PROPERTY = "SURI_ADAPTIVE_DELAY";
+
     /** "Packages." constant used in Javascript to call REST API. */
     private static final String PACKAGES_LITERAL = "Packages.";
 
-    /** Regex to find loop in script. */
-    private static final String REGEX_LOOP = "\\)\\s*\\{";
-
-    /** Full path to the checkInterrupted Java method. */
-    private static final String INJECT_INTERRUPT_STRING =
-            JavaScriptUtils.PACKAGES_LITERAL + JsEndpoints.class.getName() + ".checkInterrupted();";
-
     /**
-     * Method used to prepare Js execution and update path.
+     * Method used to prepare Js execution and update path. The script is not instrumented for the interruption, the
+     * executions are cancelled by closing their context.
      *
      * @param data javascript script
      * @return the script with all class path updated
      */
     public static String prepare(String data) {
-        return injectInterrupt(StringUtils.trimToEmpty(data)
+        return StringUtils.trimToEmpty(data)
                 .replace(
                         JavaScriptUtils.PACKAGES_LITERAL,
-                        JavaScriptUtils.PACKAGES_LITERAL + JsEndpoints.class.getName() + "."));
+                        JavaScriptUtils.PACKAGES_LITERAL + JsEndpoints.class.getName() + ".");
     }
 
     /**
-     * Method used to inject interruption in loop for javascript code.
+     * Create the resource limits of the widget contexts.
      *
-     * @param data javascript code
-     * @return the javascript code with interruption on it
+     * @param statementLimit The maximum number of statements an execution can run, or 0 for no limit
+     * @return The resource limits, or null for no limit
      */
-    public static String injectInterrupt(String data) {
-        return StringUtils.trimToEmpty(data).replaceAll(REGEX_LOOP, "){" + INJECT_INTERRUPT_STRING);
+    public static ResourceLimits newResourceLimits(long statementLimit) {
+        return statementLimit > 0
+                ? ResourceLimits.newBuilder().statementLimit(statementLimit, null).build()
+                : null;
+    }
+
+    /**
+     * Create a context builder for the execution of a widget script. The only Java class the script can look up is the
+     * Java endpoints class.
+     *
+     * @param engine The shared engine, or null to let the context create its own engine
+     * @param output The stream receiving the console output of the script
+     * @param resourceLimits The resource limits of the context, or null for no limit. The contexts of a shared engine
+     *     must all use the same limits
+     * @return The context builder
+     */
+    public static Context.Builder newContextBuilder(
+            Engine engine, OutputStream output, ResourceLimits resourceLimits) {
+        Context.Builder contextBuilder = Context.newBuilder("js")
+                .out(output)
+                .err(output)
+                .allowHostAccess(HostAccess.ALL)
+                .allowHostClassLookup(className -> className.equals(JsEndpoints.class.getName()));
+
+        if (resourceLimits != null) {
+            contextBuilder.resourceLimits(resourceLimits);
+        }
+
+        // Engine options can only be set on the context when no shared engine is provided
+        if (engine != null) {
+            contextBuilder.engine(engine);
+        } else {
+            contextBuilder.options(Map.of("engine.WarnInterpreterOnly", "false"));
+        }
+
+        return contextBuilder;
     }
 }
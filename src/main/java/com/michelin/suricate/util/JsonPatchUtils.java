@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/** JSON Patch utils (RFC 6902). */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JsonPatchUtils {
+    /**
+     * Build the JSON Patch turning a JSON document into another one. Objects are compared field by field and arrays
+     * item by item, once their common first and last items are skipped. Any other difference replaces the whole value.
+     * Only the add, remove and replace operations are produced.
+     *
+     * @param source The JSON document to patch
+     * @param target The JSON document obtained after the patch
+     * @return The operations of the patch, empty if the documents are equal
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, operations);
+        return operations;
+    }
+
+    /**
+     * Add the operations turning a JSON value into another one.
+     *
+     * @param path The JSON pointer of the value
+     * @param source The value to patch
+     * @param target The value obtained after the patch
+     * @param operations The operations of the patch
+     */
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        if (source.equals(target)) {
+            return;
+        }
+
+        if (source.isObject() && target.isObject()) {
+            for (Map.Entry<String, JsonNode> sourceField : source.properties()) {
+                if (!target.has(sourceField.getKey())) {
+                    addOperation(operations, "remove", path + "/" + escape(sourceField.getKey()), null);
+                }
+            }
+
+            for (Map.Entry<String, JsonNode> targetField : target.properties()) {
+                String fieldPath = path + "/" + escape(targetField.getKey());
+                JsonNode sourceValue = source.get(targetField.getKey());
+
+                if (sourceValue == null) {
+                    addOperation(operations, "add", fieldPath, targetField.getValue());
+                } else {
+                    diff(fieldPath, sourceValue, targetField.getValue(), operations);
+                }
+            }
+            return;
+        }
+
+        if (source.isArray() && target.isArray()) {
+            diffArray(path, source, target, operations);
+            return;
+        }
+
+        addOperation(operations, "replace", path, target);
+    }
+
+    /**
+     * Add the operations turning an array into another one. The common first and last items are kept, the items in
+     * between are compared one by one, then the extra items of the source are removed or the extra items of the target
+     * are added. Inserting or removing lines in the middle of an array only sends these lines.
+     *
+     * @param path The JSON pointer of the array
+     * @param source The array to patch
+     * @param target The array obtained after the patch
+     * @param operations The operations of the patch
+     */
+    private static void diffArray(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        int minSize = Math.min(source.size(), target.size());
+
+        int prefix = 0;
+        while (prefix < minSize && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        while (suffix < minSize - prefix
+                && source.get(source.size() - 1 - suffix).equals(target.get(target.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        int sourceChanged = source.size() - prefix - suffix;
+        int targetChanged = target.size() - prefix - suffix;
+        int common = Math.min(sourceChanged, targetChanged);
+
+        for (int i = prefix; i < prefix + common; i++) {
+            diff(path + "/" + i, source.get(i), target.get(i), operations);
+        }
+
+        for (int i = common; i < sourceChanged; i++) {
+            addOperation(operations, "remove", path + "/" + (prefix + common), null);
+        }
+
+        for (int i = common; i < targetChanged; i++) {
+            addOperation(operations, "add", path + "/" + (prefix + i), target.get(prefix + i));
+        }
+    }
+
+    /**
+     * Add an operation to a patch.
+     *
+     * @param operations The operations of the patch
+     * @param op The operation type
+     * @param path The JSON pointer of the value
+     * @param value The value, or null for a removal
+     */
+    private static void addOperation(ArrayNode operations, String op, String path, JsonNode value) {
+        ObjectNode operation = operations.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+
+        if (value != null) {
+            operation.set("value", value);
+        }
+    }
+
+    /**
+     * Escape a field name to be used as a JSON pointer token (RFC 6901).
+     *
+     * @param fieldName The field name
+     * @return The JSON pointer token
+     */
+    private static String escape(String fieldName) {
+        return fieldName.replace("~", "~0").replace("/", "~1");
+    }
+}
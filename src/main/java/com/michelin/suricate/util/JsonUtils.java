@@ -18,34 +18,19 @@
  */
 package com.michelin.suricate.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 
 /** Json utils. */
-@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class JsonUtils {
     /**
-     * Validate the JSON parameter.
+     * Validate the JSON parameter with the shared streaming validator, without size limit.
      *
      * @param jsonInString the json string to test
      * @return true if the json is isValid false otherwise
      */
     public static boolean isValid(String jsonInString) {
-        if (StringUtils.isNotBlank(jsonInString)) {
-            try {
-                final ObjectMapper mapper = new ObjectMapper();
-                mapper.readTree(jsonInString);
-                return true;
-            } catch (IOException e) {
-                // do nothing
-                log.trace(e.getMessage(), e);
-            }
-        }
-        return false;
+        return JsonValidator.DEFAULT.isValid(jsonInString);
     }
 }
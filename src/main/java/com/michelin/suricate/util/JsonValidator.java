@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import java.io.IOException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Streaming JSON validator. The tokens are walked without building any tree and the string values are skipped without
+ * being decoded, so validating a large payload allocates almost nothing. The validator is thread-safe and meant to be
+ * shared.
+ */
+@Slf4j
+@Getter
+public final class JsonValidator {
+    /** The validator without size limit and with the default Jackson depth limit. */
+    public static final JsonValidator DEFAULT = new JsonValidator(0, StreamReadConstraints.DEFAULT_MAX_DEPTH);
+
+    private final long maxSize;
+
+    private final int maxDepth;
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize The maximum number of characters of a valid JSON, or 0 for no limit
+     * @param maxDepth The maximum nesting depth of the objects and arrays of a valid JSON
+     */
+    public JsonValidator(long maxSize, int maxDepth) {
+        this.maxSize = maxSize;
+        this.maxDepth = maxDepth;
+        this.jsonFactory = JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder()
+                        .maxNestingDepth(Math.max(0, maxDepth))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Validate the JSON parameter. Only the first JSON value is read, the trailing content is ignored.
+     *
+     * @param json The json string to test
+     * @return true if the json is valid and within the limits, false otherwise
+     */
+    public boolean isValid(String json) {
+        if (StringUtils.isBlank(json)) {
+            return false;
+        }
+
+        if (exceedsMaxSize(json)) {
+            log.trace("The JSON of {} characters exceeds the maximum size of {} characters", json.length(), maxSize);
+            return false;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+
+            // A root string is read lazily, so it has to be read to be validated
+            if (token == JsonToken.VALUE_STRING) {
+                parser.getTextLength();
+            } else {
+                parser.skipChildren();
+            }
+
+            return true;
+        } catch (IOException e) {
+            // do nothing
+            log.trace(e.getMessage(), e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if a JSON exceeds the maximum size of a valid JSON.
+     *
+     * @param json The json string to test
+     * @return true if there is a maximum size and the json exceeds it, false otherwise
+     */
+    public boolean exceedsMaxSize(String json) {
+        return maxSize > 0 && json != null && json.length() > maxSize;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mask literal secrets in a text in a single pass, with an Aho-Corasick automaton built once for the secrets.
+ *
+ * <p>Every character covered by an occurrence of a secret is replaced by a star, so overlapping secrets are fully
+ * masked and the text keeps its length. The secrets are matched literally, without regular expression.
+ */
+public final class SecretMasker {
+    private static final char MASK = '*';
+
+    private static final SecretMasker EMPTY = new SecretMasker(Collections.emptySet());
+
+    private final Set<String> secrets;
+
+    private final Node root;
+
+    /**
+     * Constructor.
+     *
+     * @param secrets The non-empty secrets
+     */
+    private SecretMasker(Set<String> secrets) {
+        this.secrets = secrets;
+        this.root = build(secrets);
+    }
+
+    /**
+     * Create a masker of the given secrets. The null and empty secrets are ignored.
+     *
+     * @param secrets The secrets
+     * @return The masker
+     */
+    public static SecretMasker of(Collection<String> secrets) {
+        Set<String> nonEmptySecrets = nonEmpty(secrets);
+        return nonEmptySecrets.isEmpty() ? EMPTY : new SecretMasker(nonEmptySecrets);
+    }
+
+    /**
+     * Keep the non-null and non-empty secrets.
+     *
+     * @param secrets The secrets
+     * @return The non-empty secrets
+     */
+    private static Set<String> nonEmpty(Collection<String> secrets) {
+        if (secrets == null) {
+            return Collections.emptySet();
+        }
+
+        return secrets.stream()
+                .filter(Objects::nonNull)
+                .filter(secret -> !secret.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Check if the masker has been built for the given secrets.
+     *
+     * @param secrets The secrets
+     * @return true if the masker masks exactly the non-empty given secrets
+     */
+    public boolean masks(Collection<String> secrets) {
+        return this.secrets.equals(nonEmpty(secrets));
+    }
+
+    /**
+     * Mask the secrets in a text.
+     *
+     * @param text The text
+     * @return The masked text
+     */
+    public String mask(String text) {
+        if (text == null || secrets.isEmpty()) {
+            return text;
+        }
+
+        char[] masked = null;
+        int maskedFrom = 0;
+        int maskedUntil = 0;
+        Node node = root;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = node.next(c);
+
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.next(c);
+            }
+
+            node = next != null ? next : root;
+
+            if (node.longestMatch > 0) {
+                if (masked == null) {
+                    masked = text.toCharArray();
+                }
+
+                // Only mask the characters not already masked by the current run of overlapping secrets
+                int from = i + 1 - node.longestMatch;
+                Arrays.fill(masked, from >= maskedFrom ? Math.max(from, maskedUntil) : from, i + 1, MASK);
+
+                if (from < maskedFrom || from > maskedUntil) {
+                    maskedFrom = from;
+                }
+                maskedUntil = i + 1;
+            }
+        }
+
+        return masked != null ? new String(masked) : text;
+    }
+
+    /**
+     * Build the automaton of the secrets.
+     *
+     * @param secrets The secrets
+     * @return The root of the automaton
+     */
+    private static Node build(Set<String> secrets) {
+        BuildingNode buildingRoot = new BuildingNode();
+
+        for (String secret : secrets) {
+            BuildingNode buildingNode = buildingRoot;
+
+            for (int i = 0; i < secret.length(); i++) {
+                buildingNode = buildingNode.children.computeIfAbsent(secret.charAt(i), c -> new BuildingNode());
+            }
+
+            buildingNode.node.longestMatch = secret.length();
+        }
+
+        // Freeze and link the nodes breadth first, so the failure of a node is always complete before the node
+        Node root = buildingRoot.node;
+        root.failure = root;
+        buildingRoot.freeze();
+
+        Queue<BuildingNode> queue = new ArrayDeque<>();
+        for (BuildingNode child : buildingRoot.children.values()) {
+            child.node.failure = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            BuildingNode buildingNode = queue.remove();
+            buildingNode.freeze();
+
+            for (Map.Entry<Character, BuildingNode> child : buildingNode.children.entrySet()) {
+                Node failure = buildingNode.node.failure;
+                Node next = failure.next(child.getKey());
+
+                while (next == null && failure != root) {
+                    failure = failure.failure;
+                    next = failure.next(child.getKey());
+                }
+
+                Node childNode = child.getValue().node;
+                childNode.failure = next != null ? next : root;
+                childNode.longestMatch = Math.max(childNode.longestMatch, childNode.failure.longestMatch);
+                queue.add(child.getValue());
+            }
+        }
+
+        return root;
+    }
+
+    /** Node of the automaton, with its transitions sorted by character. */
+    private static final class Node {
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private Node failure;
+
+        private int longestMatch;
+
+        /**
+         * Get the transition of a character.
+         *
+         * @param c The character
+         * @return The next node, or null if there is no transition
+         */
+        private Node next(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /** Node of the automaton being built. */
+    private static final class BuildingNode {
+        private final Node node = new Node();
+
+        private final Map<Character, BuildingNode> children = new TreeMap<>();
+
+        /** Copy the sorted transitions to the node. */
+        private void freeze() {
+            node.keys = new char[children.size()];
+            node.children = new Node[children.size()];
+
+            int i = 0;
+            for (Map.Entry<Character, BuildingNode> child : children.entrySet()) {
+                node.keys[i] = child.getKey();
+                node.children[i] = child.getValue().node;
+                i++;
+            }
+        }
+    }
+}
@@ -36,16 +36,21 @@ public final class ToStringUtils {
     public static String hideWidgetConfigurationInLogs(String outputLogs, Collection<String> widgetPropertiesValues) {
         String clearedLogs = StringUtils.trimToNull(outputLogs);
 
-        if (widgetPropertiesValues != null && clearedLogs != null) {
-            for (String widgetPropertiesValue : widgetPropertiesValues) {
-                if (widgetPropertiesValue != null) {
-                    clearedLogs = clearedLogs.replaceAll(
-                            widgetPropertiesValue,
-                            StringUtils.leftPad(StringUtils.EMPTY, widgetPropertiesValue.length(), "*"));
-                }
-            }
+        if (widgetPropertiesValues == null || clearedLogs == null) {
+            return clearedLogs;
         }
 
-        return clearedLogs;
+        return SecretMasker.of(widgetPropertiesValues).mask(clearedLogs);
+    }
+
+    /**
+     * Hide the widget properties from the given logs, in a single pass.
+     *
+     * @param outputLogs The logs to clear
+     * @param secretMasker The masker of the widget properties values
+     * @return The cleared logs without widget properties
+     */
+    public static String hideSecretsInLogs(String outputLogs, SecretMasker secretMasker) {
+        return secretMasker.mask(StringUtils.trimToNull(outputLogs));
     }
 }
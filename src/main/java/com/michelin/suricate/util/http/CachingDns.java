@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Dns;
+
+/** DNS resolver caching the resolved addresses of each host for a fixed time to live. */
+public class CachingDns implements Dns {
+    private static final int MAX_CACHED_HOSTS = 1024;
+
+    private final Dns delegate;
+
+    private final long ttlNanos;
+
+    private final Map<String, CachedAddresses> addressesByHostname = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The resolver used on cache misses
+     * @param ttl The time to live of the resolved addresses
+     */
+    public CachingDns(Dns delegate, Duration ttl) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Resolve the addresses of a host, from the cache when they have not expired yet.
+     *
+     * @param hostname The host name
+     * @return The addresses of the host
+     * @throws UnknownHostException When the host cannot be resolved
+     */
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        long now = System.nanoTime();
+        CachedAddresses cachedAddresses = addressesByHostname.get(hostname);
+
+        if (cachedAddresses != null && now - cachedAddresses.resolvedAt < ttlNanos) {
+            return cachedAddresses.addresses;
+        }
+
+        List<InetAddress> addresses = List.copyOf(delegate.lookup(hostname));
+
+        if (ttlNanos > 0) {
+            if (addressesByHostname.size() >= MAX_CACHED_HOSTS) {
+                addressesByHostname.values().removeIf(cached -> now - cached.resolvedAt >= ttlNanos);
+
+                if (addressesByHostname.size() >= MAX_CACHED_HOSTS) {
+                    addressesByHostname.clear();
+                }
+            }
+
+            addressesByHostname.put(hostname, new CachedAddresses(addresses, now));
+        }
+
+        return addresses;
+    }
+
+    /** Addresses of a host with their resolution time. */
+    private static final class CachedAddresses {
+        private final List<InetAddress> addresses;
+
+        private final long resolvedAt;
+
+        private CachedAddresses(List<InetAddress> addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Interceptor opening a circuit per host after consecutive failures.
+ *
+ * <p>While the circuit of a host is open, its requests fail fast instead of waiting for the connection timeouts. Once
+ * the open duration is elapsed, a single probe request is let through: the circuit closes if it succeeds and opens
+ * again otherwise. Failures are the I/O errors, including the timeouts, and the server errors.
+ *
+ * <p>The widgets can call any host, so the number of circuits is capped: beyond the cap, the least recently used closed
+ * circuits are evicted. The open and half-open circuits weigh nothing, so they are never evicted.
+ */
+@Slf4j
+public class CircuitBreakerInterceptor implements Interceptor {
+    static final int DEFAULT_MAX_CIRCUITS = 1024;
+
+    private final int failureThreshold;
+
+    private final Duration openDuration;
+
+    private final Clock clock;
+
+    private final Cache<String, HostCircuit> circuitsByHost;
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold The number of consecutive failures opening the circuit of a host
+     * @param openDuration The duration of the open state before a probe request is let through
+     */
+    public CircuitBreakerInterceptor(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold The number of consecutive failures opening the circuit of a host
+     * @param openDuration The duration of the open state before a probe request is let through
+     * @param clock The clock
+     */
+    CircuitBreakerInterceptor(int failureThreshold, Duration openDuration, Clock clock) {
+        this(failureThreshold, openDuration, clock, DEFAULT_MAX_CIRCUITS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold The number of consecutive failures opening the circuit of a host
+     * @param openDuration The duration of the open state before a probe request is let through
+     * @param clock The clock
+     * @param maxCircuits The number of closed circuits beyond which the least recently used ones are evicted
+     */
+    CircuitBreakerInterceptor(int failureThreshold, Duration openDuration, Clock clock, int maxCircuits) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.circuitsByHost = CacheBuilder.newBuilder()
+                .maximumWeight(maxCircuits)
+                .<String, HostCircuit>weigher((host, circuit) -> circuit.getState() == State.CLOSED ? 1 : 0)
+                .build();
+    }
+
+    /**
+     * Proceed the request if the circuit of its host allows it, and record its outcome.
+     *
+     * @param chain The interceptor chain
+     * @return The response
+     * @throws IOException When the request fails or the circuit of the host is open
+     */
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host();
+        HostCircuit circuit = circuitsByHost.asMap().computeIfAbsent(host, HostCircuit::new);
+
+        if (!circuit.tryAcquire()) {
+            throw new CircuitOpenException(host);
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (isCanceled(chain, e)) {
+                circuit.onCanceled();
+            } else if (circuit.onFailure()) {
+                reweigh(circuit);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuit.onCanceled();
+            throw e;
+        }
+
+        boolean stateChanged = response.code() >= 500 ? circuit.onFailure() : circuit.onSuccess();
+        if (stateChanged) {
+            reweigh(circuit);
+        }
+
+        return response;
+    }
+
+    /**
+     * Get the circuits of the called hosts.
+     *
+     * @return The circuits
+     */
+    public Collection<HostCircuit> getHostCircuits() {
+        return List.copyOf(circuitsByHost.asMap().values());
+    }
+
+    /**
+     * Put a circuit back in the cache once it has been opened or closed, so its weight follows its state. A circuit
+     * evicted in the meantime is put back, unless a new circuit has been created for its host.
+     *
+     * @param circuit The circuit
+     */
+    private void reweigh(HostCircuit circuit) {
+        if (!circuitsByHost.asMap().replace(circuit.host, circuit, circuit)) {
+            circuitsByHost.asMap().putIfAbsent(circuit.host, circuit);
+        }
+    }
+
+    /**
+     * Check if a request failed because its call has been canceled or its thread interrupted, rather than because of
+     * the host.
+     *
+     * @param chain The interceptor chain
+     * @param e The exception
+     * @return true if the request has been canceled
+     */
+    private static boolean isCanceled(Chain chain, IOException e) {
+        return chain.call().isCanceled()
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+
+    /** Circuit state. */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /** Circuit of a host. */
+    public final class HostCircuit {
+        private final String host;
+
+        private State state = State.CLOSED;
+
+        private int consecutiveFailures;
+
+        private Instant openedAt;
+
+        private boolean probing;
+
+        private HostCircuit(String host) {
+            this.host = host;
+        }
+
+        /**
+         * Check if a request can be sent to the host. Once the open duration is elapsed, only one probe request is
+         * allowed at a time.
+         *
+         * @return true if the request can be sent
+         */
+        private synchronized boolean tryAcquire() {
+            if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+                log.debug("Half-opening the circuit of the host {}", host);
+                state = State.HALF_OPEN;
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    return false;
+                }
+
+                probing = true;
+                return true;
+            }
+
+            return state == State.CLOSED;
+        }
+
+        /**
+         * Record a successful request.
+         *
+         * @return true if the circuit has been closed
+         */
+        private synchronized boolean onSuccess() {
+            boolean closing = state != State.CLOSED;
+            if (closing) {
+                log.info("Closing the circuit of the host {}", host);
+            }
+
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openedAt = null;
+            probing = false;
+            return closing;
+        }
+
+        /**
+         * Record a failed request.
+         *
+         * @return true if the circuit has been opened from the closed state
+         */
+        private synchronized boolean onFailure() {
+            consecutiveFailures++;
+            probing = false;
+
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("Opening the circuit of the host {} after {} consecutive failures", host, consecutiveFailures);
+                boolean opening = state == State.CLOSED;
+                state = State.OPEN;
+                openedAt = clock.instant();
+                return opening;
+            }
+
+            return false;
+        }
+
+        /** Record a request which has been canceled, letting another probe through. */
+        private synchronized void onCanceled() {
+            probing = false;
+        }
+
+        /**
+         * Get the host.
+         *
+         * @return The host
+         */
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * Get the state of the circuit.
+         *
+         * @return The state
+         */
+        public synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Get the number of consecutive failures.
+         *
+         * @return The number of consecutive failures
+         */
+        public synchronized int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        /**
+         * Get the time at which the circuit has been opened.
+         *
+         * @return The time, or null if the circuit is closed
+         */
+        public synchronized Instant getOpenedAt() {
+            return openedAt;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * In-memory cache of the GET responses, keyed by URL and headers.
+ *
+ * <p>Fresh responses according to the Cache-Control or Expires headers are served from the cache. Stale responses
+ * are revalidated with If-None-Match or If-Modified-Since when the upstream supplied an ETag or a Last-Modified
+ * header. The cache is bounded in bytes and evicts the least recently used responses first.
+ */
+public class ConditionalCacheInterceptor implements Interceptor {
+    private static final Set<String> NOT_UPDATABLE_HEADERS =
+            Set.of("content-encoding", "content-length", "content-type", "transfer-encoding");
+
+    private static final int MAX_ENTRY_SIZE_RATIO = 8;
+
+    private final long maxSize;
+
+    private final Map<String, CachedResponse> cachedResponses = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong revalidationCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize The maximum size of the cache in bytes
+     */
+    public ConditionalCacheInterceptor(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Serve the request from the cache when possible, revalidate or store the response otherwise.
+     *
+     * @param chain The interceptor chain
+     * @return The response
+     * @throws IOException When the request fails
+     */
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        if (!isCacheable(request)) {
+            return chain.proceed(request);
+        }
+
+        String key = getKey(request);
+        CachedResponse cachedResponse = get(key);
+        long now = System.currentTimeMillis();
+
+        if (cachedResponse != null && !request.cacheControl().noCache() && now < cachedResponse.freshUntil) {
+            hitCount.incrementAndGet();
+            return cachedResponse.toResponse(request);
+        }
+
+        Request.Builder networkRequest = request.newBuilder();
+        if (cachedResponse != null) {
+            String etag = cachedResponse.headers.get("ETag");
+            String lastModified = cachedResponse.headers.get("Last-Modified");
+
+            if (etag != null) {
+                networkRequest.header("If-None-Match", etag);
+            }
+
+            if (lastModified != null) {
+                networkRequest.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        Response networkResponse = chain.proceed(networkRequest.build());
+
+        if (cachedResponse != null && networkResponse.code() == 304) {
+            networkResponse.close();
+
+            CachedResponse revalidatedResponse =
+                    cachedResponse.revalidate(networkResponse.headers(), System.currentTimeMillis());
+            put(key, revalidatedResponse);
+            revalidationCount.incrementAndGet();
+            return revalidatedResponse.toResponse(request);
+        }
+
+        missCount.incrementAndGet();
+        return store(key, request, networkResponse);
+    }
+
+    /**
+     * Store a network response in the cache if it can be reused.
+     *
+     * @param key The cache key
+     * @param request The original request
+     * @param response The network response
+     * @return The response to return to the caller
+     * @throws IOException When the response body cannot be read
+     */
+    private Response store(String key, Request request, Response response) throws IOException {
+        long now = System.currentTimeMillis();
+        long freshUntil = getFreshUntil(response.headers(), now);
+        boolean hasValidator = response.header("ETag") != null || response.header("Last-Modified") != null;
+
+        if (response.code() != 200
+                || response.cacheControl().noStore()
+                || "*".equals(response.header("Vary"))
+                || (freshUntil <= now && !hasValidator)) {
+            remove(key);
+            return response.newBuilder().request(request).build();
+        }
+
+        long maxEntrySize = maxSize / MAX_ENTRY_SIZE_RATIO;
+        ResponseBody peekedBody = response.peekBody(maxEntrySize + 1);
+
+        if (peekedBody.contentLength() <= maxEntrySize) {
+            put(
+                    key,
+                    new CachedResponse(
+                            response.protocol(),
+                            response.code(),
+                            response.message(),
+                            response.headers(),
+                            peekedBody.contentType(),
+                            peekedBody.bytes(),
+                            freshUntil));
+        } else {
+            remove(key);
+        }
+
+        return response.newBuilder().request(request).build();
+    }
+
+    /**
+     * Check if a request can be served from the cache. Conditional requests built by the caller are not cached.
+     *
+     * @param request The request
+     * @return true if the request can use the cache
+     */
+    private static boolean isCacheable(Request request) {
+        return "GET".equals(request.method())
+                && !request.cacheControl().noStore()
+                && request.header("If-None-Match") == null
+                && request.header("If-Modified-Since") == null;
+    }
+
+    /**
+     * Compute the cache key of a request. The key is hashed to avoid keeping the header values, like credentials.
+     *
+     * @param request The request
+     * @return The cache key
+     */
+    private static String getKey(Request request) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(request.url().toString(), StandardCharsets.UTF_8);
+
+        for (String name : new TreeSet<>(request.headers().names())) {
+            hasher.putString(name, StandardCharsets.UTF_8);
+
+            for (String value : request.headers(name)) {
+                hasher.putString(value, StandardCharsets.UTF_8);
+            }
+        }
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Compute the date until which a response is fresh, according to its Cache-Control or Expires headers.
+     *
+     * @param headers The response headers
+     * @param now The current time in milliseconds
+     * @return The end of the freshness in milliseconds
+     */
+    private static long getFreshUntil(Headers headers, long now) {
+        CacheControl cacheControl = CacheControl.parse(headers);
+
+        if (cacheControl.noCache()) {
+            return now;
+        }
+
+        if (cacheControl.maxAgeSeconds() >= 0) {
+            return now + TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds());
+        }
+
+        Date expires = headers.getDate("Expires");
+        if (expires != null) {
+            Date served = headers.getDate("Date");
+            return now + Math.max(0, expires.getTime() - (served != null ? served.getTime() : now));
+        }
+
+        return now;
+    }
+
+    private synchronized CachedResponse get(String key) {
+        return cachedResponses.get(key);
+    }
+
+    private synchronized void put(String key, CachedResponse cachedResponse) {
+        CachedResponse previous = cachedResponses.put(key, cachedResponse);
+        if (previous != null) {
+            size -= previous.size;
+        }
+
+        size += cachedResponse.size;
+
+        Iterator<CachedResponse> iterator = cachedResponses.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        CachedResponse previous = cachedResponses.remove(key);
+        if (previous != null) {
+            size -= previous.size;
+        }
+    }
+
+    /**
+     * Get the current size of the cache.
+     *
+     * @return The size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of responses served from the cache without network call.
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of responses fetched from the network.
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of responses served from the cache after a successful revalidation.
+     *
+     * @return The number of revalidations
+     */
+    public long getRevalidationCount() {
+        return revalidationCount.get();
+    }
+
+    /** Response stored in the cache. */
+    private static final class CachedResponse {
+        private final Protocol protocol;
+
+        private final int code;
+
+        private final String message;
+
+        private final Headers headers;
+
+        private final MediaType contentType;
+
+        private final byte[] body;
+
+        private final long freshUntil;
+
+        private final long size;
+
+        private CachedResponse(
+                Protocol protocol,
+                int code,
+                String message,
+                Headers headers,
+                MediaType contentType,
+                byte[] body,
+                long freshUntil) {
+            this.protocol = protocol;
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.body = body;
+            this.freshUntil = freshUntil;
+            this.size = body.length + headers.byteCount();
+        }
+
+        /**
+         * Update the stored response with the headers of a "not modified" response.
+         *
+         * @param notModifiedHeaders The headers of the "not modified" response
+         * @param now The current time in milliseconds
+         * @return The revalidated response
+         */
+        private CachedResponse revalidate(Headers notModifiedHeaders, long now) {
+            Headers.Builder builder = headers.newBuilder();
+
+            for (String name : notModifiedHeaders.names()) {
+                if (!NOT_UPDATABLE_HEADERS.contains(name.toLowerCase())) {
+                    builder.removeAll(name);
+
+                    for (String value : notModifiedHeaders.values(name)) {
+                        builder.add(name, value);
+                    }
+                }
+            }
+
+            Headers updatedHeaders = builder.build();
+            return new CachedResponse(
+                    protocol, code, message, updatedHeaders, contentType, body, getFreshUntil(updatedHeaders, now));
+        }
+
+        private Response toResponse(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, contentType))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Interceptor limiting the number of concurrent requests per host.
+ *
+ * <p>The dispatcher only limits asynchronous calls, this interceptor also covers the synchronous ones. A permit is held
+ * until the response body is closed, as the connection stays in use while the body is read.
+ *
+ * <p>The widgets can call any host, so the semaphores are weakly referenced: the semaphore of a host is held by its
+ * waiting requests and its unclosed response bodies, and is collected once none of them remains.
+ */
+public class HostConcurrencyLimitInterceptor implements Interceptor {
+    private final int maxRequestsPerHost;
+
+    private final Cache<String, Semaphore> permitsByHost = CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * Constructor.
+     *
+     * @param maxRequestsPerHost The maximum number of concurrent requests per host
+     */
+    public HostConcurrencyLimitInterceptor(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Wait for a permit of the requested host before proceeding the request.
+     *
+     * @param chain The interceptor chain
+     * @return The response
+     * @throws IOException When the request fails or the waiting thread is interrupted
+     */
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Semaphore permits = permitsByHost.asMap().computeIfAbsent(
+                chain.request().url().host(), host -> new Semaphore(maxRequestsPerHost));
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to "
+                    + chain.request().url().host());
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        return response.newBuilder()
+                .body(new PermitReleasingResponseBody(response.body(), permits))
+                .build();
+    }
+
+    /**
+     * Get the number of available permits for a host.
+     *
+     * @param host The host
+     * @return The number of available permits
+     */
+    public int getAvailablePermits(String host) {
+        Semaphore permits = permitsByHost.getIfPresent(host);
+        return permits != null ? permits.availablePermits() : maxRequestsPerHost;
+    }
+
+    /** Response body releasing its host permit once closed. */
+    private static final class PermitReleasingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+
+        private final BufferedSource source;
+
+        private PermitReleasingResponseBody(ResponseBody delegate, Semaphore permits) {
+            this.delegate = delegate;
+
+            AtomicBoolean released = new AtomicBoolean();
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -18,8 +18,12 @@
  */
 package com.michelin.suricate.util.http;
 
+import com.michelin.suricate.property.ApplicationProperties;
+import com.michelin.suricate.property.ProxyProperties;
+import com.michelin.suricate.util.SpringContextUtils;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLContext;
@@ -29,11 +33,22 @@ import javax.net.ssl.X509TrustManager;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.logging.HttpLoggingInterceptor;
+import org.springframework.context.ApplicationContext;
 
-/** OK Http client utils. */
+/**
+ * OK Http client utils.
+ *
+ * <p>The client is built once and shared by all the widget calls, so the connections, TLS sessions and resolved
+ * addresses are reused between executions.
+ */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class OkHttpClientUtils {
@@ -43,12 +58,77 @@ public final class OkHttpClientUtils {
 
     private static final int CONNECT_TIMEOUT = 300;
 
+    private static volatile OkHttpClient unsafeOkHttpClient;
+
     /**
-     * Get an instance of OkHttpClient without certificates validation.
+     * Get the shared instance of OkHttpClient without certificates validation.
      *
      * @return An OkHttpClient instance
      */
     public static OkHttpClient getUnsafeOkHttpClient() {
+        OkHttpClient client = unsafeOkHttpClient;
+
+        if (client == null) {
+            synchronized (OkHttpClientUtils.class) {
+                client = unsafeOkHttpClient;
+
+                if (client == null) {
+                    client = createUnsafeOkHttpClient(getHttpClientProperties(), getProxyProperties());
+                    unsafeOkHttpClient = client;
+                }
+            }
+        }
+
+        return client;
+    }
+
+    /**
+     * Get the response cache of the shared OkHttpClient.
+     *
+     * @return The response cache, or null if the cache is disabled
+     */
+    public static ConditionalCacheInterceptor getResponseCache() {
+        OkHttpClient client = getUnsafeOkHttpClient();
+
+        if (client != null) {
+            for (Interceptor interceptor : client.interceptors()) {
+                if (interceptor instanceof ConditionalCacheInterceptor responseCache) {
+                    return responseCache;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the circuit breaker of the shared OkHttpClient.
+     *
+     * @return The circuit breaker, or null if the circuit breaker is disabled
+     */
+    public static CircuitBreakerInterceptor getCircuitBreaker() {
+        OkHttpClient client = getUnsafeOkHttpClient();
+
+        if (client != null) {
+            for (Interceptor interceptor : client.interceptors()) {
+                if (interceptor instanceof CircuitBreakerInterceptor circuitBreaker) {
+                    return circuitBreaker;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Create an instance of OkHttpClient without certificates validation.
+     *
+     * @param httpClientProperties The connection pooling properties
+     * @param proxyProperties The proxy properties, or null to never use a proxy
+     * @return An OkHttpClient instance
+     */
+    public static OkHttpClient createUnsafeOkHttpClient(
+            ApplicationProperties.HttpClient httpClientProperties, ProxyProperties proxyProperties) {
         try {
             // Create a trust manager that does not validate certificates chain
             final TrustManager[] trustManager = new TrustManager[] {new AllTrustingTrustManager()};
@@ -63,14 +143,40 @@ public final class OkHttpClientUtils {
             HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
             loggingInterceptor.level(HttpLoggingInterceptor.Level.BASIC);
 
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(httpClientProperties.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(httpClientProperties.getMaxRequestsPerHost());
+
             OkHttpClient.Builder builder = new OkHttpClient.Builder()
                     .sslSocketFactory(sslSocketFactory, (X509TrustManager) trustManager[0])
                     .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
                     .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
                     .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS)
+                    .connectionPool(new ConnectionPool(
+                            httpClientProperties.getMaxIdleConnections(),
+                            httpClientProperties.getKeepAlive(),
+                            TimeUnit.SECONDS))
+                    .dispatcher(dispatcher)
+                    .dns(new CachingDns(Dns.SYSTEM, Duration.ofSeconds(httpClientProperties.getDnsCacheTtl())))
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+
+            if (httpClientProperties.getCache().isEnabled()) {
+                builder.addInterceptor(
+                        new ConditionalCacheInterceptor(httpClientProperties.getCache().getMaxSize()));
+            }
+
+            // Reject the requests to the failing hosts before they wait for a connection permit
+            if (httpClientProperties.getCircuitBreaker().isEnabled()) {
+                builder.addInterceptor(new CircuitBreakerInterceptor(
+                        httpClientProperties.getCircuitBreaker().getFailureThreshold(),
+                        Duration.ofSeconds(httpClientProperties.getCircuitBreaker().getOpenDuration())));
+            }
+
+            builder
+                    .addInterceptor(new HostConcurrencyLimitInterceptor(httpClientProperties.getMaxRequestsPerHost()))
                     .addInterceptor(loggingInterceptor)
                     .retryOnConnectionFailure(true)
-                    .proxySelector(new WidgetProxySelector())
+                    .proxySelector(new WidgetProxySelector(proxyProperties))
                     .connectionSpecs(Arrays.asList(ConnectionSpec.CLEARTEXT, ConnectionSpec.MODERN_TLS))
                     .hostnameVerifier((s, sslSession) -> true);
 
@@ -83,4 +189,34 @@ public final class OkHttpClientUtils {
 
         return null;
     }
+
+    /**
+     * Get the connection pooling properties, or the default ones outside an application context.
+     *
+     * @return The connection pooling properties
+     */
+    private static ApplicationProperties.HttpClient getHttpClientProperties() {
+        ApplicationContext applicationContext = SpringContextUtils.getApplicationContext();
+
+        if (applicationContext != null) {
+            ApplicationProperties.Widgets widgets =
+                    applicationContext.getBean(ApplicationProperties.class).getWidgets();
+
+            if (widgets != null) {
+                return widgets.getHttpClient();
+            }
+        }
+
+        return new ApplicationProperties.HttpClient();
+    }
+
+    /**
+     * Get the proxy properties, or null outside an application context.
+     *
+     * @return The proxy properties
+     */
+    private static ProxyProperties getProxyProperties() {
+        ApplicationContext applicationContext = SpringContextUtils.getApplicationContext();
+        return applicationContext != null ? applicationContext.getBean(ProxyProperties.class) : null;
+    }
 }
@@ -19,7 +19,6 @@
 package com.michelin.suricate.util.http;
 
 import com.michelin.suricate.property.ProxyProperties;
-import com.michelin.suricate.util.SpringContextUtils;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
@@ -29,14 +28,49 @@ import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 
-/** Widget proxy selector. */
+/**
+ * Widget proxy selector.
+ *
+ * <p>The routing table is computed once from the proxy properties, and the route of each host is memoized.
+ */
 @Slf4j
 public class WidgetProxySelector extends ProxySelector {
+    private static final int MAX_ROUTED_HOSTS = 1024;
+
+    private static final List<Proxy> DIRECT = Collections.singletonList(Proxy.NO_PROXY);
+
+    private final List<String> nonProxyDomains;
+
+    private final List<Proxy> proxied;
+
+    private final Map<String, List<Proxy>> routesByHost = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param proxyProperties The proxy properties, or null to never use a proxy
+     */
+    public WidgetProxySelector(ProxyProperties proxyProperties) {
+        if (proxyProperties != null && StringUtils.isNotBlank(proxyProperties.getNonProxyHosts())) {
+            nonProxyDomains = Arrays.stream(proxyProperties.getNonProxyHosts().split("\\|"))
+                    .map(domain -> domain.replace("*", StringUtils.EMPTY))
+                    .toList();
+            proxied = Collections.singletonList(new Proxy(
+                    Proxy.Type.HTTP,
+                    new InetSocketAddress(
+                            proxyProperties.getHttpHost(), Integer.parseInt(proxyProperties.getHttpPort()))));
+        } else {
+            nonProxyDomains = Collections.emptyList();
+            proxied = DIRECT;
+        }
+    }
+
     /**
      * Set the proxy for the URI that will be called by the widget HTTP client.
      *
@@ -45,25 +79,35 @@ public class WidgetProxySelector extends ProxySelector {
      */
     @Override
     public List<Proxy> select(URI uri) {
-        Proxy proxy = Proxy.NO_PROXY;
-        ProxyProperties proxyProperties =
-                SpringContextUtils.getApplicationContext().getBean(ProxyProperties.class);
+        if (proxied == DIRECT) {
+            return DIRECT;
+        }
 
-        if (StringUtils.isNotBlank(proxyProperties.getNonProxyHosts())) {
-            try (Stream<String> domains =
-                    Arrays.stream(proxyProperties.getNonProxyHosts().split("\\|"))) {
-                // Check if the URI is defined in the "no proxy domains" config before setting the proxy
-                if (domains.noneMatch(
-                        domain -> Strings.CI.contains(uri.getHost(), domain.replace("*", StringUtils.EMPTY)))) {
-                    proxy = new Proxy(
-                            Proxy.Type.HTTP,
-                            new InetSocketAddress(
-                                    proxyProperties.getHttpHost(), Integer.parseInt(proxyProperties.getHttpPort())));
-                }
+        String host = uri.getHost();
+        if (host == null) {
+            return route(null);
+        }
+
+        List<Proxy> route = routesByHost.get(host);
+        if (route == null) {
+            if (routesByHost.size() >= MAX_ROUTED_HOSTS) {
+                routesByHost.clear();
             }
+
+            route = routesByHost.computeIfAbsent(host, this::route);
         }
 
-        return Collections.singletonList(proxy);
+        return route;
+    }
+
+    /**
+     * Compute the route of a host. The proxy is used unless the host is defined in the "no proxy domains" config.
+     *
+     * @param host The host
+     * @return The proxy to use
+     */
+    private List<Proxy> route(String host) {
+        return nonProxyDomains.stream().noneMatch(domain -> Strings.CI.contains(host, domain)) ? proxied : DIRECT;
     }
 
     /**
@@ -0,0 +1 @@
+ALTER TABLE widget ADD COLUMN adaptive_delay character(1) DEFAULT 'N' NOT NULL;
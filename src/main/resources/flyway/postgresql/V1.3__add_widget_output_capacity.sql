@@ -0,0 +1 @@
+ALTER TABLE widget ADD COLUMN output_capacity integer;
@@ -25,7 +25,7 @@ import { MatSlideToggleChange } from '@angular/material/slide-toggle';
 import { MatTooltip } from '@angular/material/tooltip';
 import { TranslatePipe, TranslateService } from '@ngx-translate/core';
 import { IMessage } from '@stomp/rx-stomp';
-import { Subject } from 'rxjs';
+import { Subject, Subscription } from 'rxjs';
 import { takeUntil } from 'rxjs/operators';
 
 import { Spinner } from '../../../../shared/components/spinner/spinner';
@@ -36,6 +36,7 @@ import { WebsocketUpdateType } from '../../../../shared/enums/websocket-update-t
 import { WidgetState } from '../../../../shared/enums/widget-sate';
 import { CategoryParameter } from '../../../../shared/models/backend/category-parameters/category-parameter';
 import { ProjectWidget } from '../../../../shared/models/backend/project-widget/project-widget';
+import { ProjectWidgetPatch } from '../../../../shared/models/backend/project-widget/project-widget-patch';
 import { ProjectWidgetRequest } from '../../../../shared/models/backend/project-widget/project-widget-request';
 import { Widget } from '../../../../shared/models/backend/widget/widget';
 import { SlideToggleButtonConfiguration } from '../../../../shared/models/frontend/button/slide-toggle/slide-toggle-button-configuration';
@@ -51,6 +52,7 @@ import { ProjectWidgetFormStepsService } from '../../../../shared/services/front
 import { SidenavService } from '../../../../shared/services/frontend/sidenav/sidenav-service';
 import { ToastService } from '../../../../shared/services/frontend/toast/toast-service';
 import { WebsocketService } from '../../../../shared/services/frontend/websocket/websocket-service';
+import { JsonPatchUtils } from '../../../../shared/utils/json-patch.utils';
 import { LibraryService } from '../../../services/library/library-service';
 
 /**
@@ -124,6 +126,22 @@ export class DashboardScreenWidget implements OnInit, OnDestroy {
 	 */
 	public materialIconRecords = MaterialIconRecords;
 
+	/**
+	 * The sequence number of the last patch applied to the project widget, undefined until the project widget is in
+	 * sync with the patches
+	 */
+	private patchSequence: number;
+
+	/**
+	 * The reload of the project widget in flight, if any
+	 */
+	private reloadSubscription: Subscription;
+
+	/**
+	 * The sequence number of the last patch received during the reload of the project widget, applied once it returns
+	 */
+	private reloadSequence: number;
+
 	/**
 	 * Called when the component is init
 	 */
@@ -159,19 +177,112 @@ export class DashboardScreenWidget implements OnInit, OnDestroy {
 			.subscribe((stompMessage: IMessage) => {
 				const updateEvent: WebsocketUpdateEvent = JSON.parse(stompMessage.body);
 
+				// A refresh starts a new sequence of patches
 				if (updateEvent.type === WebsocketUpdateType.REFRESH_WIDGET) {
-					this.refreshProjectWidget();
+					this.refreshProjectWidget(0);
+				}
+
+				if (updateEvent.type === WebsocketUpdateType.PATCH_WIDGET) {
+					this.patchProjectWidget(updateEvent.content as ProjectWidgetPatch);
 				}
 			});
 	}
 
 	/**
-	 * Refresh this project widget
+	 * Refresh this project widget. The patches are not applied until the project widget is reloaded,
+	 * then the next patch is expected to follow the last one received meanwhile
+	 *
+	 * @param sequence The sequence number of the last patch received
 	 */
-	private refreshProjectWidget(): void {
-		this.httpProjectWidgetService.getOneById(this.projectWidget().id).subscribe((projectWidget) => {
-			this.projectWidget.set(projectWidget);
-		});
+	private refreshProjectWidget(sequence: number): void {
+		this.patchSequence = undefined;
+		this.reloadSequence = sequence;
+		this.reloadSubscription?.unsubscribe();
+		this.reloadSubscription = this.httpProjectWidgetService
+			.getOneById(this.projectWidget().id)
+			.pipe(takeUntil(this.unsubscribe))
+			.subscribe((projectWidget) => {
+				this.projectWidget.set(projectWidget);
+				this.patchSequence = this.reloadSequence;
+			});
+	}
+
+	/**
+	 * Apply the changes of the project widget when they follow the last patch applied.
+	 * Otherwise, a patch has been missed, so the whole project widget is reloaded.
+	 * The patches received while the project widget is reloaded are skipped, the reloaded project widget replacing them
+	 *
+	 * @param projectWidgetPatch The changes of the project widget
+	 */
+	private patchProjectWidget(projectWidgetPatch: ProjectWidgetPatch): void {
+		if (this.reloadSubscription && !this.reloadSubscription.closed) {
+			this.reloadSequence = projectWidgetPatch.sequence;
+			return;
+		}
+
+		if (this.patchSequence !== undefined && projectWidgetPatch.sequence === this.patchSequence + 1) {
+			try {
+				const patchedDocument = JsonPatchUtils.applyPatch(
+					DashboardScreenWidget.toPatchDocument(this.projectWidget()),
+					projectWidgetPatch.patch
+				);
+				this.projectWidget.set(DashboardScreenWidget.fromPatchDocument(patchedDocument));
+				this.patchSequence = projectWidgetPatch.sequence;
+				return;
+			} catch {
+				// The project widget is out of sync, it is reloaded below
+			}
+		}
+
+		this.refreshProjectWidget(projectWidgetPatch.sequence);
+	}
+
+	/**
+	 * Convert a project widget to the document the server computes the patches on.
+	 * The data is parsed when it is a JSON object or array, and the HTML is split into lines
+	 *
+	 * @param projectWidget The project widget
+	 * @return The document of the project widget
+	 */
+	private static toPatchDocument(projectWidget: ProjectWidget): Record<string, unknown> {
+		const patchDocument: Record<string, unknown> = { ...projectWidget };
+
+		if (typeof projectWidget.data === 'string') {
+			try {
+				const data: unknown = JSON.parse(projectWidget.data);
+				if (data !== null && typeof data === 'object') {
+					patchDocument['data'] = data;
+				}
+			} catch {
+				// The data is not JSON, it is patched as a string
+			}
+		}
+
+		if (typeof projectWidget.instantiateHtml === 'string') {
+			patchDocument['instantiateHtml'] = projectWidget.instantiateHtml.split('\n');
+		}
+
+		return patchDocument;
+	}
+
+	/**
+	 * Convert a patched document back to a project widget
+	 *
+	 * @param patchDocument The document of the project widget
+	 * @return The project widget
+	 */
+	private static fromPatchDocument(patchDocument: Record<string, unknown>): ProjectWidget {
+		const projectWidget = { ...patchDocument };
+
+		if (projectWidget['data'] !== null && typeof projectWidget['data'] === 'object') {
+			projectWidget['data'] = JSON.stringify(projectWidget['data']);
+		}
+
+		if (Array.isArray(projectWidget['instantiateHtml'])) {
+			projectWidget['instantiateHtml'] = projectWidget['instantiateHtml'].join('\n');
+		}
+
+		return projectWidget as unknown as ProjectWidget;
 	}
 
 	/**
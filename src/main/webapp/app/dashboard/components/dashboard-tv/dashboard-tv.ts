@@ -30,6 +30,7 @@ import { HideAfterInitDirective } from '../../../shared/directives/hide-after-in
 import { WebsocketUpdateType } from '../../../shared/enums/websocket-update-type';
 import { Project } from '../../../shared/models/backend/project/project';
 import { ProjectWidget } from '../../../shared/models/backend/project-widget/project-widget';
+import { WebsocketDisplayedGrid } from '../../../shared/models/frontend/websocket/websocket-displayed-grid';
 import { WebsocketUpdateEvent } from '../../../shared/models/frontend/websocket/websocket-update-event';
 import { HttpProjectService } from '../../../shared/services/backend/http-project/http-project-service';
 import { HttpProjectWidgetService } from '../../../shared/services/backend/http-project-widget/http-project-widget-service';
@@ -222,6 +223,8 @@ export class DashboardTv implements OnInit, OnDestroy {
 	 * Schedule the next rotation of dashboards
 	 */
 	private scheduleRotation(): void {
+		this.reportDisplayedGrid();
+
 		if (this.project.grids.length > 1) {
 			if (this.project.displayProgressBar) {
 				this.startTimer();
@@ -236,6 +239,24 @@ export class DashboardTv implements OnInit, OnDestroy {
 		}
 	}
 
+	/**
+	 * Report the displayed grid to the server, so the widgets of the hidden grids can run at a reduced rate
+	 * and the next grid can be refreshed just before it is displayed
+	 */
+	private reportDisplayedGrid(): void {
+		const displayedGrid: WebsocketDisplayedGrid = {
+			gridId: this.project.grids[this.rotationIndex].id
+		};
+
+		if (this.project.grids.length > 1) {
+			const nextRotationIndex = this.rotationIndex === this.project.grids.length - 1 ? 0 : this.rotationIndex + 1;
+			displayedGrid.nextGridId = this.project.grids[nextRotationIndex].id;
+			displayedGrid.time = this.project.grids[this.rotationIndex].time;
+		}
+
+		this.websocketService.publish('/app/screens/displayed-grid', displayedGrid);
+	}
+
 	/**
 	 * Reset the current rotation
 	 */
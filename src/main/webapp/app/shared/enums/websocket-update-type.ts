@@ -23,6 +23,7 @@
 export enum WebsocketUpdateType {
 	REFRESH_DASHBOARD = 'REFRESH_DASHBOARD',
 	REFRESH_WIDGET = 'REFRESH_WIDGET',
+	PATCH_WIDGET = 'PATCH_WIDGET',
 	CONNECT_DASHBOARD = 'CONNECT_DASHBOARD',
 	DISPLAY_NUMBER = 'DISPLAY_NUMBER',
 	RELOAD = 'RELOAD',
@@ -33,6 +33,8 @@ export interface Widget {
 	info: string;
 	delay: number;
 	timeout: string;
+	adaptiveDelay: boolean;
+	outputCapacity: number;
 	imageToken: string;
 	widgetAvailability: WidgetAvailability;
 	category: Category;
@@ -20,6 +20,7 @@
 import { WebsocketUpdateType } from '../../../enums/websocket-update-type';
 import { Project } from '../../backend/project/project';
 import { ProjectWidget } from '../../backend/project-widget/project-widget';
+import { ProjectWidgetPatch } from '../../backend/project-widget/project-widget-patch';
 
 /**
  * The object WS Event
@@ -27,5 +28,5 @@ import { ProjectWidget } from '../../backend/project-widget/project-widget';
 export class WebsocketUpdateEvent {
 	date: Date;
 	type: WebsocketUpdateType;
-	content: Project | ProjectWidget | void;
+	content: Project | ProjectWidget | ProjectWidgetPatch | void;
 }
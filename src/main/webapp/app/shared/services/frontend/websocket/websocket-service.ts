@@ -73,6 +73,16 @@ export class WebsocketService {
 		return this.rxStompService.watch(destination);
 	}
 
+	/**
+	 * Send a message to a destination. The message is sent once the client is connected
+	 *
+	 * @param {string} destination The destination url
+	 * @param body The message, serialized as JSON
+	 */
+	public publish(destination: string, body: unknown): void {
+		this.rxStompService.publish({ destination, body: JSON.stringify(body) });
+	}
+
 	/**
 	 * Disconnect the client
 	 */
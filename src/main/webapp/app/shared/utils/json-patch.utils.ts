@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import { JsonPatchOperation } from '../models/backend/json-patch-operation';
+
+/**
+ * Util class for JSON Patches (RFC 6902)
+ */
+export class JsonPatchUtils {
+	/**
+	 * Apply a JSON Patch to a copy of a document
+	 *
+	 * @param document The document to patch, left unchanged
+	 * @param operations The add, remove and replace operations of the patch
+	 * @return The patched copy of the document
+	 * @throws Error If a path of the patch does not exist in the document
+	 */
+	public static applyPatch<T>(document: T, operations: JsonPatchOperation[]): T {
+		let patchedDocument: unknown = structuredClone(document);
+
+		for (const operation of operations) {
+			if (operation.path === '') {
+				if (operation.op === 'remove') {
+					throw new Error('The root of the document cannot be removed');
+				}
+				patchedDocument = structuredClone(operation.value);
+				continue;
+			}
+
+			const tokens = operation.path
+				.substring(1)
+				.split('/')
+				.map((token) => token.replace(/~1/g, '/').replace(/~0/g, '~'));
+			const key = tokens.pop();
+			const parent = tokens.reduce((node, token) => JsonPatchUtils.getChild(node, token), patchedDocument);
+
+			if (parent === null || typeof parent !== 'object') {
+				throw new Error(`The parent of the path ${operation.path} does not exist`);
+			}
+
+			if (Array.isArray(parent)) {
+				JsonPatchUtils.applyToArray(parent, key, operation);
+			} else {
+				const object = parent as Record<string, unknown>;
+				if (operation.op !== 'add' && !(key in object)) {
+					throw new Error(`The path ${operation.path} does not exist`);
+				}
+
+				if (operation.op === 'remove') {
+					delete object[key];
+				} else {
+					object[key] = structuredClone(operation.value);
+				}
+			}
+		}
+
+		return patchedDocument as T;
+	}
+
+	/**
+	 * Apply an operation to an item of an array
+	 *
+	 * @param array The array
+	 * @param key The index of the item, or '-' to append an item
+	 * @param operation The operation
+	 * @throws Error If the index does not exist in the array
+	 */
+	private static applyToArray(array: unknown[], key: string, operation: JsonPatchOperation): void {
+		const index = key === '-' && operation.op === 'add' ? array.length : Number(key);
+		const maxIndex = operation.op === 'add' ? array.length : array.length - 1;
+
+		if (!Number.isInteger(index) || index < 0 || index > maxIndex) {
+			throw new Error(`The index ${key} does not exist`);
+		}
+
+		if (operation.op === 'add') {
+			array.splice(index, 0, structuredClone(operation.value));
+		} else if (operation.op === 'remove') {
+			array.splice(index, 1);
+		} else {
+			array[index] = structuredClone(operation.value);
+		}
+	}
+
+	/**
+	 * Get a child of a node of the document
+	 *
+	 * @param node The node
+	 * @param token The field name or the index of the child
+	 * @return The child
+	 * @throws Error If the child does not exist
+	 */
+	private static getChild(node: unknown, token: string): unknown {
+		if (node === null || typeof node !== 'object' || !(token in node)) {
+			throw new Error(`The path token ${token} does not exist`);
+		}
+
+		return (node as Record<string, unknown>)[token];
+	}
+}
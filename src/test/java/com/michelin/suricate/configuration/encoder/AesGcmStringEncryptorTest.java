@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.junit.jupiter.api.Test;
+
+class AesGcmStringEncryptorTest {
+    private final AesGcmStringEncryptor aesGcmStringEncryptor = new AesGcmStringEncryptor("password");
+
+    @Test
+    void shouldEncryptAndDecrypt() {
+        String encrypted = aesGcmStringEncryptor.encrypt("secret é");
+
+        assertTrue(encrypted.startsWith(AesGcmStringEncryptor.PREFIX));
+        assertTrue(AesGcmStringEncryptor.isEncrypted(encrypted));
+        assertEquals("secret é", aesGcmStringEncryptor.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldEncryptWithRandomIv() {
+        assertNotEquals(aesGcmStringEncryptor.encrypt("secret"), aesGcmStringEncryptor.encrypt("secret"));
+    }
+
+    @Test
+    void shouldDecryptWithSamePassword() {
+        String encrypted = new AesGcmStringEncryptor("password").encrypt("secret");
+
+        assertEquals("secret", aesGcmStringEncryptor.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldNotDecryptWithOtherPassword() {
+        String encrypted = new AesGcmStringEncryptor("other").encrypt("secret");
+
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> aesGcmStringEncryptor.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldNotDecryptTamperedMessage() {
+        String encrypted = aesGcmStringEncryptor.encrypt("secret");
+        int index = AesGcmStringEncryptor.PREFIX.length() + 20;
+        String tampered = encrypted.substring(0, index)
+                + (encrypted.charAt(index) == 'A' ? 'B' : 'A')
+                + encrypted.substring(index + 1);
+
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> aesGcmStringEncryptor.decrypt(tampered));
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> aesGcmStringEncryptor.decrypt("v2:AAAA"));
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> aesGcmStringEncryptor.decrypt("v2:%%"));
+    }
+
+    @Test
+    void shouldNotDecryptJasyptMessage() {
+        assertFalse(AesGcmStringEncryptor.isEncrypted("8A3F2C"));
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> aesGcmStringEncryptor.decrypt("8A3F2C"));
+    }
+
+    @Test
+    void shouldHandleNull() {
+        assertNull(aesGcmStringEncryptor.encrypt(null));
+        assertNull(aesGcmStringEncryptor.decrypt(null));
+        assertFalse(AesGcmStringEncryptor.isEncrypted(null));
+    }
+}
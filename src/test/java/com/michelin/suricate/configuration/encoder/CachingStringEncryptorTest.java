@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.jasypt.encryption.StringEncryptor;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CachingStringEncryptorTest {
+    @Mock
+    private StringEncryptor stringEncryptor;
+
+    @Test
+    void shouldDecryptOnce() {
+        when(stringEncryptor.decrypt("encrypted")).thenReturn("decrypted");
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1));
+
+        assertEquals("decrypted", cachingStringEncryptor.decrypt("encrypted"));
+        assertEquals("decrypted", cachingStringEncryptor.decrypt("encrypted"));
+        assertEquals(1, cachingStringEncryptor.size());
+
+        verify(stringEncryptor).decrypt("encrypted");
+    }
+
+    @Test
+    void shouldDecryptAgainAfterEviction() {
+        when(stringEncryptor.decrypt("encrypted")).thenReturn("decrypted");
+        when(stringEncryptor.decrypt("other")).thenReturn("other decrypted");
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1));
+
+        cachingStringEncryptor.decrypt("encrypted");
+        cachingStringEncryptor.decrypt("other");
+        cachingStringEncryptor.evict("encrypted");
+        cachingStringEncryptor.evict(null);
+
+        assertEquals(1, cachingStringEncryptor.size());
+        assertEquals("decrypted", cachingStringEncryptor.decrypt("encrypted"));
+
+        verify(stringEncryptor, times(2)).decrypt("encrypted");
+    }
+
+    @Test
+    void shouldNotCacheWhenMaxSizeIsZero() {
+        when(stringEncryptor.decrypt("encrypted")).thenReturn("decrypted");
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 0, Duration.ofHours(1));
+
+        cachingStringEncryptor.decrypt("encrypted");
+        cachingStringEncryptor.decrypt("encrypted");
+
+        verify(stringEncryptor, times(2)).decrypt("encrypted");
+    }
+
+    @Test
+    void shouldPropagateDecryptionFailure() {
+        when(stringEncryptor.decrypt("invalid")).thenThrow(new EncryptionOperationNotPossibleException());
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1));
+
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> cachingStringEncryptor.decrypt("invalid"));
+        assertEquals(0, cachingStringEncryptor.size());
+    }
+
+    @Test
+    void shouldNotCacheEncryption() {
+        when(stringEncryptor.encrypt("message")).thenReturn("encrypted1").thenReturn("encrypted2");
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1));
+
+        assertEquals("encrypted1", cachingStringEncryptor.encrypt("message"));
+        assertEquals("encrypted2", cachingStringEncryptor.encrypt("message"));
+    }
+
+    @Test
+    void shouldCacheDeterministicEncryptionInBothDirections() {
+        when(stringEncryptor.encrypt("10")).thenReturn("token");
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1), true);
+
+        assertEquals("token", cachingStringEncryptor.encrypt("10"));
+        assertEquals("token", cachingStringEncryptor.encrypt("10"));
+        assertEquals("10", cachingStringEncryptor.decrypt("token"));
+
+        verify(stringEncryptor).encrypt("10");
+        verify(stringEncryptor, never()).decrypt("token");
+    }
+
+    @Test
+    void shouldNotCacheDeterministicEncryptionFailure() {
+        when(stringEncryptor.encrypt("10")).thenThrow(new EncryptionOperationNotPossibleException());
+
+        CachingStringEncryptor cachingStringEncryptor =
+                new CachingStringEncryptor(stringEncryptor, 10, Duration.ofHours(1), true);
+
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> cachingStringEncryptor.encrypt("10"));
+        assertThrows(EncryptionOperationNotPossibleException.class, () -> cachingStringEncryptor.encrypt("10"));
+        assertEquals(0, cachingStringEncryptor.size());
+
+        verify(stringEncryptor, times(2)).encrypt("10");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.configuration.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jasypt.encryption.StringEncryptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class VersionedStringEncryptorTest {
+    private final AesGcmStringEncryptor aesGcmStringEncryptor = new AesGcmStringEncryptor("password");
+
+    @Mock
+    private StringEncryptor jasyptStringEncryptor;
+
+    @Test
+    void shouldEncryptWithAesGcmCodec() {
+        VersionedStringEncryptor versionedStringEncryptor =
+                new VersionedStringEncryptor(jasyptStringEncryptor, aesGcmStringEncryptor, true);
+
+        String encrypted = versionedStringEncryptor.encrypt("secret");
+
+        assertTrue(AesGcmStringEncryptor.isEncrypted(encrypted));
+        assertTrue(versionedStringEncryptor.isCurrent(encrypted));
+        assertEquals("secret", versionedStringEncryptor.decrypt(encrypted));
+        verify(jasyptStringEncryptor, never()).encrypt("secret");
+    }
+
+    @Test
+    void shouldEncryptWithJasyptCodec() {
+        when(jasyptStringEncryptor.encrypt("secret")).thenReturn("8A3F2C");
+
+        VersionedStringEncryptor versionedStringEncryptor =
+                new VersionedStringEncryptor(jasyptStringEncryptor, aesGcmStringEncryptor, false);
+
+        assertEquals("8A3F2C", versionedStringEncryptor.encrypt("secret"));
+        assertTrue(versionedStringEncryptor.isCurrent("8A3F2C"));
+    }
+
+    @Test
+    void shouldDecryptJasyptMessageWithAesGcmCodec() {
+        when(jasyptStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+
+        VersionedStringEncryptor versionedStringEncryptor =
+                new VersionedStringEncryptor(jasyptStringEncryptor, aesGcmStringEncryptor, true);
+
+        assertEquals("secret", versionedStringEncryptor.decrypt("8A3F2C"));
+        assertFalse(versionedStringEncryptor.isCurrent("8A3F2C"));
+    }
+
+    @Test
+    void shouldDecryptAesGcmMessageWithJasyptCodec() {
+        VersionedStringEncryptor versionedStringEncryptor =
+                new VersionedStringEncryptor(jasyptStringEncryptor, aesGcmStringEncryptor, false);
+
+        String encrypted = aesGcmStringEncryptor.encrypt("secret");
+
+        assertEquals("secret", versionedStringEncryptor.decrypt(encrypted));
+        assertFalse(versionedStringEncryptor.isCurrent(encrypted));
+        verify(jasyptStringEncryptor, never()).decrypt(encrypted);
+    }
+}
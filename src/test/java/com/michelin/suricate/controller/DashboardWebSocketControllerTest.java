@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.controller;
+
+import static org.mockito.Mockito.verify;
+
+import com.michelin.suricate.model.dto.websocket.DisplayedGridDto;
+import com.michelin.suricate.service.websocket.DashboardWebSocketService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardWebSocketControllerTest {
+    @Mock
+    private DashboardWebSocketService dashboardWebSocketService;
+
+    @InjectMocks
+    private DashboardWebSocketController dashboardWebSocketController;
+
+    @Test
+    void shouldUpdateDisplayedGrid() {
+        DisplayedGridDto displayedGridDto =
+                DisplayedGridDto.builder().gridId(1L).nextGridId(2L).time(30L).build();
+
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionId("session");
+
+        dashboardWebSocketController.updateDisplayedGrid(displayedGridDto, headerAccessor);
+
+        verify(dashboardWebSocketService).updateDisplayedGrid("session", displayedGridDto);
+    }
+}
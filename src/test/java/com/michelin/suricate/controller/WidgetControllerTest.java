@@ -23,8 +23,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.michelin.suricate.model.dto.api.widget.CircuitBreakerResponseDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetRequestDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetResponseDto;
 import com.michelin.suricate.model.entity.Widget;
@@ -32,7 +34,9 @@ import com.michelin.suricate.model.enumeration.WidgetAvailabilityEnum;
 import com.michelin.suricate.service.api.WidgetService;
 import com.michelin.suricate.service.mapper.WidgetMapper;
 import com.michelin.suricate.util.exception.ObjectNotFoundException;
+import com.michelin.suricate.util.http.CircuitBreakerInterceptor;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -129,4 +133,19 @@ class WidgetControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, actual.getStatusCode());
         assertNull(actual.getBody());
     }
+
+    @Test
+    void shouldGetCircuitBreakers() {
+        CircuitBreakerInterceptor.HostCircuit hostCircuit = mock(CircuitBreakerInterceptor.HostCircuit.class);
+        CircuitBreakerResponseDto circuitBreakerResponseDto = new CircuitBreakerResponseDto();
+        circuitBreakerResponseDto.setHost("mocked.com");
+
+        when(widgetService.getHostCircuits()).thenReturn(List.of(hostCircuit));
+        when(widgetMapper.toCircuitBreakersDtos(List.of(hostCircuit))).thenReturn(List.of(circuitBreakerResponseDto));
+
+        ResponseEntity<List<CircuitBreakerResponseDto>> actual = widgetController.getCircuitBreakers();
+
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(List.of(circuitBreakerResponseDto), actual.getBody());
+    }
 }
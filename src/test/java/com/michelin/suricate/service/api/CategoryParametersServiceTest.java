@@ -25,18 +25,19 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.michelin.suricate.configuration.encoder.CachingStringEncryptor;
 import com.michelin.suricate.model.entity.Category;
 import com.michelin.suricate.model.entity.CategoryParameter;
 import com.michelin.suricate.model.entity.CategoryParameter_;
 import com.michelin.suricate.model.entity.WidgetParam;
 import com.michelin.suricate.model.enumeration.DataTypeEnum;
 import com.michelin.suricate.repository.CategoryParametersRepository;
+import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
 import com.michelin.suricate.service.specification.CategoryParametersSearchSpecification;
 import jakarta.persistence.metamodel.SingularAttribute;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import org.jasypt.encryption.StringEncryptor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -56,7 +57,10 @@ class CategoryParametersServiceTest {
     private SingularAttribute<CategoryParameter, String> description;
 
     @Mock
-    private StringEncryptor stringEncryptor;
+    private CachingStringEncryptor stringEncryptor;
+
+    @Mock
+    private JsExecutionScheduler jsExecutionScheduler;
 
     @InjectMocks
     private CategoryParametersService categoryParametersService;
@@ -136,6 +140,7 @@ class CategoryParametersServiceTest {
         assertEquals("newValue", categoryParameter.getValue());
 
         verify(categoryParametersRepository).save(categoryParameter);
+        verify(jsExecutionScheduler).evictJsExecutionPlans();
     }
 
     @Test
@@ -153,6 +158,7 @@ class CategoryParametersServiceTest {
         assertEquals("encrypted", categoryParameter.getValue());
 
         verify(categoryParametersRepository).save(categoryParameter);
+        verify(stringEncryptor).evict("value");
     }
 
     @Test
@@ -162,9 +168,13 @@ class CategoryParametersServiceTest {
         categoryParameter.setValue("value");
         categoryParameter.setDataType(DataTypeEnum.TEXT);
 
+        when(categoryParametersRepository.findValueByKey("key")).thenReturn(Optional.of("value"));
+
         categoryParametersService.deleteOneByKey("key");
 
+        verify(stringEncryptor).evict("value");
         verify(categoryParametersRepository).deleteById("key");
+        verify(jsExecutionScheduler).evictJsExecutionPlans();
     }
 
     @Test
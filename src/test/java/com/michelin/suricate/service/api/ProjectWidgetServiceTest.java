@@ -32,6 +32,7 @@ import static org.mockito.Mockito.when;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.MustacheException;
 import com.github.mustachejava.MustacheFactory;
+import com.michelin.suricate.configuration.encoder.CachingStringEncryptor;
 import com.michelin.suricate.model.dto.api.projectwidget.ProjectWidgetPositionRequestDto;
 import com.michelin.suricate.model.entity.Project;
 import com.michelin.suricate.model.entity.ProjectGrid;
@@ -52,7 +53,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import org.jasypt.encryption.StringEncryptor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -81,7 +81,7 @@ class ProjectWidgetServiceTest {
     private ApplicationContext ctx;
 
     @Mock
-    private StringEncryptor stringEncryptor;
+    private CachingStringEncryptor stringEncryptor;
 
     @Mock
     private JsExecutionScheduler jsExecutionScheduler;
@@ -459,6 +459,7 @@ class ProjectWidgetServiceTest {
 
         ProjectWidget projectWidget = new ProjectWidget();
         projectWidget.setId(1L);
+        projectWidget.setBackendConfig("param=previous\nother=value");
 
         when(ctx.getBean(JsExecutionScheduler.class)).thenReturn(jsExecutionScheduler);
         when(widgetService.getWidgetParametersWithCategoryParameters(any()))
@@ -470,6 +471,8 @@ class ProjectWidgetServiceTest {
         assertEquals("style", projectWidget.getCustomStyle());
         assertEquals("param=value", projectWidget.getBackendConfig());
 
+        verify(stringEncryptor).evict("previous");
+        verify(stringEncryptor, never()).evict("value");
         verify(jsExecutionScheduler).cancelWidgetExecution(1L);
         verify(projectWidgetRepository).save(projectWidget);
         verify(dashboardScheduleService).scheduleWidget(1L);
@@ -514,6 +517,15 @@ class ProjectWidgetServiceTest {
         verify(projectWidgetRepository).updateSuccessExecution(now, "log", "data", 1L, WidgetStateEnum.STOPPED);
     }
 
+    @Test
+    void shouldUpdateWidgetInstanceAfterUnchangedExecution() {
+        Date now = new Date();
+        projectWidgetService.updateWidgetInstanceAfterUnchangedExecution(now, 1L, WidgetStateEnum.RUNNING);
+
+        verify(projectWidgetRepository)
+                .updateLastExecutionDateAndLastSuccessDateAndState(now, 1L, WidgetStateEnum.RUNNING);
+    }
+
     @Test
     void shouldDecryptSecretParamsIfNeeded() {
         WidgetParam widgetParam = new WidgetParam();
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.michelin.suricate.configuration.encoder.VersionedStringEncryptor;
+import com.michelin.suricate.model.entity.CategoryParameter;
+import com.michelin.suricate.model.entity.ProjectWidget;
+import com.michelin.suricate.model.entity.Widget;
+import com.michelin.suricate.model.entity.WidgetParam;
+import com.michelin.suricate.model.enumeration.DataTypeEnum;
+import com.michelin.suricate.property.ApplicationProperties;
+import com.michelin.suricate.repository.CategoryParametersRepository;
+import com.michelin.suricate.repository.ProjectWidgetRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SecretMigrationServiceTest {
+    @Mock
+    private CategoryParametersRepository categoryParametersRepository;
+
+    @Mock
+    private ProjectWidgetRepository projectWidgetRepository;
+
+    @Mock
+    private WidgetService widgetService;
+
+    @Mock
+    private VersionedStringEncryptor versionedStringEncryptor;
+
+    @Spy
+    private ApplicationProperties applicationProperties;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SecretMigrationService secretMigrationService;
+
+    @Test
+    void shouldNotMigrateWhenDisabled() {
+        secretMigrationService.migrateSecretsAsync();
+
+        verify(categoryParametersRepository, never()).findAll();
+        verify(projectWidgetRepository, never()).findAllIds();
+    }
+
+    @Test
+    void shouldMigrateCategoryParameters() {
+        CategoryParameter legacyPassword = new CategoryParameter();
+        legacyPassword.setKey("legacy");
+        legacyPassword.setValue("8A3F2C");
+        legacyPassword.setDataType(DataTypeEnum.PASSWORD);
+
+        CategoryParameter currentPassword = new CategoryParameter();
+        currentPassword.setKey("current");
+        currentPassword.setValue("v2:current");
+        currentPassword.setDataType(DataTypeEnum.PASSWORD);
+
+        CategoryParameter text = new CategoryParameter();
+        text.setKey("text");
+        text.setValue("value");
+        text.setDataType(DataTypeEnum.TEXT);
+
+        when(categoryParametersRepository.findAll()).thenReturn(List.of(legacyPassword, currentPassword, text));
+        mockTransactionTemplate();
+        when(versionedStringEncryptor.isCurrent("8A3F2C")).thenReturn(false);
+        when(versionedStringEncryptor.isCurrent("v2:current")).thenReturn(true);
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+
+        when(categoryParametersRepository.updateValue("legacy", "v2:migrated", "8A3F2C")).thenReturn(1);
+
+        assertEquals(1, secretMigrationService.migrateSecrets());
+
+        verify(categoryParametersRepository).updateValue("legacy", "v2:migrated", "8A3F2C");
+        verify(categoryParametersRepository, never()).updateValue(eq("current"), anyString(), anyString());
+        verify(categoryParametersRepository, never()).updateValue(eq("text"), anyString(), anyString());
+        verify(categoryParametersRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldMigrateCategoryParametersEditedDuringMigration() {
+        CategoryParameter password = new CategoryParameter();
+        password.setKey("password");
+        password.setValue("8A3F2C");
+        password.setDataType(DataTypeEnum.PASSWORD);
+
+        when(categoryParametersRepository.findAll()).thenReturn(List.of(password));
+        mockTransactionTemplate();
+        when(versionedStringEncryptor.isCurrent("8A3F2C")).thenReturn(false);
+        when(versionedStringEncryptor.isCurrent("9B4E3D")).thenReturn(false);
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.decrypt("9B4E3D")).thenReturn("edited");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+        when(versionedStringEncryptor.encrypt("edited")).thenReturn("v2:edited");
+        when(categoryParametersRepository.updateValue("password", "v2:migrated", "8A3F2C")).thenReturn(0);
+        when(categoryParametersRepository.findValueByKey("password")).thenReturn(Optional.of("9B4E3D"));
+        when(categoryParametersRepository.updateValue("password", "v2:edited", "9B4E3D")).thenReturn(1);
+
+        assertEquals(1, secretMigrationService.migrateSecrets());
+
+        verify(categoryParametersRepository).updateValue("password", "v2:edited", "9B4E3D");
+    }
+
+    @Test
+    void shouldMigrateProjectWidgets() {
+        WidgetParam password = new WidgetParam();
+        password.setName("PASSWORD");
+        password.setType(DataTypeEnum.PASSWORD);
+
+        WidgetParam text = new WidgetParam();
+        text.setName("TEXT");
+        text.setType(DataTypeEnum.TEXT);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget legacyProjectWidget = new ProjectWidget();
+        legacyProjectWidget.setId(1L);
+        legacyProjectWidget.setWidget(widget);
+        legacyProjectWidget.setBackendConfig("PASSWORD=8A3F2C\nTEXT=value");
+
+        ProjectWidget currentProjectWidget = new ProjectWidget();
+        currentProjectWidget.setId(2L);
+        currentProjectWidget.setWidget(widget);
+        currentProjectWidget.setBackendConfig("PASSWORD=v2:current");
+
+        ProjectWidget emptyProjectWidget = new ProjectWidget();
+        emptyProjectWidget.setId(3L);
+        emptyProjectWidget.setWidget(widget);
+
+        when(projectWidgetRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(projectWidgetRepository.findById(1L)).thenReturn(Optional.of(legacyProjectWidget));
+        when(projectWidgetRepository.findById(2L)).thenReturn(Optional.of(currentProjectWidget));
+        when(projectWidgetRepository.findById(3L)).thenReturn(Optional.of(emptyProjectWidget));
+        mockTransactionTemplate();
+        when(widgetService.getWidgetParametersWithCategoryParameters(widget)).thenReturn(List.of(password, text));
+        when(versionedStringEncryptor.isCurrent("8A3F2C")).thenReturn(false);
+        when(versionedStringEncryptor.isCurrent("v2:current")).thenReturn(true);
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+        when(projectWidgetRepository.updateBackendConfig(
+                        1L, "PASSWORD=v2:migrated\nTEXT=value", "PASSWORD=8A3F2C\nTEXT=value"))
+                .thenReturn(1);
+
+        assertEquals(1, secretMigrationService.migrateSecrets());
+
+        verify(widgetService).getWidgetParametersWithCategoryParameters(widget);
+        verify(projectWidgetRepository, never()).updateBackendConfig(eq(2L), anyString(), anyString());
+        verify(projectWidgetRepository, never()).findBackendConfigById(any());
+    }
+
+    @Test
+    void shouldMigrateProjectWidgetsEditedDuringMigration() {
+        WidgetParam password = new WidgetParam();
+        password.setName("PASSWORD");
+        password.setType(DataTypeEnum.PASSWORD);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+        projectWidget.setBackendConfig("PASSWORD=8A3F2C");
+
+        when(projectWidgetRepository.findAllIds()).thenReturn(List.of(1L));
+        when(projectWidgetRepository.findById(1L)).thenReturn(Optional.of(projectWidget));
+        mockTransactionTemplate();
+        when(widgetService.getWidgetParametersWithCategoryParameters(widget)).thenReturn(List.of(password));
+        when(versionedStringEncryptor.isCurrent("8A3F2C")).thenReturn(false);
+        when(versionedStringEncryptor.isCurrent("9B4E3D")).thenReturn(false);
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.decrypt("9B4E3D")).thenReturn("edited");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+        when(versionedStringEncryptor.encrypt("edited")).thenReturn("v2:edited");
+        when(projectWidgetRepository.updateBackendConfig(1L, "PASSWORD=v2:migrated", "PASSWORD=8A3F2C"))
+                .thenReturn(0);
+        when(projectWidgetRepository.findBackendConfigById(1L)).thenReturn(Optional.of("PASSWORD=9B4E3D"));
+        when(projectWidgetRepository.updateBackendConfig(1L, "PASSWORD=v2:edited", "PASSWORD=9B4E3D"))
+                .thenReturn(1);
+
+        assertEquals(1, secretMigrationService.migrateSecrets());
+
+        verify(projectWidgetRepository).updateBackendConfig(1L, "PASSWORD=v2:edited", "PASSWORD=9B4E3D");
+    }
+
+    @Test
+    void shouldSkipProjectWidgetsKeptEditedDuringMigration() {
+        WidgetParam password = new WidgetParam();
+        password.setName("PASSWORD");
+        password.setType(DataTypeEnum.PASSWORD);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+        projectWidget.setBackendConfig("PASSWORD=8A3F2C");
+
+        when(projectWidgetRepository.findAllIds()).thenReturn(List.of(1L));
+        when(projectWidgetRepository.findById(1L)).thenReturn(Optional.of(projectWidget));
+        mockTransactionTemplate();
+        when(widgetService.getWidgetParametersWithCategoryParameters(widget)).thenReturn(List.of(password));
+        when(versionedStringEncryptor.isCurrent("8A3F2C")).thenReturn(false);
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+        when(projectWidgetRepository.updateBackendConfig(1L, "PASSWORD=v2:migrated", "PASSWORD=8A3F2C"))
+                .thenReturn(0);
+        when(projectWidgetRepository.findBackendConfigById(1L)).thenReturn(Optional.of("PASSWORD=8A3F2C"));
+
+        assertEquals(0, secretMigrationService.migrateSecrets());
+
+        verify(projectWidgetRepository, times(3))
+                .updateBackendConfig(1L, "PASSWORD=v2:migrated", "PASSWORD=8A3F2C");
+    }
+
+    @Test
+    void shouldContinueMigrationWhenSecretCannotBeEncryptedAgain() {
+        WidgetParam password = new WidgetParam();
+        password.setName("PASSWORD");
+        password.setType(DataTypeEnum.PASSWORD);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget corruptedProjectWidget = new ProjectWidget();
+        corruptedProjectWidget.setId(1L);
+        corruptedProjectWidget.setWidget(widget);
+        corruptedProjectWidget.setBackendConfig("PASSWORD=corrupted");
+
+        ProjectWidget legacyProjectWidget = new ProjectWidget();
+        legacyProjectWidget.setId(2L);
+        legacyProjectWidget.setWidget(widget);
+        legacyProjectWidget.setBackendConfig("PASSWORD=8A3F2C");
+
+        when(projectWidgetRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(projectWidgetRepository.findById(1L)).thenReturn(Optional.of(corruptedProjectWidget));
+        when(projectWidgetRepository.findById(2L)).thenReturn(Optional.of(legacyProjectWidget));
+        mockTransactionTemplate();
+        when(widgetService.getWidgetParametersWithCategoryParameters(widget)).thenReturn(List.of(password));
+        when(versionedStringEncryptor.isCurrent(anyString())).thenReturn(false);
+        when(versionedStringEncryptor.decrypt("corrupted"))
+                .thenThrow(new EncryptionOperationNotPossibleException());
+        when(versionedStringEncryptor.decrypt("8A3F2C")).thenReturn("secret");
+        when(versionedStringEncryptor.encrypt("secret")).thenReturn("v2:migrated");
+        when(projectWidgetRepository.updateBackendConfig(2L, "PASSWORD=v2:migrated", "PASSWORD=8A3F2C"))
+                .thenReturn(1);
+
+        assertEquals(1, secretMigrationService.migrateSecrets());
+
+        verify(projectWidgetRepository, never()).updateBackendConfig(eq(1L), anyString(), anyString());
+    }
+
+    private void mockTransactionTemplate() {
+        lenient()
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate)
+                .executeWithoutResult(any());
+        lenient()
+                .when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -22,6 +22,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,6 +43,8 @@ import com.michelin.suricate.model.enumeration.WidgetAvailabilityEnum;
 import com.michelin.suricate.repository.WidgetParamRepository;
 import com.michelin.suricate.repository.WidgetRepository;
 import com.michelin.suricate.service.specification.WidgetSearchSpecification;
+import com.michelin.suricate.util.http.CircuitBreakerInterceptor;
+import com.michelin.suricate.util.http.OkHttpClientUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -51,6 +55,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -549,4 +554,29 @@ class WidgetServiceTest {
 
         assertEquals("value", actual.get("key"));
     }
+
+    @Test
+    void shouldGetHostCircuitsSortedByHost() {
+        CircuitBreakerInterceptor circuitBreaker = mock(CircuitBreakerInterceptor.class);
+        CircuitBreakerInterceptor.HostCircuit first = mock(CircuitBreakerInterceptor.HostCircuit.class);
+        CircuitBreakerInterceptor.HostCircuit second = mock(CircuitBreakerInterceptor.HostCircuit.class);
+        when(first.getHost()).thenReturn("a.mocked.com");
+        when(second.getHost()).thenReturn("b.mocked.com");
+        when(circuitBreaker.getHostCircuits()).thenReturn(List.of(second, first));
+
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            mocked.when(OkHttpClientUtils::getCircuitBreaker).thenReturn(circuitBreaker);
+
+            assertEquals(List.of(first, second), widgetService.getHostCircuits());
+        }
+    }
+
+    @Test
+    void shouldGetNoHostCircuitsWhenCircuitBreakerDisabled() {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            mocked.when(OkHttpClientUtils::getCircuitBreaker).thenReturn(null);
+
+            assertTrue(widgetService.getHostCircuits().isEmpty());
+        }
+    }
 }
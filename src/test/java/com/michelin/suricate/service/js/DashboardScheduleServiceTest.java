@@ -18,19 +18,28 @@
  */
 package com.michelin.suricate.service.js;
 
+import static com.michelin.suricate.model.enumeration.UpdateType.PATCH_WIDGET;
 import static com.michelin.suricate.model.enumeration.UpdateType.REFRESH_WIDGET;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.michelin.suricate.model.dto.api.projectwidget.ProjectWidgetResponseDto;
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
 import com.michelin.suricate.model.dto.js.JsResultDto;
+import com.michelin.suricate.model.dto.websocket.ProjectWidgetPatchDto;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.enumeration.JsExecutionErrorTypeEnum;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.property.ApplicationProperties;
 import com.michelin.suricate.service.api.ProjectService;
 import com.michelin.suricate.service.api.ProjectWidgetService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
@@ -39,12 +48,16 @@ import com.michelin.suricate.service.websocket.DashboardWebSocketService;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.MessageDeliveryException;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardScheduleServiceTest {
@@ -69,9 +82,23 @@ class DashboardScheduleServiceTest {
     @Mock
     private ProjectService projectService;
 
+    @Spy
+    private ApplicationProperties applicationProperties;
+
+    @Spy
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private JsResultWriterService jsResultWriterService;
+
     @InjectMocks
     private DashboardScheduleService dashboardScheduleService;
 
+    @BeforeEach
+    void setUp() {
+        applicationProperties.setWidgets(new ApplicationProperties.Widgets());
+    }
+
     @Test
     void shouldProcessValidJsResult() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -95,7 +122,7 @@ class DashboardScheduleServiceTest {
         when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
         when(projectService.getTokenByProjectId(any())).thenReturn("token");
 
-        dashboardScheduleService.processJsResult(jsResultDto, jsExecutionScheduler);
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
 
         verify(projectWidgetService)
                 .updateWidgetInstanceAfterSucceededExecution(
@@ -113,6 +140,67 @@ class DashboardScheduleServiceTest {
                                 && event.getContent().equals(projectWidgetResponseDto)));
     }
 
+    @Test
+    void shouldOnlyUpdateExecutionDatesOfUnchangedJsResult() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLog("log");
+        jsResultDto.setLaunchDate(Date.from(Instant.parse("2000-01-01T01:00:00.00Z")));
+
+        when(jsExecutionScheduler.isUnchangedJsResult(any())).thenReturn(true);
+        when(jsExecutionScheduler.getNextJsExecution(any(), any())).thenReturn(jsExecutionDto);
+
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
+
+        verify(projectWidgetService)
+                .updateWidgetInstanceAfterUnchangedExecution(
+                        Date.from(Instant.parse("2000-01-01T01:00:00.00Z")), 1L, WidgetStateEnum.RUNNING);
+        verify(projectWidgetService, never())
+                .updateWidgetInstanceAfterSucceededExecution(any(), any(), any(), any(), any());
+        verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
+        verify(projectWidgetService, never()).getOne(any());
+        verify(dashboardWebSocketService, never()).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+    }
+
+    @Test
+    void shouldProcessValidJsResultFromExecutionPlan() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+
+        JsExecutionDto nextJsExecutionDto = new JsExecutionDto();
+        nextJsExecutionDto.setProjectId(1L);
+        nextJsExecutionDto.setPreviousData("{}");
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLog("log");
+        jsResultDto.setLaunchDate(Date.from(Instant.parse("2000-01-01T01:00:00.00Z")));
+
+        when(jsExecutionScheduler.getNextJsExecution(any(), any())).thenReturn(nextJsExecutionDto);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
+
+        verify(jsExecutionScheduler).getNextJsExecution(jsExecutionDto, jsResultDto);
+        verify(jsExecutionService, never()).getJsExecutionByProjectWidgetId(any());
+        verify(jsExecutionScheduler).schedule(nextJsExecutionDto, false);
+    }
+
     @Test
     void shouldProcessErrorJsResult() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -136,7 +224,7 @@ class DashboardScheduleServiceTest {
         when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
         when(projectService.getTokenByProjectId(any())).thenReturn("token");
 
-        dashboardScheduleService.processJsResult(jsResultDto, jsExecutionScheduler);
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
 
         verify(projectWidgetService)
                 .updateWidgetInstanceAfterFailedExecution(
@@ -175,7 +263,7 @@ class DashboardScheduleServiceTest {
         when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
         when(projectService.getTokenByProjectId(any())).thenReturn("token");
 
-        dashboardScheduleService.processJsResult(jsResultDto, jsExecutionScheduler);
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
 
         verify(projectWidgetService)
                 .updateWidgetInstanceAfterFailedExecution(
@@ -191,6 +279,110 @@ class DashboardScheduleServiceTest {
                                 && event.getContent().equals(projectWidgetResponseDto)));
     }
 
+    @Test
+    void shouldNotifyAfterWriteBehindOfJsResult() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLog("log");
+        jsResultDto.setLaunchDate(Date.from(Instant.parse("2000-01-01T01:00:00.00Z")));
+
+        CompletableFuture<Void> jsResultWritten = new CompletableFuture<>();
+        when(jsResultWriterService.write(any())).thenReturn(jsResultWritten);
+        when(jsExecutionScheduler.getNextJsExecution(any(), any())).thenReturn(jsExecutionDto);
+
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
+
+        verify(jsResultWriterService)
+                .write(argThat(write -> write.getProjectWidgetId().equals(1L)
+                        && write.isDataUpdated()
+                        && write.getData().equals("{}")
+                        && write.getLog().equals("log")
+                        && write.getState() == WidgetStateEnum.RUNNING));
+        verify(projectWidgetService, never())
+                .updateWidgetInstanceAfterSucceededExecution(any(), any(), any(), any(), any());
+        verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
+        verify(dashboardWebSocketService, never()).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+        when(applicationContext.getBean(DashboardScheduleService.class)).thenReturn(dashboardScheduleService);
+
+        jsResultWritten.complete(null);
+
+        verify(dashboardWebSocketService)
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"),
+                        eq(1L),
+                        argThat(event -> event.getType().equals(REFRESH_WIDGET)
+                                && event.getContent().equals(projectWidgetResponseDto)));
+    }
+
+    @Test
+    void shouldEvictJsResultHashWhenWriteBehindFails() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLaunchDate(Date.from(Instant.parse("2000-01-01T01:00:00.00Z")));
+
+        when(jsResultWriterService.write(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Database unavailable")));
+        when(jsExecutionScheduler.getNextJsExecution(any(), any())).thenReturn(jsExecutionDto);
+
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
+
+        verify(jsExecutionScheduler).evictJsResultHash(1L);
+        verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
+        verify(dashboardWebSocketService, never()).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+    }
+
+    @Test
+    void shouldRescheduleAfterCommitOfJsResult() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setRescheduleAfterCommit(true);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLaunchDate(Date.from(Instant.parse("2000-01-01T01:00:00.00Z")));
+
+        CompletableFuture<Void> jsResultWritten = new CompletableFuture<>();
+        when(jsResultWriterService.write(any())).thenReturn(jsResultWritten);
+        when(jsExecutionScheduler.getNextJsExecution(any(), any())).thenReturn(jsExecutionDto);
+
+        dashboardScheduleService.processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
+
+        verify(jsExecutionScheduler, never()).schedule(any(), anyBoolean());
+
+        jsResultWritten.completeExceptionally(new IllegalStateException("Database unavailable"));
+
+        verify(jsExecutionScheduler).evictJsResultHash(1L);
+        verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
+    }
+
     @Test
     void shouldUpdateWidgetInstanceNoJsResult() {
         ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
@@ -218,6 +410,52 @@ class DashboardScheduleServiceTest {
                                 && event.getContent().equals(projectWidgetResponseDto)));
     }
 
+    @Test
+    void shouldNotifyAfterWriteBehindOfNoJsResult() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+
+        CompletableFuture<Void> jsResultWritten = new CompletableFuture<>();
+        when(jsResultWriterService.write(any())).thenReturn(jsResultWritten);
+
+        dashboardScheduleService.updateWidgetInstanceNoJsResult("logs", 1L, 1L);
+
+        verify(jsResultWriterService)
+                .write(argThat(write -> write.getProjectWidgetId().equals(1L)
+                        && write.getLog().equals("logs")
+                        && write.getState() == WidgetStateEnum.STOPPED));
+        verify(dashboardWebSocketService, never()).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+        when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+        when(applicationContext.getBean(DashboardScheduleService.class)).thenReturn(dashboardScheduleService);
+
+        jsResultWritten.complete(null);
+
+        verify(dashboardWebSocketService)
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"),
+                        eq(1L),
+                        argThat(event -> event.getType().equals(REFRESH_WIDGET)
+                                && event.getContent().equals(projectWidgetResponseDto)));
+    }
+
+    @Test
+    void shouldNotNotifyWhenWriteBehindOfNoJsResultFails() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+
+        when(jsResultWriterService.write(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Database unavailable")));
+
+        dashboardScheduleService.updateWidgetInstanceNoJsResult("logs", 1L, 1L);
+
+        verify(applicationContext, never()).getBean(DashboardScheduleService.class);
+        verify(dashboardWebSocketService, never()).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+    }
+
     @Test
     void shouldSendWidgetUpdateNotification() {
         ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
@@ -256,4 +494,107 @@ class DashboardScheduleServiceTest {
         verify(jsExecutionService).getJsExecutionByProjectWidgetId(1L);
         verify(jsExecutionScheduler).cancelAndScheduleJsExecution(jsExecutionDto);
     }
+
+    @Test
+    void shouldSendWidgetPatches() {
+        applicationProperties.getWidgets().getDeltaUpdate().setEnabled(true);
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+        projectWidgetResponseDto.setData("{\"value\":1,\"title\":\"Title\"}");
+        projectWidgetResponseDto.setInstantiateHtml("<div>\n<h1>1</h1>\n</div>");
+        projectWidgetResponseDto.setState(WidgetStateEnum.RUNNING);
+
+        ProjectWidgetResponseDto changedProjectWidgetResponseDto = new ProjectWidgetResponseDto();
+        changedProjectWidgetResponseDto.setId(1L);
+        changedProjectWidgetResponseDto.setData("{\"value\":2,\"title\":\"Title\"}");
+        changedProjectWidgetResponseDto.setInstantiateHtml("<div>\n<h1>2</h1>\n</div>");
+        changedProjectWidgetResponseDto.setState(WidgetStateEnum.RUNNING);
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+        when(projectWidgetMapper.toProjectWidgetDto(any()))
+                .thenReturn(projectWidgetResponseDto, changedProjectWidgetResponseDto, changedProjectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+
+        verify(dashboardWebSocketService)
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"),
+                        eq(1L),
+                        argThat(event -> event.getType().equals(REFRESH_WIDGET)
+                                && event.getContent().equals(projectWidgetResponseDto)));
+        verify(dashboardWebSocketService)
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"),
+                        eq(1L),
+                        argThat(event -> event.getType().equals(PATCH_WIDGET)
+                                && event.getContent() instanceof ProjectWidgetPatchDto patch
+                                && patch.getSequence() == 1L
+                                && patch.getPatch().size() == 2
+                                && patch.getPatch().get(0).get("path").asText().equals("/data/value")
+                                && patch.getPatch().get(0).get("value").asInt() == 2
+                                && patch.getPatch().get(1).get("path").asText().equals("/instantiateHtml/1")
+                                && patch.getPatch().get(1).get("value").asText().equals("<h1>2</h1>")));
+        verify(dashboardWebSocketService, times(2)).sendEventToWidgetInstanceSubscribers(any(), any(), any());
+    }
+
+    @Test
+    void shouldResendWidgetPatchWithSameSequenceWhenSendingFails() {
+        applicationProperties.getWidgets().getDeltaUpdate().setEnabled(true);
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+        projectWidgetResponseDto.setData("{\"value\":1}");
+
+        ProjectWidgetResponseDto changedProjectWidgetResponseDto = new ProjectWidgetResponseDto();
+        changedProjectWidgetResponseDto.setId(1L);
+        changedProjectWidgetResponseDto.setData("{\"value\":2}");
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+        when(projectWidgetMapper.toProjectWidgetDto(any()))
+                .thenReturn(projectWidgetResponseDto, changedProjectWidgetResponseDto, changedProjectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+        doNothing()
+                .doThrow(new MessageDeliveryException("Cannot send"))
+                .doNothing()
+                .when(dashboardWebSocketService)
+                .sendEventToWidgetInstanceSubscribers(any(), any(), any());
+
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+        assertThrows(
+                MessageDeliveryException.class, () -> dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L));
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+
+        verify(dashboardWebSocketService, times(2))
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"),
+                        eq(1L),
+                        argThat(event -> event.getType().equals(PATCH_WIDGET)
+                                && event.getContent() instanceof ProjectWidgetPatchDto patch
+                                && patch.getSequence() == 1L));
+    }
+
+    @Test
+    void shouldRefreshWidgetAfterEviction() {
+        applicationProperties.getWidgets().getDeltaUpdate().setEnabled(true);
+
+        ProjectWidgetResponseDto projectWidgetResponseDto = new ProjectWidgetResponseDto();
+        projectWidgetResponseDto.setId(1L);
+        projectWidgetResponseDto.setData("{\"value\":1}");
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+        when(projectWidgetMapper.toProjectWidgetDto(any())).thenReturn(projectWidgetResponseDto);
+        when(projectService.getTokenByProjectId(any())).thenReturn("token");
+
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+        dashboardScheduleService.evictSentProjectWidget(1L);
+        dashboardScheduleService.sendWidgetUpdateNotification(1L, 1L);
+
+        verify(dashboardWebSocketService, times(2))
+                .sendEventToWidgetInstanceSubscribers(
+                        eq("token"), eq(1L), argThat(event -> event.getType().equals(REFRESH_WIDGET)));
+    }
 }
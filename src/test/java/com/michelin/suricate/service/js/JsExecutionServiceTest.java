@@ -41,6 +41,8 @@ import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -153,6 +155,7 @@ class JsExecutionServiceTest {
         assertEquals(15L, actual.getTimeout());
         assertEquals(WidgetStateEnum.RUNNING, actual.getWidgetState());
         assertTrue(actual.isAlreadySuccess());
+        assertFalse(actual.isAdaptiveDelay());
     }
 
     @Test
@@ -198,6 +201,73 @@ class JsExecutionServiceTest {
         assertEquals(15L, actual.getTimeout());
         assertEquals(WidgetStateEnum.RUNNING, actual.getWidgetState());
         assertTrue(actual.isAlreadySuccess());
+        assertFalse(actual.isAdaptiveDelay());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"true,key=value,true", "false,SURI_ADAPTIVE_DELAY=true,true", "false,SURI_ADAPTIVE_DELAY=false,false"})
+    void shouldGetJsExecutionByProjectWidgetIdWithAdaptiveDelay(
+            boolean widgetAdaptiveDelay, String backendConfig, boolean expected) {
+        Category category = new Category();
+        category.setId(1L);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+        widget.setCategory(category);
+        widget.setBackendJs("backendJs");
+        widget.setDelay(10L);
+        widget.setAdaptiveDelay(widgetAdaptiveDelay);
+
+        Project project = new Project();
+        project.setId(1L);
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(1L);
+        projectGrid.setProject(project);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+        projectWidget.setBackendConfig(backendConfig);
+        projectWidget.setProjectGrid(projectGrid);
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+
+        JsExecutionDto actual = jsExecutionService.getJsExecutionByProjectWidgetId(1L);
+
+        assertEquals(expected, actual.isAdaptiveDelay());
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {"null,null", "0,2", "1,2", "2,2", "2048,2048"}, nullValues = "null")
+    void shouldGetJsExecutionByProjectWidgetIdWithOutputCapacity(Integer outputCapacity, Integer expected) {
+        Category category = new Category();
+        category.setId(1L);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+        widget.setCategory(category);
+        widget.setBackendJs("backendJs");
+        widget.setDelay(10L);
+        widget.setOutputCapacity(outputCapacity);
+
+        Project project = new Project();
+        project.setId(1L);
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(1L);
+        projectGrid.setProject(project);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+        projectWidget.setProjectGrid(projectGrid);
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+
+        JsExecutionDto actual = jsExecutionService.getJsExecutionByProjectWidgetId(1L);
+
+        assertEquals(expected, actual.getOutputCapacity());
     }
 
     @Test
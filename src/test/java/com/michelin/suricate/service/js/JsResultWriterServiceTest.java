@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.michelin.suricate.model.dto.js.JsResultWriteDto;
+import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.property.ApplicationProperties;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class JsResultWriterServiceTest {
+    private static final Date FIRST_EXECUTION_DATE = Date.from(Instant.parse("2000-01-01T01:00:00.00Z"));
+    private static final Date SECOND_EXECUTION_DATE = Date.from(Instant.parse("2000-01-01T01:01:00.00Z"));
+
+    @Spy
+    private ApplicationProperties applicationProperties;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private JsResultWriterService jsResultWriterService;
+
+    private final List<PreparedStatement> preparedStatements = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties.setWidgets(new ApplicationProperties.Widgets());
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setFlushInterval(60000);
+    }
+
+    @Test
+    void shouldWriteImmediatelyWhenNotStarted() throws SQLException {
+        mockTransactionTemplate();
+        mockBatchUpdate();
+
+        CompletableFuture<Void> future = jsResultWriterService.write(
+                JsResultWriteDto.succeeded(FIRST_EXECUTION_DATE, "log", "data", 1L, WidgetStateEnum.RUNNING));
+
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+        assertEquals(1, preparedStatements.size());
+
+        PreparedStatement preparedStatement = preparedStatements.getFirst();
+        verify(preparedStatement).setTimestamp(1, new Timestamp(FIRST_EXECUTION_DATE.getTime()));
+        verify(preparedStatement).setTimestamp(2, new Timestamp(FIRST_EXECUTION_DATE.getTime()));
+        verify(preparedStatement).setString(3, "RUNNING");
+        verify(preparedStatement).setBoolean(4, true);
+        verify(preparedStatement).setString(5, "log");
+        verify(preparedStatement).setBoolean(6, true);
+        verify(preparedStatement).setString(7, "data");
+        verify(preparedStatement).setLong(8, 1L);
+    }
+
+    @Test
+    void shouldMergePendingWritesOfSameWidgetInstance() throws SQLException {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        jsResultWriterService.init();
+
+        try {
+            CompletableFuture<Void> succeeded = jsResultWriterService.write(
+                    JsResultWriteDto.succeeded(FIRST_EXECUTION_DATE, "log", "data", 1L, WidgetStateEnum.RUNNING));
+            CompletableFuture<Void> failed = jsResultWriterService.write(
+                    JsResultWriteDto.failed(SECOND_EXECUTION_DATE, "error", 1L, WidgetStateEnum.WARNING));
+            CompletableFuture<Void> otherUnchanged = jsResultWriterService.write(
+                    JsResultWriteDto.unchanged(SECOND_EXECUTION_DATE, 2L, WidgetStateEnum.RUNNING));
+
+            assertSame(succeeded, failed);
+            assertFalse(succeeded.isDone());
+            assertFalse(otherUnchanged.isDone());
+
+            mockTransactionTemplate();
+            mockBatchUpdate();
+
+            assertEquals(2, jsResultWriterService.flush());
+            assertDoesNotThrow(() -> succeeded.get(1, TimeUnit.SECONDS));
+            assertDoesNotThrow(() -> otherUnchanged.get(1, TimeUnit.SECONDS));
+            assertEquals(2, preparedStatements.size());
+
+            PreparedStatement merged = preparedStatements.getFirst();
+            verify(merged).setTimestamp(1, new Timestamp(SECOND_EXECUTION_DATE.getTime()));
+            verify(merged).setTimestamp(2, new Timestamp(FIRST_EXECUTION_DATE.getTime()));
+            verify(merged).setString(3, "WARNING");
+            verify(merged).setBoolean(4, true);
+            verify(merged).setString(5, "error");
+            verify(merged).setBoolean(6, true);
+            verify(merged).setString(7, "data");
+            verify(merged).setLong(8, 1L);
+
+            PreparedStatement unchanged = preparedStatements.get(1);
+            verify(unchanged).setTimestamp(1, new Timestamp(SECOND_EXECUTION_DATE.getTime()));
+            verify(unchanged).setTimestamp(2, new Timestamp(SECOND_EXECUTION_DATE.getTime()));
+            verify(unchanged).setBoolean(4, false);
+            verify(unchanged).setBoolean(6, false);
+            verify(unchanged).setLong(8, 2L);
+
+            assertEquals(0, jsResultWriterService.flush());
+        } finally {
+            jsResultWriterService.destroy();
+        }
+    }
+
+    @Test
+    void shouldCompleteOnCallbackThreadOutsideTransaction() throws Exception {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        jsResultWriterService.init();
+
+        try {
+            CompletableFuture<String> callbackThreadName = jsResultWriterService
+                    .write(JsResultWriteDto.unchanged(FIRST_EXECUTION_DATE, 1L, WidgetStateEnum.RUNNING))
+                    .thenApply(ignored -> Thread.currentThread().getName());
+
+            mockTransactionTemplate();
+            mockBatchUpdate();
+
+            assertEquals(1, jsResultWriterService.flush());
+            assertTrue(callbackThreadName.get(1, TimeUnit.SECONDS).startsWith("js-result-callback-"));
+            verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        } finally {
+            jsResultWriterService.destroy();
+        }
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenFlushFails() {
+        mockTransactionTemplate();
+        doThrow(new IllegalStateException("Database unavailable"))
+                .when(jdbcTemplate)
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        CompletableFuture<Void> future = jsResultWriterService.write(
+                JsResultWriteDto.failed(FIRST_EXECUTION_DATE, "error", 1L, WidgetStateEnum.WARNING));
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void shouldRetryFailedWritesWithNextFlush() throws SQLException {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        jsResultWriterService.init();
+
+        try {
+            CompletableFuture<Void> failed = jsResultWriterService.write(
+                    JsResultWriteDto.succeeded(FIRST_EXECUTION_DATE, "log", "data", 1L, WidgetStateEnum.RUNNING));
+            List<CompletableFuture<Void>> later = new ArrayList<>();
+
+            mockTransactionTemplate();
+            doAnswer(invocation -> {
+                        later.add(jsResultWriterService.write(
+                                JsResultWriteDto.unchanged(SECOND_EXECUTION_DATE, 1L, WidgetStateEnum.RUNNING)));
+                        throw new IllegalStateException("Database unavailable");
+                    })
+                    .when(jdbcTemplate)
+                    .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+            assertEquals(0, jsResultWriterService.flush());
+            assertFalse(failed.isDone());
+            assertFalse(later.getFirst().isDone());
+
+            mockBatchUpdate();
+
+            assertEquals(1, jsResultWriterService.flush());
+            assertDoesNotThrow(() -> failed.get(1, TimeUnit.SECONDS));
+            assertDoesNotThrow(() -> later.getFirst().get(1, TimeUnit.SECONDS));
+
+            PreparedStatement merged = preparedStatements.getFirst();
+            verify(merged).setTimestamp(1, new Timestamp(SECOND_EXECUTION_DATE.getTime()));
+            verify(merged).setBoolean(6, true);
+            verify(merged).setString(7, "data");
+        } finally {
+            jsResultWriterService.destroy();
+        }
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenRetriesAreExhausted() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setMaxRetries(1);
+        jsResultWriterService.init();
+
+        try {
+            CompletableFuture<Void> future = jsResultWriterService.write(
+                    JsResultWriteDto.failed(FIRST_EXECUTION_DATE, "error", 1L, WidgetStateEnum.WARNING));
+
+            mockTransactionTemplate();
+            doThrow(new IllegalStateException("Database unavailable"))
+                    .when(jdbcTemplate)
+                    .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+            assertEquals(0, jsResultWriterService.flush());
+            assertFalse(future.isDone());
+
+            assertEquals(0, jsResultWriterService.flush());
+            assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            assertEquals(0, jsResultWriterService.flush());
+        } finally {
+            jsResultWriterService.destroy();
+        }
+    }
+
+    @Test
+    void shouldFlushOnShutdown() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        jsResultWriterService.init();
+
+        CompletableFuture<Void> future = jsResultWriterService.write(
+                JsResultWriteDto.unchanged(FIRST_EXECUTION_DATE, 1L, WidgetStateEnum.RUNNING));
+
+        mockTransactionTemplate();
+        mockBatchUpdate();
+
+        jsResultWriterService.destroy();
+
+        assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS));
+        assertEquals(1, preparedStatements.size());
+    }
+
+    @Test
+    void shouldDropPendingWritesOnShutdown() {
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setEnabled(true);
+        applicationProperties.getWidgets().getExecution().getWriteBehind().setFlushOnShutdown(false);
+        jsResultWriterService.init();
+
+        CompletableFuture<Void> future = jsResultWriterService.write(
+                JsResultWriteDto.unchanged(FIRST_EXECUTION_DATE, 1L, WidgetStateEnum.RUNNING));
+
+        jsResultWriterService.destroy();
+
+        assertTrue(future.isCancelled());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    private void mockTransactionTemplate() {
+        doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate)
+                .executeWithoutResult(any());
+    }
+
+    private void mockBatchUpdate() {
+        doAnswer(invocation -> {
+                    Collection<Object> items = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    for (Object item : items) {
+                        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+                        setter.setValues(preparedStatement, item);
+                        preparedStatements.add(preparedStatement);
+                    }
+                    return new int[][] {};
+                })
+                .when(jdbcTemplate)
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+}
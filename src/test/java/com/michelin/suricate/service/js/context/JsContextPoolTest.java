@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.michelin.suricate.util.exception.js.NoRunFunctionException;
+import java.time.Duration;
+import java.util.Map;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class JsContextPoolTest {
+    private final Engine engine = Engine.newBuilder("js")
+            .option("engine.WarnInterpreterOnly", "false")
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        engine.close(true);
+    }
+
+    @Test
+    void shouldReuseReleasedContext() {
+        try (JsContextPool contextPool = new JsContextPool(
+                engine, source("function run() { return JSON.stringify({value: SURI_VALUE}); }"), Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+            context.bind(Map.of("SURI_VALUE", "first"));
+
+            assertEquals("{\"value\":\"first\"}", context.run().asString());
+            assertTrue(context.isPooled());
+
+            contextPool.release(context);
+
+            PooledJsContext reusedContext = contextPool.borrow();
+            reusedContext.bind(Map.of("SURI_VALUE", "second"));
+
+            assertSame(context, reusedContext);
+            assertEquals("{\"value\":\"second\"}", reusedContext.run().asString());
+        }
+    }
+
+    @Test
+    void shouldCreateTransientContextWhenPoolIsExhausted() {
+        try (JsContextPool contextPool =
+                new JsContextPool(engine, source("function run() { return '{}'; }"), Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+            PooledJsContext transientContext = contextPool.borrow();
+
+            assertTrue(context.isPooled());
+            assertFalse(transientContext.isPooled());
+            assertNotSame(context, transientContext);
+
+            contextPool.release(transientContext);
+            contextPool.release(context);
+
+            assertSame(context, contextPool.borrow());
+        }
+    }
+
+    @Test
+    void shouldNotReuseInvalidatedContext() {
+        try (JsContextPool contextPool =
+                new JsContextPool(engine, source("function run() { return '{}'; }"), Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+
+            contextPool.invalidate(context);
+
+            PooledJsContext newContext = contextPool.borrow();
+
+            assertNotSame(context, newContext);
+            assertTrue(newContext.isPooled());
+        }
+    }
+
+    @Test
+    void shouldEvictIdleContexts() {
+        try (JsContextPool contextPool =
+                new JsContextPool(engine, source("function run() { return '{}'; }"), Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+
+            assertFalse(contextPool.evictIdleContexts());
+
+            contextPool.release(context);
+
+            assertTrue(contextPool.evictIdleContexts());
+            assertNotSame(context, contextPool.borrow());
+        }
+    }
+
+    @Test
+    void shouldThrowNoRunFunctionException() {
+        try (JsContextPool contextPool = new JsContextPool(engine, source("var a = 1;"), Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+
+            assertThrows(NoRunFunctionException.class, () -> context.bind(Map.of()));
+
+            contextPool.invalidate(context);
+
+            assertTrue(contextPool.evictIdleContexts());
+        }
+    }
+
+    @Test
+    void shouldEvaluateScriptAfterBindingMembers() {
+        try (JsContextPool contextPool = new JsContextPool(
+                engine,
+                source("var url = SURI_URL; var count = 0; function run() {"
+                        + " count++; return JSON.stringify({url: url, count: count, value: SURI_VALUE}); }"),
+                Duration.ZERO)) {
+            PooledJsContext context = contextPool.borrow();
+            context.bind(Map.of("SURI_URL", "https://first", "SURI_VALUE", "first"));
+
+            assertEquals("{\"url\":\"https://first\",\"count\":1,\"value\":\"first\"}", context.run().asString());
+
+            contextPool.release(context);
+
+            PooledJsContext reusedContext = contextPool.borrow();
+            reusedContext.bind(Map.of("SURI_URL", "https://second", "SURI_VALUE", "second"));
+
+            assertEquals(
+                    "{\"url\":\"https://first\",\"count\":2,\"value\":\"second\"}",
+                    reusedContext.run().asString());
+        }
+    }
+
+    private Source source(String script) {
+        return Source.create("js", script);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HandoffJsTaskExecutorTest {
+    private final JsTimer timer = new ScheduledExecutorJsTimer();
+
+    private final HandoffJsTaskExecutor executor = new HandoffJsTaskExecutor(
+            timer, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory()), 2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        timer.stop();
+    }
+
+    @Test
+    void shouldRunTaskOnVirtualThread() throws Exception {
+        ScheduledFuture<Boolean> future =
+                executor.schedule(() -> Thread.currentThread().isVirtual(), 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(future.get(5, TimeUnit.SECONDS));
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    void shouldNotRunCanceledTask() throws Exception {
+        AtomicBoolean executed = new AtomicBoolean();
+
+        ScheduledFuture<Boolean> future = executor.schedule(() -> executed.getAndSet(true), 1, TimeUnit.SECONDS);
+
+        assertTrue(future.getDelay(TimeUnit.MILLISECONDS) > 0);
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        assertThrows(CancellationException.class, future::get);
+
+        executor.schedule(() -> null, 0, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+
+        assertFalse(executed.get());
+    }
+
+    @Test
+    void shouldInterruptRunningTaskWhenCanceled() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        ScheduledFuture<Void> future = executor.schedule(
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                },
+                0,
+                TimeUnit.MILLISECONDS);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldLimitConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ScheduledFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.schedule(
+                    () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(20);
+                        running.decrementAndGet();
+                        return null;
+                    },
+                    0,
+                    TimeUnit.MILLISECONDS));
+        }
+
+        for (ScheduledFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void shouldRunPeriodicTaskUntilShutdown() throws Exception {
+        CountDownLatch executions = new CountDownLatch(3);
+
+        executor.scheduleWithFixedDelay(executions::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(executions.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelJsTimerTest {
+    private final HashedWheelJsTimer timer = new HashedWheelJsTimer("test-timer", Duration.ofMillis(10), 8);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void shouldExpireTimeout() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        JsTimeout timeout = timer.schedule(expired::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.getDelay(TimeUnit.MILLISECONDS) > 0);
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertFalse(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void shouldExpireTimeoutsAfterSeveralRounds() throws InterruptedException {
+        List<Integer> expirations = new CopyOnWriteArrayList<>();
+        CountDownLatch expired = new CountDownLatch(3);
+
+        // The wheel covers 80 ms, so these timeouts go around it several times
+        timer.schedule(
+                () -> {
+                    expirations.add(250);
+                    expired.countDown();
+                },
+                250,
+                TimeUnit.MILLISECONDS);
+        timer.schedule(
+                () -> {
+                    expirations.add(90);
+                    expired.countDown();
+                },
+                90,
+                TimeUnit.MILLISECONDS);
+        timer.schedule(
+                () -> {
+                    expirations.add(0);
+                    expired.countDown();
+                },
+                0,
+                TimeUnit.MILLISECONDS);
+
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 90, 250), expirations);
+    }
+
+    @Test
+    void shouldNotExpireCanceledTimeout() throws InterruptedException {
+        AtomicBoolean expired = new AtomicBoolean();
+        CountDownLatch nextExpired = new CountDownLatch(1);
+
+        JsTimeout timeout = timer.schedule(() -> expired.set(true), 30, TimeUnit.MILLISECONDS);
+        timer.schedule(nextExpired::countDown, 60, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertTrue(nextExpired.await(5, TimeUnit.SECONDS));
+        assertFalse(expired.get());
+    }
+
+    @Test
+    void shouldKeepExpiringTimeoutsWhenTaskFails() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+
+        timer.schedule(
+                () -> {
+                    throw new IllegalStateException("error");
+                },
+                0,
+                TimeUnit.MILLISECONDS);
+        timer.schedule(expired::countDown, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRejectTimeoutWhenStopped() {
+        timer.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> timer.schedule(() -> {}, 0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        Duration zero = Duration.ZERO;
+        Duration tick = Duration.ofMillis(10);
+
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelJsTimer("test-timer", zero, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelJsTimer("test-timer", tick, 0));
+    }
+}
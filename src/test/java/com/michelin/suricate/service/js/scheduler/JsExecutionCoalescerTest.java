@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.js.JsResultDto;
+import com.michelin.suricate.service.js.executor.JsTimer;
+import com.michelin.suricate.service.js.executor.ScheduledExecutorJsTimer;
+import com.michelin.suricate.util.PropertiesUtils;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class JsExecutionCoalescerTest {
+    private final JsTimer timer = new ScheduledExecutorJsTimer();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void shouldShareResultWithinWindow() {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+
+        JsResultDto first = coalescer.execute(jsExecution(1L), properties("key=value"), this::execute);
+        JsResultDto second = coalescer.execute(jsExecution(2L), properties("key=value"), this::execute);
+
+        assertEquals(1, executions.get());
+        assertEquals("{}", second.getData());
+        assertEquals(first.getLaunchDate(), second.getLaunchDate());
+        assertEquals(1L, first.getProjectWidgetId());
+        assertEquals(2L, second.getProjectWidgetId());
+        assertEquals(2L, second.getProjectId());
+    }
+
+    @Test
+    void shouldShareResultOfRunningExecution() throws Exception {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<JsResultDto> first = CompletableFuture.supplyAsync(
+                () -> coalescer.execute(jsExecution(1L), properties("key=value"), () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return execute();
+                }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<JsResultDto> second =
+                CompletableFuture.supplyAsync(() -> coalescer.execute(
+                        jsExecution(2L), properties("key=value"), this::execute));
+
+        release.countDown();
+
+        assertEquals("{}", first.get(5, TimeUnit.SECONDS).getData());
+        assertEquals("{}", second.get(5, TimeUnit.SECONDS).getData());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldNotShareResultAfterWindow() throws InterruptedException {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ZERO);
+
+        coalescer.execute(jsExecution(1L), properties("key=value"), this::execute);
+
+        Thread.sleep(100);
+
+        coalescer.execute(jsExecution(2L), properties("key=value"), this::execute);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void shouldNotShareResultOfInterruptedExecution() {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+
+        coalescer.execute(jsExecution(1L), properties("key=value"), JsResultDto::new);
+        JsResultDto second = coalescer.execute(jsExecution(2L), properties("key=value"), this::execute);
+
+        assertEquals(1, executions.get());
+        assertEquals("{}", second.getData());
+    }
+
+    @Test
+    void shouldRunOwnExecutionWhenSharedOneFails() {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+        Supplier<JsResultDto> failure = () -> {
+            throw new IllegalStateException("error");
+        };
+
+        JsExecutionDto first = jsExecution(1L);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(first, properties("key=value"), failure));
+
+        coalescer.execute(jsExecution(2L), properties("key=value"), this::execute);
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldBuildKeyFromScriptAndEffectiveProperties() {
+        String key = JsExecutionCoalescer.getKey(jsExecution(1L), properties("a=1\nb=2"));
+
+        assertNotNull(key);
+        assertEquals(key, JsExecutionCoalescer.getKey(jsExecution(2L), properties("b=2\na=1")));
+        assertNotEquals(key, JsExecutionCoalescer.getKey(jsExecution(2L), properties("a=1\nb=3")));
+
+        JsExecutionDto alreadySuccess = jsExecution(2L);
+        alreadySuccess.setAlreadySuccess(true);
+
+        assertNotEquals(key, JsExecutionCoalescer.getKey(alreadySuccess, properties("a=1\nb=2")));
+
+        JsExecutionDto otherPreviousData = jsExecution(2L);
+        otherPreviousData.setPreviousData("{\"value\":1}");
+
+        assertEquals(key, JsExecutionCoalescer.getKey(otherPreviousData, properties("a=1\nb=2")));
+    }
+
+    @Test
+    void shouldBuildKeyFromDecryptedSecrets() {
+        JsExecutionDto first = jsExecution(1L);
+        first.setProperties("secret=firstCiphertext");
+
+        JsExecutionDto second = jsExecution(2L);
+        second.setProperties("secret=secondCiphertext");
+
+        assertEquals(
+                JsExecutionCoalescer.getKey(first, properties("secret=decrypted")),
+                JsExecutionCoalescer.getKey(second, properties("secret=decrypted")));
+        assertNotEquals(
+                JsExecutionCoalescer.getKey(first, properties("secret=decrypted")),
+                JsExecutionCoalescer.getKey(second, properties("secret=other")));
+    }
+
+    @Test
+    void shouldNotCoalesceWhenPropertiesCannotBeResolved() {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+        Supplier<Map<String, String>> failure = () -> {
+            throw new IllegalStateException("Cannot decrypt");
+        };
+
+        assertNull(JsExecutionCoalescer.getKey(jsExecution(1L), failure));
+
+        coalescer.execute(jsExecution(1L), failure, this::execute);
+        coalescer.execute(jsExecution(2L), failure, this::execute);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void shouldBuildKeyFromPreviousDataWhenReadByScript() {
+        JsExecutionDto jsExecutionDto = jsExecution(1L);
+        jsExecutionDto.setScript("function run() { return SURI_PREVIOUS; }");
+
+        JsExecutionDto otherPreviousData = jsExecution(2L);
+        otherPreviousData.setScript("function run() { return SURI_PREVIOUS; }");
+        otherPreviousData.setPreviousData("{\"value\":1}");
+
+        assertNotEquals(
+                JsExecutionCoalescer.getKey(jsExecutionDto, properties("a=1")),
+                JsExecutionCoalescer.getKey(otherPreviousData, properties("a=1")));
+    }
+
+    @Test
+    void shouldNotCoalesceScriptReadingInstanceId() {
+        JsExecutionCoalescer coalescer = new JsExecutionCoalescer(timer, Duration.ofMinutes(1));
+
+        JsExecutionDto first = jsExecution(1L);
+        first.setScript("function run() { return JSON.stringify({id: SURI_INSTANCE_ID}); }");
+
+        JsExecutionDto second = jsExecution(2L);
+        second.setScript(first.getScript());
+
+        assertNull(JsExecutionCoalescer.getKey(first, properties("a=1")));
+
+        coalescer.execute(first, properties("a=1"), this::execute);
+        coalescer.execute(second, properties("a=1"), this::execute);
+
+        assertEquals(2, executions.get());
+    }
+
+    private JsResultDto execute() {
+        executions.incrementAndGet();
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setData("{}");
+        jsResultDto.setLaunchDate(new Date());
+        return jsResultDto;
+    }
+
+    private JsExecutionDto jsExecution(Long projectWidgetId) {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(projectWidgetId);
+        jsExecutionDto.setProjectWidgetId(projectWidgetId);
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+        return jsExecutionDto;
+    }
+
+    private Supplier<Map<String, String>> properties(String properties) {
+        return () -> PropertiesUtils.convertStringWidgetPropertiesToMap(properties);
+    }
+}
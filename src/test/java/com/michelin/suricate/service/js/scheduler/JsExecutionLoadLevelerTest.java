@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class JsExecutionLoadLevelerTest {
+    @Test
+    void shouldGetStablePhaseOffset() {
+        JsExecutionLoadLeveler loadLeveler = new JsExecutionLoadLeveler(Duration.ofSeconds(10));
+
+        long phaseOffset = loadLeveler.getPhaseOffset(1L, 30000L);
+
+        assertEquals(phaseOffset, loadLeveler.getPhaseOffset(1L, 30000L));
+        assertTrue(phaseOffset >= 0 && phaseOffset < 30000L);
+    }
+
+    @Test
+    void shouldAlignNextExecutionOnPhase() {
+        for (long now = 0; now < 60000L; now += 1234L) {
+            JsExecutionLoadLeveler loadLeveler = new JsExecutionLoadLeveler(
+                    Duration.ofSeconds(10), Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+
+            long phaseOffset = loadLeveler.getPhaseOffset(1L, 30000L);
+            long delay = loadLeveler.getNextExecutionDelay(1L, Duration.ofSeconds(30));
+
+            assertEquals(phaseOffset, (now + delay) % 30000L);
+            assertTrue(delay >= 15000L && delay < 45000L);
+        }
+    }
+
+    @Test
+    void shouldNotAlignWithoutPeriod() {
+        JsExecutionLoadLeveler loadLeveler = new JsExecutionLoadLeveler(Duration.ofSeconds(10));
+
+        assertEquals(0L, loadLeveler.getNextExecutionDelay(1L, Duration.ZERO));
+        assertEquals(30000L, loadLeveler.getNextExecutionDelay(null, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void shouldSpreadInitialExecutions() {
+        JsExecutionLoadLeveler loadLeveler = new JsExecutionLoadLeveler(Duration.ofSeconds(10));
+
+        assertEquals(0L, loadLeveler.getInitialExecutionSpread(0, 1));
+        assertEquals(0L, loadLeveler.getInitialExecutionSpread(0, 4));
+        assertEquals(2500L, loadLeveler.getInitialExecutionSpread(1, 4));
+        assertEquals(7500L, loadLeveler.getInitialExecutionSpread(3, 4));
+    }
+}
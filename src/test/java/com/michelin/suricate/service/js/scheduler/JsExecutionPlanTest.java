@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.service.js.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
+import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.util.SecretMasker;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JsExecutionPlanTest {
+    @Test
+    void shouldBuildJsExecutionPlan() {
+        WidgetVariableResponseDto widgetVariableResponseDto = new WidgetVariableResponseDto();
+        widgetVariableResponseDto.setName("name");
+
+        JsExecutionPlan jsExecutionPlan =
+                new JsExecutionPlan(jsExecutionDto(), 2L, 3L, Collections.singletonList(widgetVariableResponseDto));
+
+        assertEquals(1L, jsExecutionPlan.getProjectId());
+        assertEquals(1L, jsExecutionPlan.getProjectWidgetId());
+        assertEquals(2L, jsExecutionPlan.getWidgetId());
+        assertEquals(3L, jsExecutionPlan.getProjectGridId());
+        assertEquals("value", jsExecutionPlan.getWidgetProperties().get("param"));
+        assertEquals(List.of(widgetVariableResponseDto), jsExecutionPlan.getWidgetParameters());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> jsExecutionPlan.getWidgetProperties().put("other", "value"));
+    }
+
+    @Test
+    void shouldMatchSameConfiguration() {
+        JsExecutionPlan jsExecutionPlan = new JsExecutionPlan(jsExecutionDto(), 2L, 3L, null);
+
+        JsExecutionDto sameConfiguration = jsExecutionDto();
+        sameConfiguration.setPreviousData("{}");
+        sameConfiguration.setWidgetState(WidgetStateEnum.WARNING);
+
+        JsExecutionDto otherScript = jsExecutionDto();
+        otherScript.setScript("function run() { return '[]'; }");
+
+        JsExecutionDto otherDelay = jsExecutionDto();
+        otherDelay.setDelay(20L);
+
+        JsExecutionDto otherAdaptiveDelay = jsExecutionDto();
+        otherAdaptiveDelay.setAdaptiveDelay(true);
+
+        JsExecutionDto otherOutputCapacity = jsExecutionDto();
+        otherOutputCapacity.setOutputCapacity(2048);
+
+        assertTrue(jsExecutionPlan.getWidgetParameters().isEmpty());
+        assertTrue(jsExecutionPlan.matches(sameConfiguration));
+        assertFalse(jsExecutionPlan.matches(otherScript));
+        assertFalse(jsExecutionPlan.matches(otherDelay));
+        assertFalse(jsExecutionPlan.matches(otherAdaptiveDelay));
+        assertFalse(jsExecutionPlan.matches(otherOutputCapacity));
+    }
+
+    @Test
+    void shouldCreateNewJsExecution() {
+        JsExecutionPlan jsExecutionPlan = new JsExecutionPlan(jsExecutionDto(), 2L, 3L, null);
+
+        JsExecutionDto jsExecutionDto = jsExecutionPlan.newJsExecution("{}", WidgetStateEnum.RUNNING, true);
+
+        assertEquals("param=value", jsExecutionDto.getProperties());
+        assertEquals("function run() { return '{}'; }", jsExecutionDto.getScript());
+        assertEquals("{}", jsExecutionDto.getPreviousData());
+        assertEquals(1L, jsExecutionDto.getProjectId());
+        assertEquals(1L, jsExecutionDto.getProjectWidgetId());
+        assertEquals(10L, jsExecutionDto.getDelay());
+        assertEquals(30L, jsExecutionDto.getTimeout());
+        assertEquals(1024, jsExecutionDto.getOutputCapacity());
+        assertEquals(WidgetStateEnum.RUNNING, jsExecutionDto.getWidgetState());
+        assertTrue(jsExecutionDto.isAlreadySuccess());
+    }
+
+    private JsExecutionDto jsExecutionDto() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setProperties("param=value");
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+        jsExecutionDto.setDelay(10L);
+        jsExecutionDto.setTimeout(30L);
+        jsExecutionDto.setOutputCapacity(1024);
+
+        return jsExecutionDto;
+    }
+
+    @Test
+    void shouldReuseSecretMaskerForSameValues() {
+        JsExecutionPlan jsExecutionPlan = new JsExecutionPlan(jsExecutionDto(), 2L, 3L, Collections.emptyList());
+
+        SecretMasker secretMasker = jsExecutionPlan.getSecretMasker(List.of("password", "token"));
+
+        assertSame(secretMasker, jsExecutionPlan.getSecretMasker(List.of("token", "password")));
+        assertNotSame(secretMasker, jsExecutionPlan.getSecretMasker(List.of("password")));
+        assertEquals("my ********", jsExecutionPlan.getSecretMasker(List.of("password")).mask("my password"));
+    }
+}
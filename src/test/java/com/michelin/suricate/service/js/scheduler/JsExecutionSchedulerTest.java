@@ -18,8 +18,16 @@
  */
 package com.michelin.suricate.service.js.scheduler;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
@@ -28,21 +36,34 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
 import com.michelin.suricate.model.entity.Project;
 import com.michelin.suricate.model.entity.ProjectGrid;
 import com.michelin.suricate.model.entity.ProjectWidget;
 import com.michelin.suricate.model.entity.Widget;
+import com.michelin.suricate.model.enumeration.JsExecutionErrorTypeEnum;
 import com.michelin.suricate.model.enumeration.WidgetStateEnum;
+import com.michelin.suricate.property.ApplicationProperties;
 import com.michelin.suricate.service.api.ProjectWidgetService;
 import com.michelin.suricate.service.api.WidgetService;
+import com.michelin.suricate.service.js.DashboardScheduleService;
 import com.michelin.suricate.service.js.JsExecutionService;
+import com.michelin.suricate.service.js.context.JsContextPool;
 import com.michelin.suricate.service.js.task.JsResultAsyncTask;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -63,13 +84,24 @@ class JsExecutionSchedulerTest {
     @Mock
     private JsResultAsyncTask jsResultAsyncTask;
 
+    @Mock
+    private DashboardScheduleService dashboardScheduleService;
+
     @Mock
     private ApplicationContext applicationContext;
 
+    @Spy
+    private ApplicationProperties applicationProperties;
+
     @Spy
     @InjectMocks
     private JsExecutionScheduler scheduler;
 
+    @BeforeEach
+    void setUp() {
+        applicationProperties.setWidgets(new ApplicationProperties.Widgets());
+    }
+
     @Test
     void shouldNotScheduleNullRequest() {
         scheduler.schedule(null, true);
@@ -111,7 +143,7 @@ class JsExecutionSchedulerTest {
         when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
         when(widgetService.getWidgetParametersForJsExecution(any()))
                 .thenReturn(Collections.singletonList(widgetVariableResponseDto));
-        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any(), any()))
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
                 .thenReturn(jsResultAsyncTask);
 
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -148,7 +180,7 @@ class JsExecutionSchedulerTest {
         when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
         when(widgetService.getWidgetParametersForJsExecution(any()))
                 .thenReturn(Collections.singletonList(widgetVariableResponseDto));
-        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any(), any()))
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
                 .thenReturn(jsResultAsyncTask);
 
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -164,6 +196,81 @@ class JsExecutionSchedulerTest {
         verify(projectWidgetService, never()).updateState(any(), any(), any());
     }
 
+    @ParameterizedTest
+    @CsvSource({"virtual,scheduled-executor", "virtual,hashed-wheel", "platform,hashed-wheel"})
+    void shouldScheduleWidgetWithHandoffExecutor(String mode, String timer) throws Exception {
+        applicationProperties.getWidgets().getExecution().setMode(mode);
+        applicationProperties.getWidgets().getExecution().getTimer().setType(timer);
+        applicationProperties.getWidgets().getExecution().getTimer().setTickDuration(10);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        CountDownLatch jsResultTaskCalled = new CountDownLatch(1);
+
+        when(jsExecutionService.isJsExecutable(any())).thenReturn(true);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
+                .thenReturn(jsResultAsyncTask);
+        doAnswer(invocation -> {
+                    jsResultTaskCalled.countDown();
+                    return null;
+                })
+                .when(jsResultAsyncTask)
+                .accept(any(), any());
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+
+        scheduler.init();
+        scheduler.schedule(jsExecutionDto, true);
+
+        assertTrue(jsResultTaskCalled.await(5, TimeUnit.SECONDS));
+        verify(projectWidgetService, never()).updateState(any(), any(), any());
+    }
+
+    @Test
+    void shouldCancelReplacedPendingJsExecution() throws Exception {
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        CountDownLatch jsResultTaskCancelled = new CountDownLatch(1);
+
+        when(jsExecutionService.isJsExecutable(any())).thenReturn(true);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
+                .thenReturn(jsResultAsyncTask);
+        doAnswer(invocation -> {
+                    jsResultTaskCancelled.countDown();
+                    return null;
+                })
+                .when(jsResultAsyncTask)
+                .accept(isNull(), any(CancellationException.class));
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+        jsExecutionDto.setDelay(60L);
+
+        scheduler.init();
+        scheduler.schedule(jsExecutionDto, false);
+        scheduler.schedule(jsExecutionDto, false);
+
+        assertTrue(jsResultTaskCancelled.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     void shouldScheduleJsExecRequests() {
         WidgetVariableResponseDto widgetVariableResponseDto = new WidgetVariableResponseDto();
@@ -180,7 +287,7 @@ class JsExecutionSchedulerTest {
         when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
         when(widgetService.getWidgetParametersForJsExecution(any()))
                 .thenReturn(Collections.singletonList(widgetVariableResponseDto));
-        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any(), any()))
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
                 .thenReturn(jsResultAsyncTask);
 
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -196,6 +303,39 @@ class JsExecutionSchedulerTest {
         verify(projectWidgetService, never()).updateState(any(), any(), any());
     }
 
+    @Test
+    void shouldSpreadJsExecRequestsWhenLoadLevelingEnabled() {
+        applicationProperties.getWidgets().getExecution().getLoadLeveling().setEnabled(true);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        when(jsExecutionService.isJsExecutable(any())).thenReturn(true);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
+                .thenReturn(jsResultAsyncTask);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+
+        JsExecutionDto otherJsExecutionDto = new JsExecutionDto();
+        otherJsExecutionDto.setProjectWidgetId(2L);
+        otherJsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+
+        scheduler.init();
+        scheduler.scheduleJsRequests(List.of(jsExecutionDto, otherJsExecutionDto), true);
+
+        verify(jsExecutionService).isJsExecutable(jsExecutionDto);
+        verify(jsExecutionService).isJsExecutable(otherJsExecutionDto);
+        verify(scheduler, never()).schedule(any(), eq(true));
+    }
+
     @Test
     void shouldThrowExceptionWhenScheduleJsRequests() {
         WidgetVariableResponseDto widgetVariableResponseDto = new WidgetVariableResponseDto();
@@ -238,7 +378,7 @@ class JsExecutionSchedulerTest {
         when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
         when(widgetService.getWidgetParametersForJsExecution(any()))
                 .thenReturn(Collections.singletonList(widgetVariableResponseDto));
-        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any(), any()))
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
                 .thenReturn(jsResultAsyncTask);
 
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -252,7 +392,7 @@ class JsExecutionSchedulerTest {
         verify(jsExecutionService, times(2)).isJsExecutable(jsExecutionDto);
         verify(projectWidgetService, times(2)).getOne(1L);
         verify(widgetService, times(2)).getWidgetParametersForJsExecution(widget);
-        verify(scheduler, times(2)).cancelScheduledFutureTask(eq(1L), any());
+        verify(scheduler).cancelScheduledFutureTask(eq(1L), any());
         verify(projectWidgetService).updateState(WidgetStateEnum.STOPPED, 1L);
     }
 
@@ -272,7 +412,7 @@ class JsExecutionSchedulerTest {
         when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
         when(widgetService.getWidgetParametersForJsExecution(any()))
                 .thenReturn(Collections.singletonList(widgetVariableResponseDto));
-        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any(), any()))
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
                 .thenReturn(jsResultAsyncTask);
 
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
@@ -327,4 +467,390 @@ class JsExecutionSchedulerTest {
 
         verify(projectWidgetService).updateState(WidgetStateEnum.STOPPED, 1L);
     }
+
+    @Test
+    void shouldReuseJsExecutionPlan() {
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setProperties("param=value");
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+
+        JsExecutionPlan jsExecutionPlan = scheduler.getJsExecutionPlan(jsExecutionDto);
+
+        assertSame(jsExecutionPlan, scheduler.getJsExecutionPlan(jsExecutionDto));
+        assertEquals(1L, jsExecutionPlan.getWidgetId());
+        assertEquals("value", jsExecutionPlan.getWidgetProperties().get("param"));
+
+        jsExecutionDto.setProperties("param=otherValue");
+
+        assertNotSame(jsExecutionPlan, scheduler.getJsExecutionPlan(jsExecutionDto));
+
+        verify(projectWidgetService, times(2)).getOne(1L);
+        verify(widgetService, times(2)).getWidgetParametersForJsExecution(widget);
+    }
+
+    @Test
+    void shouldEvictJsExecutionPlans() {
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+
+        JsExecutionPlan jsExecutionPlan = scheduler.getJsExecutionPlan(jsExecutionDto);
+        scheduler.evictJsExecutionPlans();
+        JsExecutionPlan rebuiltJsExecutionPlan = scheduler.getJsExecutionPlan(jsExecutionDto);
+        scheduler.evictJsSources(1L);
+
+        assertNotSame(jsExecutionPlan, rebuiltJsExecutionPlan);
+        assertNotSame(rebuiltJsExecutionPlan, scheduler.getJsExecutionPlan(jsExecutionDto));
+    }
+
+    @Test
+    void shouldGetNextJsExecutionFromJsExecutionPlan() {
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(10L);
+        jsExecutionDto.setPreviousData("{\"previous\": true}");
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+
+        scheduler.getJsExecutionPlan(jsExecutionDto);
+
+        JsResultDto validJsResultDto = new JsResultDto();
+        validJsResultDto.setProjectId(1L);
+        validJsResultDto.setProjectWidgetId(1L);
+        validJsResultDto.setData("{}");
+
+        JsExecutionDto nextJsExecutionDto = scheduler.getNextJsExecution(jsExecutionDto, validJsResultDto);
+
+        assertEquals("{}", nextJsExecutionDto.getPreviousData());
+        assertEquals(10L, nextJsExecutionDto.getDelay());
+        assertEquals(WidgetStateEnum.RUNNING, nextJsExecutionDto.getWidgetState());
+        assertTrue(nextJsExecutionDto.isAlreadySuccess());
+
+        JsResultDto errorJsResultDto = new JsResultDto();
+        errorJsResultDto.setProjectWidgetId(1L);
+        errorJsResultDto.setError(JsExecutionErrorTypeEnum.ERROR);
+
+        nextJsExecutionDto = scheduler.getNextJsExecution(jsExecutionDto, errorJsResultDto);
+
+        assertEquals("{\"previous\": true}", nextJsExecutionDto.getPreviousData());
+        assertEquals(WidgetStateEnum.WARNING, nextJsExecutionDto.getWidgetState());
+        assertFalse(nextJsExecutionDto.isAlreadySuccess());
+
+        scheduler.cancelWidgetExecution(1L);
+
+        assertNull(scheduler.getNextJsExecution(jsExecutionDto, validJsResultDto));
+        verify(dashboardScheduleService).evictSentProjectWidget(1L);
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {"null,1048576", "2048,2048"}, nullValues = "null")
+    void shouldReuseJsExecutionPlanAcrossTicks(Integer widgetOutputCapacity, int expectedOutputCapacity) {
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+
+        when(jsExecutionService.isJsExecutable(any())).thenReturn(true);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(widgetService.getWidgetParametersForJsExecution(any())).thenReturn(Collections.emptyList());
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
+                .thenReturn(jsResultAsyncTask);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(60L);
+        jsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+        jsExecutionDto.setOutputCapacity(widgetOutputCapacity);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+
+        scheduler.init();
+        scheduler.schedule(jsExecutionDto, false);
+
+        JsExecutionDto secondJsExecutionDto = scheduler.getNextJsExecution(jsExecutionDto, jsResultDto);
+
+        assertEquals(expectedOutputCapacity, secondJsExecutionDto.getOutputCapacity());
+
+        scheduler.schedule(secondJsExecutionDto, false);
+
+        JsExecutionDto thirdJsExecutionDto = scheduler.getNextJsExecution(secondJsExecutionDto, jsResultDto);
+
+        assertEquals(expectedOutputCapacity, thirdJsExecutionDto.getOutputCapacity());
+
+        verify(projectWidgetService).getOne(1L);
+        verify(widgetService).getWidgetParametersForJsExecution(widget);
+    }
+
+    @Test
+    void shouldBackOffEffectiveDelayWhileDataDoesNotChange() {
+        applicationProperties.getWidgets().getExecution().getAdaptiveDelay().setMaxDelay(35L);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(10L);
+        jsExecutionDto.setPreviousData("{}");
+        jsExecutionDto.setAdaptiveDelay(true);
+
+        JsResultDto sameJsResultDto = new JsResultDto();
+        sameJsResultDto.setProjectId(1L);
+        sameJsResultDto.setProjectWidgetId(1L);
+        sameJsResultDto.setData("{}");
+
+        assertEquals(10L, scheduler.getEffectiveDelay(jsExecutionDto));
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, sameJsResultDto);
+        assertEquals(20L, scheduler.getEffectiveDelay(jsExecutionDto));
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, sameJsResultDto);
+        assertEquals(35L, scheduler.getEffectiveDelay(jsExecutionDto));
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, sameJsResultDto);
+        assertEquals(35L, scheduler.getEffectiveDelay(jsExecutionDto));
+
+        JsResultDto changedJsResultDto = new JsResultDto();
+        changedJsResultDto.setProjectId(1L);
+        changedJsResultDto.setProjectWidgetId(1L);
+        changedJsResultDto.setData("{\"changed\": true}");
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, changedJsResultDto);
+        assertEquals(10L, scheduler.getEffectiveDelay(jsExecutionDto));
+    }
+
+    @Test
+    void shouldDetectUnchangedJsResult() {
+        applicationProperties.getWidgets().getExecution().getChangeDetection().setEnabled(true);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+        jsResultDto.setLog("log");
+
+        JsResultDto changedJsResultDto = new JsResultDto();
+        changedJsResultDto.setProjectWidgetId(1L);
+        changedJsResultDto.setData("{}");
+
+        assertFalse(scheduler.isUnchangedJsResult(jsResultDto));
+        assertTrue(scheduler.isUnchangedJsResult(jsResultDto));
+        assertFalse(scheduler.isUnchangedJsResult(changedJsResultDto));
+        assertTrue(scheduler.isUnchangedJsResult(changedJsResultDto));
+
+        scheduler.evictJsResultHash(1L);
+        assertFalse(scheduler.isUnchangedJsResult(changedJsResultDto));
+
+        scheduler.cancelWidgetExecution(1L);
+        assertFalse(scheduler.isUnchangedJsResult(changedJsResultDto));
+    }
+
+    @Test
+    void shouldNotDetectUnchangedJsResultWhenDisabled() {
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+
+        assertFalse(scheduler.isUnchangedJsResult(jsResultDto));
+        assertFalse(scheduler.isUnchangedJsResult(jsResultDto));
+    }
+
+    @Test
+    void shouldNotBackOffEffectiveDelayWhenNotOptedIn() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(10L);
+        jsExecutionDto.setPreviousData("{}");
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, jsResultDto);
+        assertEquals(10L, scheduler.getEffectiveDelay(jsExecutionDto));
+
+        applicationProperties.getWidgets().getExecution().getAdaptiveDelay().setEnabled(true);
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, jsResultDto);
+        assertEquals(20L, scheduler.getEffectiveDelay(jsExecutionDto));
+    }
+
+    @Test
+    void shouldExposeEffectiveDelayOfScheduledWidgetInstance() {
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(new ProjectWidget()));
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(10L);
+        jsExecutionDto.setPreviousData("{}");
+        jsExecutionDto.setAdaptiveDelay(true);
+
+        JsResultDto jsResultDto = new JsResultDto();
+        jsResultDto.setProjectId(1L);
+        jsResultDto.setProjectWidgetId(1L);
+        jsResultDto.setData("{}");
+
+        assertNull(scheduler.getEffectiveDelay(1L));
+
+        scheduler.getJsExecutionPlan(jsExecutionDto);
+        assertEquals(10L, scheduler.getEffectiveDelay(1L));
+
+        scheduler.updateEffectiveDelay(jsExecutionDto, jsResultDto);
+        assertEquals(20L, scheduler.getEffectiveDelay(1L));
+
+        scheduler.cancelWidgetExecution(1L);
+        assertNull(scheduler.getEffectiveDelay(1L));
+        assertEquals(10L, scheduler.getEffectiveDelay(jsExecutionDto));
+    }
+
+    @Test
+    void shouldTrackDisplayedGridsWhenEnabled() {
+        scheduler.updateDisplayedGrids(1L, Set.of(1L));
+
+        assertFalse(scheduler.isGridHidden(1L, 2L));
+
+        applicationProperties.getWidgets().getExecution().getGridVisibility().setEnabled(true);
+        scheduler.updateDisplayedGrids(1L, Set.of(1L));
+
+        assertFalse(scheduler.isGridHidden(1L, 1L));
+        assertTrue(scheduler.isGridHidden(1L, 2L));
+        assertFalse(scheduler.isGridHidden(2L, 2L));
+
+        scheduler.updateDisplayedGrids(1L, null);
+
+        assertFalse(scheduler.isGridHidden(1L, 2L));
+    }
+
+    @Test
+    void shouldRefreshHiddenGridBeforeDisplay() {
+        applicationProperties.getWidgets().getExecution().getGridVisibility().setEnabled(true);
+
+        Widget widget = new Widget();
+        widget.setId(1L);
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(2L);
+
+        ProjectWidget projectWidget = new ProjectWidget();
+        projectWidget.setId(1L);
+        projectWidget.setWidget(widget);
+        projectWidget.setProjectGrid(projectGrid);
+
+        when(jsExecutionService.isJsExecutable(any())).thenReturn(true);
+        when(projectWidgetService.getOne(any())).thenReturn(Optional.of(projectWidget));
+        when(applicationContext.getBean(eq(JsResultAsyncTask.class), any(), any(), any()))
+                .thenReturn(jsResultAsyncTask);
+
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(600L);
+        jsExecutionDto.setWidgetState(WidgetStateEnum.RUNNING);
+
+        scheduler.init();
+        scheduler.updateDisplayedGrids(1L, Set.of(1L));
+        scheduler.schedule(jsExecutionDto, false);
+
+        assertTrue(scheduler.isGridHidden(1L, 2L));
+
+        scheduler.refreshGrid(2L, System.currentTimeMillis() + 10000L);
+        scheduler.refreshGrid(2L, System.currentTimeMillis() + 10000L);
+
+        verify(scheduler).schedule(jsExecutionDto, false);
+        verify(scheduler).schedule(jsExecutionDto, true);
+        verify(applicationContext, times(2)).getBean(eq(JsResultAsyncTask.class), any(), any(), any());
+    }
+
+    @Test
+    void shouldCacheJsSourceByWidgetAndScript() {
+        Source source = scheduler.getJsSource(1L, "function run() { return '{}'; }");
+
+        assertSame(source, scheduler.getJsSource(1L, "function run() { return '{}'; }"));
+        assertNotSame(source, scheduler.getJsSource(1L, "function run() { return '[]'; }"));
+        assertNotSame(source, scheduler.getJsSource(2L, "function run() { return '{}'; }"));
+        assertNull(scheduler.getJsSource(null, "function run() { return '{}'; }"));
+    }
+
+    @Test
+    void shouldEvictJsSources() {
+        Source source = scheduler.getJsSource(1L, "function run() { return '{}'; }");
+        Source otherWidgetSource = scheduler.getJsSource(12L, "function run() { return '{}'; }");
+
+        scheduler.evictJsSources(1L);
+
+        assertNotSame(source, scheduler.getJsSource(1L, "function run() { return '{}'; }"));
+        assertSame(otherWidgetSource, scheduler.getJsSource(12L, "function run() { return '{}'; }"));
+    }
+
+    @Test
+    void shouldNotPoolJsContextsWhenDisabled() {
+        assertNull(scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }"));
+    }
+
+    @Test
+    void shouldPoolJsContextsByWidgetInstanceAndScript() {
+        applicationProperties.getWidgets().getExecution().getContextPool().setEnabled(true);
+
+        JsContextPool contextPool = scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }");
+
+        assertSame(contextPool, scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }"));
+        assertNotSame(contextPool, scheduler.getJsContextPool(1L, 1L, "function run() { return '[]'; }"));
+        assertNotSame(contextPool, scheduler.getJsContextPool(1L, 2L, "function run() { return '{}'; }"));
+        assertNull(scheduler.getJsContextPool(null, 1L, "function run() { return '{}'; }"));
+        assertNull(scheduler.getJsContextPool(1L, null, "function run() { return '{}'; }"));
+
+        scheduler.evictJsSources(1L);
+
+        assertNotSame(contextPool, scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }"));
+    }
+
+    @Test
+    void shouldCloseJsContextPoolsOfCancelledWidgetInstance() {
+        applicationProperties.getWidgets().getExecution().getContextPool().setEnabled(true);
+
+        JsContextPool contextPool = scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }");
+        JsContextPool otherContextPool = scheduler.getJsContextPool(1L, 11L, "function run() { return '{}'; }");
+
+        scheduler.cancelWidgetExecution(1L);
+
+        assertNotSame(contextPool, scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }"));
+        assertSame(otherContextPool, scheduler.getJsContextPool(1L, 11L, "function run() { return '{}'; }"));
+    }
+
+    @Test
+    void shouldRemoveEmptyJsContextPools() {
+        applicationProperties.getWidgets().getExecution().getContextPool().setEnabled(true);
+
+        JsContextPool contextPool = scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }");
+
+        scheduler.evictIdleJsContexts();
+
+        assertNotSame(contextPool, scheduler.getJsContextPool(1L, 1L, "function run() { return '{}'; }"));
+    }
 }
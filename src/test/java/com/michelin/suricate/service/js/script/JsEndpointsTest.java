@@ -19,30 +19,40 @@
 package com.michelin.suricate.service.js.script;
 
 import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.michelin.suricate.util.exception.js.FatalException;
 import com.michelin.suricate.util.exception.js.RemoteException;
 import com.michelin.suricate.util.exception.js.RequestException;
+import com.michelin.suricate.util.http.CircuitOpenException;
 import com.michelin.suricate.util.http.OkHttpClientUtils;
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -86,6 +96,22 @@ class JsEndpointsTest {
         }
     }
 
+    @Test
+    void shouldGetRemoteExceptionWhenCircuitOpen() throws IOException {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            mocked.when(OkHttpClientUtils::getUnsafeOkHttpClient).thenReturn(client);
+            when(client.newCall(any())).thenReturn(call);
+            when(call.execute()).thenThrow(new CircuitOpenException("mocked.com"));
+
+            RemoteException exception =
+                    assertThrows(RemoteException.class, () -> JsEndpoints.get("https://mocked.com/circuit-open"));
+
+            assertEquals(
+                    "The circuit of the host mocked.com is open after consecutive failures. The request is rejected",
+                    exception.getMessage());
+        }
+    }
+
     @Test
     void shouldGetServerError() throws IOException {
         try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
@@ -202,6 +228,27 @@ class JsEndpointsTest {
         }
     }
 
+    @Test
+    void shouldGetReturnCodeWithoutReadingBody() throws IOException, RemoteException, RequestException {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            Buffer body = new Buffer().writeUtf8("response");
+            Response response = new Response.Builder()
+                    .code(200)
+                    .request(new Request.Builder().url("https://mocked.com").build())
+                    .body(ResponseBody.create(body, null, -1))
+                    .protocol(Protocol.HTTP_2)
+                    .message(EMPTY)
+                    .build();
+
+            mocked.when(OkHttpClientUtils::getUnsafeOkHttpClient).thenReturn(client);
+            when(client.newCall(any())).thenReturn(call);
+            when(call.execute()).thenReturn(response);
+
+            assertEquals("200", JsEndpoints.get("https://mocked.com", true));
+            assertEquals("response", body.readUtf8());
+        }
+    }
+
     @Test
     void shouldGetWithHeader() throws IOException, RemoteException, RequestException {
         try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
@@ -287,6 +334,118 @@ class JsEndpointsTest {
         }
     }
 
+    @Test
+    void shouldShareIdenticalRequestsInFlight() throws Exception {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            Response response = new Response.Builder()
+                    .code(HttpStatus.OK.value())
+                    .request(new Request.Builder().url("https://mocked.com").build())
+                    .body(ResponseBody.create(
+                            "response",
+                            MediaType.get(String.valueOf(org.springframework.http.MediaType.APPLICATION_JSON))))
+                    .protocol(Protocol.HTTP_2)
+                    .message(EMPTY)
+                    .build();
+
+            CompletableFuture<String> follower = new CompletableFuture<>();
+            mocked.when(OkHttpClientUtils::getUnsafeOkHttpClient).thenReturn(client);
+            when(client.newCall(any())).thenReturn(call);
+            when(call.execute()).thenAnswer(invocation -> {
+                // Send an identical request while this one is in flight
+                Thread followerThread = new Thread(() -> {
+                    try {
+                        follower.complete(JsEndpoints.get("https://mocked.com", "header", "headerValue"));
+                    } catch (Exception e) {
+                        follower.completeExceptionally(e);
+                    }
+                });
+                followerThread.start();
+
+                while (followerThread.getState() != Thread.State.WAITING && !follower.isDone()) {
+                    Thread.onSpinWait();
+                }
+
+                return response;
+            });
+
+            String actual = JsEndpoints.get("https://mocked.com", "header", "headerValue");
+
+            assertEquals("response", actual);
+            assertEquals("response", follower.get(10, TimeUnit.SECONDS));
+            verify(client).newCall(any());
+        }
+    }
+
+    @Test
+    void shouldGetAll() throws IOException, RemoteException, RequestException {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            mocked.when(OkHttpClientUtils::getUnsafeOkHttpClient).thenReturn(client);
+            when(client.newCall(any())).thenAnswer(invocation -> {
+                Request request = invocation.getArgument(0);
+                Call requestCall = mock(Call.class);
+                doAnswer(enqueueInvocation -> {
+                            enqueueInvocation
+                                    .<Callback>getArgument(0)
+                                    .onResponse(
+                                            requestCall,
+                                            new Response.Builder()
+                                                    .code(HttpStatus.OK.value())
+                                                    .request(request)
+                                                    .body(ResponseBody.create(request.url().encodedPath(), null))
+                                                    .protocol(Protocol.HTTP_2)
+                                                    .message(EMPTY)
+                                                    .build());
+                            return null;
+                        })
+                        .when(requestCall)
+                        .enqueue(any());
+                return requestCall;
+            });
+
+            String[] actual = JsEndpoints.getAll(
+                    List.of("https://mocked.com/first", "https://mocked.com/second"), "header", "headerValue");
+
+            assertArrayEquals(new String[] {"/first", "/second"}, actual);
+
+            verify(client, times(2))
+                    .newCall(argThat(request -> request.method().equals(HttpMethod.GET.toString())
+                            && Objects.equals(request.header("header"), "headerValue")));
+        }
+    }
+
+    @Test
+    void shouldGetAllServerError() {
+        try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
+            mocked.when(OkHttpClientUtils::getUnsafeOkHttpClient).thenReturn(client);
+            when(client.newCall(any())).thenReturn(call);
+            doAnswer(invocation -> {
+                        invocation
+                                .<Callback>getArgument(0)
+                                .onResponse(
+                                        call,
+                                        new Response.Builder()
+                                                .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                                                .request(new Request.Builder()
+                                                        .url("https://mocked.com")
+                                                        .build())
+                                                .body(ResponseBody.create(EMPTY, null))
+                                                .protocol(Protocol.HTTP_2)
+                                                .message(EMPTY)
+                                                .build());
+                        return null;
+                    })
+                    .when(call)
+                    .enqueue(any());
+
+            List<String> urls = List.of("https://mocked.com");
+            RemoteException exception = assertThrows(RemoteException.class, () -> JsEndpoints.getAll(urls));
+
+            assertEquals(
+                    "A server error occurred during the execution of the request /GET https://mocked.com/ (code 500).",
+                    exception.getMessage());
+        }
+    }
+
     @Test
     void shouldPost() throws IOException, RemoteException, RequestException {
         try (MockedStatic<OkHttpClientUtils> mocked = mockStatic(OkHttpClientUtils.class)) {
@@ -28,13 +28,20 @@ import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.model.dto.js.WidgetVariableResponseDto;
 import com.michelin.suricate.model.enumeration.DataTypeEnum;
 import com.michelin.suricate.model.enumeration.JsExecutionErrorTypeEnum;
+import com.michelin.suricate.service.js.context.JsContextPool;
+import com.michelin.suricate.util.JavaScriptUtils;
+import com.michelin.suricate.util.JsonValidator;
 import com.michelin.suricate.util.exception.js.FatalException;
 import com.michelin.suricate.util.exception.js.RemoteException;
 import java.net.ConnectException;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
 import org.jetbrains.annotations.NotNull;
@@ -108,6 +115,165 @@ class JsExecutionAsyncTaskTest {
         assertNull(actual.getLog());
     }
 
+    @Test
+    void shouldNotLogOversizedJsonResponse() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setPreviousData(null);
+        jsExecutionDto.setScript("function run() { return JSON.stringify({value: 'oversized'}); }");
+
+        JsExecutionAsyncTask task = JsExecutionAsyncTask.builder()
+                .jsExecutionDto(jsExecutionDto)
+                .widgetParameters(Collections.emptyList())
+                .jsonValidator(new JsonValidator(10, 10))
+                .build();
+        JsResultDto actual = task.call();
+
+        assertTrue(actual.isFatal());
+        assertEquals("The JSON response is not valid - it exceeds 10 characters", actual.getLog());
+    }
+
+    @Test
+    void shouldSuccessWithSharedEngineAndSource() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setPreviousData(null);
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+
+        try (Engine engine = Engine.newBuilder("js")
+                .option("engine.WarnInterpreterOnly", "false")
+                .build()) {
+            Source source = Source.newBuilder("js", jsExecutionDto.getScript(), "widget-1.js")
+                    .cached(true)
+                    .buildLiteral();
+
+            for (int i = 0; i < 2; i++) {
+                JsExecutionAsyncTask task = JsExecutionAsyncTask.builder()
+                        .jsExecutionDto(jsExecutionDto)
+                        .widgetParameters(Collections.emptyList())
+                        .engine(engine)
+                        .source(source)
+                        .build();
+                JsResultDto actual = task.call();
+
+                assertNull(actual.getError());
+                assertEquals("{}", actual.getData());
+            }
+        }
+    }
+
+    @Test
+    void shouldSuccessWithPooledContext() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setScript("function run() { print(SURI_PREVIOUS); return SURI_PREVIOUS; }");
+
+        try (Engine engine = Engine.newBuilder("js")
+                        .option("engine.WarnInterpreterOnly", "false")
+                        .build();
+                JsContextPool contextPool = new JsContextPool(
+                        engine, Source.create("js", jsExecutionDto.getScript()), Duration.ofMinutes(5))) {
+            for (String previousData : List.of("{\"first\":true}", "{\"second\":true}")) {
+                jsExecutionDto.setPreviousData(previousData);
+
+                JsExecutionAsyncTask task = JsExecutionAsyncTask.builder()
+                        .jsExecutionDto(jsExecutionDto)
+                        .widgetParameters(Collections.emptyList())
+                        .engine(engine)
+                        .contextPool(contextPool)
+                        .build();
+                JsResultDto actual = task.call();
+
+                assertNull(actual.getError());
+                assertEquals(previousData, actual.getData());
+                assertEquals(previousData + "\n", actual.getLog());
+            }
+        }
+    }
+
+    @Test
+    void shouldBoundConsoleOutput() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setOutputCapacity(64);
+        jsExecutionDto.setScript(
+                "function run() { for (var i = 0; i < 10000; i++) { print('line ' + i); } return '{}'; }");
+
+        JsExecutionAsyncTask task = new JsExecutionAsyncTask(jsExecutionDto, null, Collections.emptyList());
+        JsResultDto actual = task.call();
+
+        assertNull(actual.getError());
+        assertTrue(actual.getLog().startsWith("line 0\nline 1\n"));
+        assertTrue(actual.getLog().contains("bytes of console output dropped"));
+        assertTrue(actual.getLog().endsWith("line 9999"));
+    }
+
+    @Test
+    void shouldCancelRunningScript() throws Exception {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setScript("function run() { while (true) { var s = ') {'; } }");
+
+        JsExecutionAsyncTask task = new JsExecutionAsyncTask(jsExecutionDto, null, Collections.emptyList());
+        CompletableFuture<JsResultDto> actual = CompletableFuture.supplyAsync(task::call);
+
+        while (!actual.isDone()) {
+            task.cancel();
+            Thread.sleep(10);
+        }
+
+        assertTrue(task.isCancelled());
+        assertNull(actual.get().getError());
+        assertNull(actual.get().getData());
+        assertNull(actual.get().getLog());
+    }
+
+    @Test
+    void shouldNotExecuteCancelledTask() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setScript("function run() { return '{}'; }");
+
+        JsExecutionAsyncTask task = new JsExecutionAsyncTask(jsExecutionDto, null, Collections.emptyList());
+        task.cancel();
+
+        JsResultDto actual = task.call();
+
+        assertNull(actual.getError());
+        assertNull(actual.getData());
+    }
+
+    @Test
+    void shouldFailWhenStatementLimitExceeded() {
+        JsExecutionDto jsExecutionDto = new JsExecutionDto();
+        jsExecutionDto.setProjectId(1L);
+        jsExecutionDto.setProjectWidgetId(1L);
+        jsExecutionDto.setDelay(0L);
+        jsExecutionDto.setScript("function run() { while (true) {} }");
+
+        JsExecutionAsyncTask task = JsExecutionAsyncTask.builder()
+                .jsExecutionDto(jsExecutionDto)
+                .widgetParameters(Collections.emptyList())
+                .resourceLimits(JavaScriptUtils.newResourceLimits(1000))
+                .build();
+        JsResultDto actual = task.call();
+
+        assertEquals(JsExecutionErrorTypeEnum.FATAL, actual.getError());
+        assertTrue(actual.getLog().contains("Statement count limit of 1000 exceeded"));
+    }
+
     @Test
     void shouldSuccessWithWidgetProperties() {
         WidgetVariableResponseDto widgetParameter = new WidgetVariableResponseDto();
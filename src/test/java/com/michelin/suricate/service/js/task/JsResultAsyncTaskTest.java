@@ -18,23 +18,19 @@
  */
 package com.michelin.suricate.service.js.task;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.anyBoolean;
-import static org.mockito.Mockito.anyLong;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
 import com.michelin.suricate.model.dto.js.JsResultDto;
 import com.michelin.suricate.service.js.DashboardScheduleService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,11 +45,8 @@ class JsResultAsyncTaskTest {
     @Mock
     private DashboardScheduleService dashboardScheduleService;
 
-    @Mock
-    private ScheduledFuture<JsResultDto> scheduledFuture;
-
     @Test
-    void shouldSuccess() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldSuccess() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -64,19 +57,16 @@ class JsResultAsyncTaskTest {
         JsResultDto jsResultDto = new JsResultDto();
         jsResultDto.setProjectId(1L);
 
-        when(scheduledFuture.get(anyLong(), any())).thenReturn(jsResultDto);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        task.accept(jsResultDto, null);
 
-        task.call();
-
-        verify(dashboardScheduleService).processJsResult(jsResultDto, jsExecutionScheduler);
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
+        verify(jsExecutionScheduler).updateEffectiveDelay(jsExecutionDto, jsResultDto);
+        verify(dashboardScheduleService).processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
     }
 
     @Test
-    void shouldSuccessWithRetryOnce() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldSuccessWithRetryOnce() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -91,20 +81,17 @@ class JsResultAsyncTaskTest {
         doThrow(new RuntimeException("Error"))
                 .doNothing()
                 .when(dashboardScheduleService)
-                .processJsResult(any(), any());
-        when(scheduledFuture.get(anyLong(), any())).thenReturn(jsResultDto);
+                .processJsResult(any(), any(), any());
 
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        task.call();
+        task.accept(jsResultDto, null);
 
-        verify(dashboardScheduleService, times(2)).processJsResult(jsResultDto, jsExecutionScheduler);
-        verify(scheduledFuture).get(120, TimeUnit.SECONDS);
+        verify(dashboardScheduleService, times(2)).processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
     }
 
     @Test
-    void shouldRescheduleWhenAllRetriesPerformed() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldRescheduleWhenAllRetriesPerformed() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -116,21 +103,18 @@ class JsResultAsyncTaskTest {
         JsResultDto jsResultDto = new JsResultDto();
         jsResultDto.setProjectId(1L);
 
-        doThrow(new RuntimeException("Error")).when(dashboardScheduleService).processJsResult(any(), any());
-        when(scheduledFuture.get(anyLong(), any())).thenReturn(jsResultDto);
+        doThrow(new RuntimeException("Error")).when(dashboardScheduleService).processJsResult(any(), any(), any());
 
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        task.call();
+        task.accept(jsResultDto, null);
 
-        verify(dashboardScheduleService, times(10)).processJsResult(jsResultDto, jsExecutionScheduler);
+        verify(dashboardScheduleService, times(10)).processJsResult(jsExecutionDto, jsResultDto, jsExecutionScheduler);
         verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
     }
 
     @Test
-    void shouldCatchInterruptedException() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldIgnoreCancellation() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -138,23 +122,17 @@ class JsResultAsyncTaskTest {
         jsExecutionDto.setPreviousData(null);
         jsExecutionDto.setScript("function run() { return '{}'; }");
 
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
-
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new InterruptedException("error"));
-
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        task.call();
+        task.accept(null, new CancellationException("error"));
 
-        assertTrue(Thread.currentThread().isInterrupted());
-
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
+        verify(dashboardScheduleService, never()).processJsResult(any(), any(), any());
+        verify(dashboardScheduleService, never()).updateWidgetInstanceNoJsResult(any(), any(), any());
+        verify(jsExecutionScheduler, never()).schedule(any(), anyBoolean());
     }
 
     @Test
-    void shouldCatchCancellationException() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldCatchTimeoutException() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -162,76 +140,18 @@ class JsResultAsyncTaskTest {
         jsExecutionDto.setPreviousData(null);
         jsExecutionDto.setScript("function run() { return '{}'; }");
 
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
-
-        scheduledFuture.cancel(true);
-
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new CancellationException("error"));
-
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
-
-        task.call();
-
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
-    }
-
-    @Test
-    void shouldCatchCancellationExceptionAndCancelImmediately()
-            throws ExecutionException, InterruptedException, TimeoutException {
-        JsExecutionDto jsExecutionDto = new JsExecutionDto();
-        jsExecutionDto.setProjectId(1L);
-        jsExecutionDto.setProjectWidgetId(1L);
-        jsExecutionDto.setDelay(0L);
-        jsExecutionDto.setPreviousData(null);
-        jsExecutionDto.setScript("function run() { return '{}'; }");
-
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        scheduledFuture.cancel(true);
+        task.accept(null, new TimeoutException("error"));
 
-        when(scheduledFuture.isCancelled()).thenReturn(true);
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new CancellationException("error"));
-
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
-
-        task.call();
-
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
-    }
-
-    @Test
-    void shouldCatchTimeoutException() throws ExecutionException, InterruptedException, TimeoutException {
-        JsExecutionDto jsExecutionDto = new JsExecutionDto();
-        jsExecutionDto.setProjectId(1L);
-        jsExecutionDto.setProjectWidgetId(1L);
-        jsExecutionDto.setDelay(0L);
-        jsExecutionDto.setPreviousData(null);
-        jsExecutionDto.setScript("function run() { return '{}'; }");
-
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
-
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new TimeoutException("error"));
-        when(scheduledFuture.cancel(anyBoolean())).thenReturn(true);
-
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
-
-        task.call();
-
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
-        verify(scheduledFuture).cancel(true);
+        verify(dashboardScheduleService, never()).processJsResult(any(), any(), any());
         verify(dashboardScheduleService)
                 .updateWidgetInstanceNoJsResult(
                         "The JavaScript execution exceeded the timeout defined by the widget", 1L, 1L);
     }
 
     @Test
-    void shouldCatchException() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldCatchException() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -239,24 +159,15 @@ class JsResultAsyncTaskTest {
         jsExecutionDto.setPreviousData(null);
         jsExecutionDto.setScript("function run() { return '{}'; }");
 
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
-
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new RuntimeException("Error"));
-        when(scheduledFuture.cancel(anyBoolean())).thenReturn(true);
-
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        task.call();
+        task.accept(null, new CompletionException(new RuntimeException("Error")));
 
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
-        verify(scheduledFuture).cancel(true);
         verify(dashboardScheduleService).updateWidgetInstanceNoJsResult("java.lang.RuntimeException: Error", 1L, 1L);
     }
 
     @Test
-    void shouldRescheduleWhenExceptionOnUpdate() throws ExecutionException, InterruptedException, TimeoutException {
+    void shouldRescheduleWhenExceptionOnUpdate() {
         JsExecutionDto jsExecutionDto = new JsExecutionDto();
         jsExecutionDto.setProjectId(1L);
         jsExecutionDto.setProjectWidgetId(1L);
@@ -264,22 +175,14 @@ class JsResultAsyncTaskTest {
         jsExecutionDto.setPreviousData(null);
         jsExecutionDto.setScript("function run() { return '{}'; }");
 
-        JsResultDto jsResultDto = new JsResultDto();
-        jsResultDto.setProjectId(1L);
-
-        when(scheduledFuture.get(anyLong(), any())).thenThrow(new RuntimeException("Error"));
-        when(scheduledFuture.cancel(anyBoolean())).thenReturn(true);
         doThrow(new RuntimeException())
                 .when(dashboardScheduleService)
                 .updateWidgetInstanceNoJsResult(any(), any(), any());
 
-        JsResultAsyncTask task =
-                new JsResultAsyncTask(scheduledFuture, jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
+        JsResultAsyncTask task = new JsResultAsyncTask(jsExecutionDto, jsExecutionScheduler, dashboardScheduleService);
 
-        task.call();
+        task.accept(null, new RuntimeException("Error"));
 
-        verify(scheduledFuture).get(60, TimeUnit.SECONDS);
-        verify(scheduledFuture).cancel(true);
         verify(dashboardScheduleService).updateWidgetInstanceNoJsResult("java.lang.RuntimeException: Error", 1L, 1L);
         verify(jsExecutionScheduler).schedule(jsExecutionDto, false);
     }
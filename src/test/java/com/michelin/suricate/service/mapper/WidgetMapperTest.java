@@ -21,10 +21,12 @@ package com.michelin.suricate.service.mapper;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
 import com.michelin.suricate.model.dto.api.category.CategoryResponseDto;
+import com.michelin.suricate.model.dto.api.widget.CircuitBreakerResponseDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetParamResponseDto;
 import com.michelin.suricate.model.dto.api.widget.WidgetResponseDto;
 import com.michelin.suricate.model.entity.Asset;
@@ -34,7 +36,10 @@ import com.michelin.suricate.model.entity.Widget;
 import com.michelin.suricate.model.entity.WidgetParam;
 import com.michelin.suricate.model.enumeration.WidgetAvailabilityEnum;
 import com.michelin.suricate.util.IdUtils;
+import com.michelin.suricate.util.http.CircuitBreakerInterceptor;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -233,4 +238,33 @@ class WidgetMapperTest {
             assertEquals(widgetParamResponseDto, actual.getFirst().getParams().getFirst());
         }
     }
+
+    @Test
+    void shouldToCircuitBreakerDto() {
+        CircuitBreakerInterceptor.HostCircuit hostCircuit = mock(CircuitBreakerInterceptor.HostCircuit.class);
+        when(hostCircuit.getHost()).thenReturn("mocked.com");
+        when(hostCircuit.getState()).thenReturn(CircuitBreakerInterceptor.State.OPEN);
+        when(hostCircuit.getConsecutiveFailures()).thenReturn(5);
+        when(hostCircuit.getOpenedAt()).thenReturn(Instant.ofEpochSecond(10));
+
+        CircuitBreakerResponseDto actual = widgetMapper.toCircuitBreakerDto(hostCircuit);
+
+        assertEquals("mocked.com", actual.getHost());
+        assertEquals("OPEN", actual.getState());
+        assertEquals(5, actual.getConsecutiveFailures());
+        assertEquals(new Date(10000), actual.getOpenedDate());
+    }
+
+    @Test
+    void shouldToCircuitBreakerDtoWithoutOpenedDate() {
+        CircuitBreakerInterceptor.HostCircuit hostCircuit = mock(CircuitBreakerInterceptor.HostCircuit.class);
+        when(hostCircuit.getHost()).thenReturn("mocked.com");
+        when(hostCircuit.getState()).thenReturn(CircuitBreakerInterceptor.State.CLOSED);
+
+        List<CircuitBreakerResponseDto> actual = widgetMapper.toCircuitBreakersDtos(List.of(hostCircuit));
+
+        assertEquals(1, actual.size());
+        assertEquals("CLOSED", actual.getFirst().getState());
+        assertNull(actual.getFirst().getOpenedDate());
+    }
 }
@@ -22,19 +22,25 @@ import static com.michelin.suricate.model.enumeration.UpdateType.CONNECT_DASHBOA
 import static com.michelin.suricate.model.enumeration.UpdateType.DISCONNECT;
 import static com.michelin.suricate.model.enumeration.UpdateType.RELOAD;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.michelin.suricate.model.dto.api.project.ProjectResponseDto;
 import com.michelin.suricate.model.dto.js.JsExecutionDto;
+import com.michelin.suricate.model.dto.websocket.DisplayedGridDto;
 import com.michelin.suricate.model.dto.websocket.UpdateEvent;
 import com.michelin.suricate.model.dto.websocket.WebsocketClient;
 import com.michelin.suricate.model.entity.Project;
+import com.michelin.suricate.model.entity.ProjectGrid;
+import com.michelin.suricate.service.api.ProjectGridService;
 import com.michelin.suricate.service.api.ProjectService;
 import com.michelin.suricate.service.js.JsExecutionService;
 import com.michelin.suricate.service.js.scheduler.JsExecutionScheduler;
@@ -44,6 +50,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -65,6 +72,9 @@ class DashboardWebSocketServiceTest {
     @Mock
     private ProjectMapper projectMapper;
 
+    @Mock
+    private ProjectGridService projectGridService;
+
     @Mock
     private JsExecutionService jsExecutionService;
 
@@ -358,6 +368,124 @@ class DashboardWebSocketServiceTest {
         verify(jsExecutionScheduler, never()).cancelWidgetsExecutionByProject(any());
     }
 
+    @Test
+    void shouldUpdateDisplayedGrid() {
+        WebsocketClient websocketClient = new WebsocketClient();
+        websocketClient.setProjectToken("token");
+        websocketClient.setSessionId("session");
+        websocketClient.setSubscriptionId("subscription");
+
+        Project project = new Project();
+        project.setId(1L);
+        project.setToken("token");
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(1L);
+        projectGrid.setTime(30);
+
+        ProjectGrid nextProjectGrid = new ProjectGrid();
+        nextProjectGrid.setId(2L);
+        nextProjectGrid.setTime(60);
+
+        when(projectService.getOneByToken(any())).thenReturn(Optional.of(project));
+        when(projectGridService.findByIdAndProjectToken(1L, "token")).thenReturn(Optional.of(projectGrid));
+        when(projectGridService.findByIdAndProjectToken(2L, "token")).thenReturn(Optional.of(nextProjectGrid));
+
+        dashboardWebSocketService.addClientToProject(project, websocketClient);
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session",
+                DisplayedGridDto.builder().gridId(1L).nextGridId(2L).time(20L).build());
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session",
+                DisplayedGridDto.builder().gridId(1L).nextGridId(2L).time(3600L).build());
+
+        assertEquals(1L, websocketClient.getDisplayedGridId());
+        verify(jsExecutionScheduler, times(2)).updateDisplayedGrids(1L, Set.of(1L));
+        verify(jsExecutionScheduler).refreshGridBeforeDisplay(2L, 20L);
+        verify(jsExecutionScheduler).refreshGridBeforeDisplay(2L, 30L);
+    }
+
+    @Test
+    void shouldIgnoreGridsOfOtherProjects() {
+        WebsocketClient websocketClient = new WebsocketClient();
+        websocketClient.setProjectToken("token");
+        websocketClient.setSessionId("session");
+        websocketClient.setSubscriptionId("subscription");
+
+        Project project = new Project();
+        project.setId(1L);
+        project.setToken("token");
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(1L);
+        projectGrid.setTime(30);
+
+        when(projectService.getOneByToken(any())).thenReturn(Optional.of(project));
+        when(projectGridService.findByIdAndProjectToken(1L, "token")).thenReturn(Optional.of(projectGrid));
+        when(projectGridService.findByIdAndProjectToken(3L, "token")).thenReturn(Optional.empty());
+
+        dashboardWebSocketService.addClientToProject(project, websocketClient);
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session",
+                DisplayedGridDto.builder().gridId(3L).nextGridId(1L).time(30L).build());
+
+        assertNull(websocketClient.getDisplayedGridId());
+        verify(jsExecutionScheduler, never()).refreshGridBeforeDisplay(any(), anyLong());
+
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session",
+                DisplayedGridDto.builder().gridId(1L).nextGridId(3L).time(30L).build());
+
+        assertEquals(1L, websocketClient.getDisplayedGridId());
+        verify(jsExecutionScheduler, never()).refreshGridBeforeDisplay(any(), anyLong());
+    }
+
+    @Test
+    void shouldConsiderAllGridsDisplayedWhenScreenDoesNotReport() {
+        WebsocketClient websocketClient = new WebsocketClient();
+        websocketClient.setProjectToken("token");
+        websocketClient.setSessionId("session");
+        websocketClient.setSubscriptionId("subscription");
+
+        WebsocketClient websocketClient2 = new WebsocketClient();
+        websocketClient2.setProjectToken("token");
+        websocketClient2.setSessionId("session2");
+        websocketClient2.setSubscriptionId("subscription2");
+
+        Project project = new Project();
+        project.setId(1L);
+        project.setToken("token");
+
+        ProjectGrid projectGrid = new ProjectGrid();
+        projectGrid.setId(1L);
+
+        when(projectService.getOneByToken(any())).thenReturn(Optional.of(project));
+        when(projectGridService.findByIdAndProjectToken(1L, "token")).thenReturn(Optional.of(projectGrid));
+
+        dashboardWebSocketService.addClientToProject(project, websocketClient);
+        dashboardWebSocketService.addClientToProject(project, websocketClient2);
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session", DisplayedGridDto.builder().gridId(1L).build());
+
+        verify(jsExecutionScheduler).updateDisplayedGrids(1L, null);
+        verify(jsExecutionScheduler, never()).refreshGridBeforeDisplay(any(), anyLong());
+
+        dashboardWebSocketService.removeClientFromProject(websocketClient2);
+
+        verify(jsExecutionScheduler).updateDisplayedGrids(1L, Set.of(1L));
+        verify(jsExecutionScheduler, never()).cancelWidgetsExecutionByProject(any());
+    }
+
+    @Test
+    void shouldNotUpdateDisplayedGridOfUnknownSession() {
+        dashboardWebSocketService.updateDisplayedGrid(
+                "session", DisplayedGridDto.builder().gridId(1L).nextGridId(2L).time(30L).build());
+
+        verify(projectService, never()).getOneByToken(any());
+        verify(jsExecutionScheduler, never()).updateDisplayedGrids(any(), any());
+        verify(jsExecutionScheduler, never()).refreshGridBeforeDisplay(any(), anyLong());
+    }
+
     @Test
     void shouldDisconnectClient() {
         dashboardWebSocketService.disconnectClient("token", "screen");
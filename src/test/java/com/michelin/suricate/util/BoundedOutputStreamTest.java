@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class BoundedOutputStreamTest {
+    @Test
+    void shouldKeepOutputWithinCapacity() {
+        BoundedOutputStream output = new BoundedOutputStream(32);
+        output.write("first line\n".getBytes(StandardCharsets.UTF_8), 0, 11);
+        output.write('a');
+
+        assertEquals("first line\na", output.toString());
+        assertEquals(12, output.size());
+        assertEquals(0, output.getDroppedBytes());
+    }
+
+    @Test
+    void shouldKeepHeadAndTailLines() {
+        BoundedOutputStream output = new BoundedOutputStream(20);
+        for (int i = 0; i < 100; i++) {
+            byte[] line = ("line " + i + "\n").getBytes(StandardCharsets.UTF_8);
+            output.write(line, 0, line.length);
+        }
+
+        assertEquals(790, output.size());
+        assertEquals(770, output.getDroppedBytes());
+        assertEquals("line 0\n[... 775 bytes of console output dropped ...]\nline 99\n", output.toString());
+    }
+
+    @Test
+    void shouldDropPartialLinesAroundDroppedBytes() {
+        BoundedOutputStream output = new BoundedOutputStream(10);
+        byte[] bytes = "ab\nsecret-password\ncd".getBytes(StandardCharsets.UTF_8);
+        output.write(bytes, 0, bytes.length);
+
+        assertEquals("ab\n[... 16 bytes of console output dropped ...]\ncd", output.toString());
+    }
+
+    @Test
+    void shouldWriteByteByByte() {
+        BoundedOutputStream output = new BoundedOutputStream(8);
+        for (byte b : "1\n2\n3\n4\n5\n6\n".getBytes(StandardCharsets.UTF_8)) {
+            output.write(b);
+        }
+
+        assertEquals("1\n2\n[... 6 bytes of console output dropped ...]\n6\n", output.toString());
+    }
+
+    @Test
+    void shouldReset() {
+        BoundedOutputStream output = new BoundedOutputStream(8);
+        byte[] bytes = "1\n2\n3\n4\n5\n6\n".getBytes(StandardCharsets.UTF_8);
+        output.write(bytes, 0, bytes.length);
+
+        output.reset();
+        output.write('a');
+        assertEquals("a", output.toString());
+
+        output.reset(16);
+        output.write(bytes, 0, bytes.length);
+        assertEquals(16, output.getCapacity());
+        assertEquals("1\n2\n3\n4\n5\n6\n", output.toString());
+    }
+
+    @Test
+    void shouldRejectTooSmallCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedOutputStream(1));
+    }
+}
@@ -19,6 +19,8 @@
 package com.michelin.suricate.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.michelin.suricate.service.js.script.JsEndpoints;
@@ -33,34 +35,26 @@ class JavaScriptUtilsTest {
     }
 
     @Test
-    void shouldInjectInterruptNull() {
-        String actual = JavaScriptUtils.injectInterrupt(null);
+    void shouldPrepareNull() {
+        String actual = JavaScriptUtils.prepare(null);
         assertTrue(actual.isEmpty());
     }
 
     @Test
-    void shouldInjectInterruptEmpty() {
-        String actual = JavaScriptUtils.injectInterrupt(StringUtils.EMPTY);
+    void shouldPrepareEmpty() {
+        String actual = JavaScriptUtils.prepare(StringUtils.EMPTY);
         assertTrue(actual.isEmpty());
     }
 
     @Test
-    void shouldInjectInterruptNoInject() {
-        String actual = JavaScriptUtils.injectInterrupt("var i = {};");
-        assertEquals("var i = {};", actual);
+    void shouldPrepareWithoutInstrumentingLoops() {
+        String actual = JavaScriptUtils.prepare("function run() { while (true) { var s = \") {\"; } }");
+        assertEquals("function run() { while (true) { var s = \") {\"; } }", actual);
     }
 
     @Test
-    void shouldInjectInterruptLoop() {
-        String actual = JavaScriptUtils.injectInterrupt("function(){};");
-        assertEquals("function(){Packages." + JsEndpoints.class.getName() + ".checkInterrupted();};", actual);
-
-        String actualTwo = JavaScriptUtils.injectInterrupt("function()\n{\nwhile(true)\n{\n}\n};");
-        assertEquals(
-                "function(){Packages." + JsEndpoints.class.getName()
-                        + ".checkInterrupted();\nwhile(true){Packages."
-                        + JsEndpoints.class.getName()
-                        + ".checkInterrupted();\n}\n};",
-                actualTwo);
+    void shouldNewResourceLimits() {
+        assertNull(JavaScriptUtils.newResourceLimits(0));
+        assertNotNull(JavaScriptUtils.newResourceLimits(1000));
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+class JsonPatchUtilsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldDiffObjects() throws JsonProcessingException {
+        ArrayNode actual = JsonPatchUtils.diff(
+                objectMapper.readTree("{\"a\":1,\"b\":\"x\",\"c\":[1,2],\"e\":{\"f\":true}}"),
+                objectMapper.readTree("{\"a\":2,\"c\":[1,3],\"d\":{\"e\":true},\"e\":{\"f\":true}}"));
+
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/b\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/a\",\"value\":2},"
+                        + "{\"op\":\"replace\",\"path\":\"/c/1\",\"value\":3},"
+                        + "{\"op\":\"add\",\"path\":\"/d\",\"value\":{\"e\":true}}]"),
+                actual);
+    }
+
+    @Test
+    void shouldEscapeFieldNames() throws JsonProcessingException {
+        ArrayNode actual = JsonPatchUtils.diff(
+                objectMapper.readTree("{\"a/b\":1,\"m~n\":2}"), objectMapper.readTree("{\"a/b\":3}"));
+
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/m~0n\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/a~1b\",\"value\":3}]"),
+                actual);
+    }
+
+    @Test
+    void shouldDiffResizedArrays() throws JsonProcessingException {
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"add\",\"path\":\"/a/1\",\"value\":2}]"),
+                JsonPatchUtils.diff(objectMapper.readTree("{\"a\":[1]}"), objectMapper.readTree("{\"a\":[1,2]}")));
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/a/1\"},{\"op\":\"remove\",\"path\":\"/a/1\"}]"),
+                JsonPatchUtils.diff(
+                        objectMapper.readTree("{\"a\":[1,2,3,4]}"), objectMapper.readTree("{\"a\":[1,4]}")));
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/a/1\",\"value\":5},"
+                        + "{\"op\":\"add\",\"path\":\"/a/2\",\"value\":6}]"),
+                JsonPatchUtils.diff(
+                        objectMapper.readTree("{\"a\":[1,2,3]}"), objectMapper.readTree("{\"a\":[1,5,6,3]}")));
+    }
+
+    @Test
+    void shouldReplaceRoot() throws JsonProcessingException {
+        assertEquals(
+                objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"\",\"value\":{}}]"),
+                JsonPatchUtils.diff(objectMapper.readTree("1"), objectMapper.readTree("{}")));
+    }
+
+    @Test
+    void shouldBeEmptyForEqualDocuments() throws JsonProcessingException {
+        ArrayNode actual = JsonPatchUtils.diff(
+                objectMapper.readTree("{\"a\":[1,{\"b\":2}]}"), objectMapper.readTree("{\"a\":[1,{\"b\":2}]}"));
+
+        assertTrue(actual.isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonValidatorTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"test\":0}", "[1,\"two\",{\"three\":[3]}]", "\"text\"", "0", "null", " {} "})
+    void shouldBeValid(String json) {
+        assertTrue(JsonValidator.DEFAULT.isValid(json));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"test\":0", "{\"test\":}", "[1,2", "{test:0}", "\"text", "undefined", "   "})
+    void shouldBeInvalid(String json) {
+        assertFalse(JsonValidator.DEFAULT.isValid(json));
+    }
+
+    @Test
+    void shouldBeInvalidNull() {
+        assertFalse(JsonValidator.DEFAULT.isValid(null));
+        assertFalse(JsonValidator.DEFAULT.isValid(StringUtils.EMPTY));
+    }
+
+    @Test
+    void shouldBeInvalidWhenTooLarge() {
+        JsonValidator jsonValidator = new JsonValidator(10, 10);
+
+        assertTrue(jsonValidator.isValid("{\"a\":\"b\"}"));
+        assertFalse(jsonValidator.isValid("{\"a\":\"bcd\"}"));
+        assertFalse(jsonValidator.exceedsMaxSize("{\"a\":\"b\"}"));
+        assertTrue(jsonValidator.exceedsMaxSize("{\"a\":\"bcd\"}"));
+        assertEquals(10, jsonValidator.getMaxSize());
+    }
+
+    @Test
+    void shouldBeInvalidWhenTooDeep() {
+        JsonValidator jsonValidator = new JsonValidator(0, 3);
+
+        assertTrue(jsonValidator.isValid("{\"a\":[{\"b\":1}]}"));
+        assertFalse(jsonValidator.isValid("{\"a\":[{\"b\":[1]}]}"));
+        assertEquals(3, jsonValidator.getMaxDepth());
+    }
+
+    @Test
+    void shouldValidateLargeJson() {
+        String json = "{\"values\":[" + StringUtils.repeat("{\"key\":\"value\",\"number\":1.5}", ",", 10000) + "]}";
+
+        assertTrue(JsonValidator.DEFAULT.isValid(json));
+        assertFalse(JsonValidator.DEFAULT.isValid(json.substring(0, json.length() - 1)));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SecretMaskerTest {
+    @Test
+    void shouldMaskSecrets() {
+        SecretMasker secretMasker = SecretMasker.of(List.of("password", "token"));
+
+        assertEquals(
+                "Should hide my ******** and my *****, twice ********",
+                secretMasker.mask("Should hide my password and my token, twice password"));
+    }
+
+    @Test
+    void shouldMaskSecretsLiterally() {
+        SecretMasker secretMasker = SecretMasker.of(List.of("a.c(", "[x", "$1\\"));
+
+        assertEquals("abc **** **] ***", secretMasker.mask("abc a.c( [x] $1\\"));
+    }
+
+    @Test
+    void shouldMaskOverlappingSecrets() {
+        assertEquals("u***** a*****", SecretMasker.of(List.of("he", "she", "hers", "his")).mask("ushers ahishe"));
+        assertEquals("c*c***********cc", SecretMasker.of(List.of("cba", "aa", "babb", "b")).mask("cbcbbcbaaacbabcc"));
+        assertEquals("a***", SecretMasker.of(List.of("aab", "ab")).mask("aaab"));
+    }
+
+    @Test
+    void shouldReturnSameTextWithoutSecret() {
+        String text = "Nothing to hide";
+
+        assertSame(text, SecretMasker.of(List.of("password")).mask(text));
+        assertSame(text, SecretMasker.of(Arrays.asList(null, "")).mask(text));
+        assertSame(text, SecretMasker.of(null).mask(text));
+        assertNull(SecretMasker.of(List.of("password")).mask(null));
+    }
+
+    @Test
+    void shouldCheckMaskedSecrets() {
+        SecretMasker secretMasker = SecretMasker.of(List.of("password", "token"));
+
+        assertTrue(secretMasker.masks(Arrays.asList("token", "password", null, "")));
+        assertFalse(secretMasker.masks(List.of("password")));
+        assertTrue(SecretMasker.of(null).masks(List.of("")));
+    }
+}
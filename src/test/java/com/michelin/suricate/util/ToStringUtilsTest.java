@@ -64,4 +64,18 @@ class ToStringUtilsTest {
                 ToStringUtils.hideWidgetConfigurationInLogs("Should hide my password", Arrays.asList("password", null));
         assertEquals("Should hide my ********", actual);
     }
+
+    @Test
+    void shouldHideWidgetConfigurationWithRegexCharactersInLogs() {
+        String actual = ToStringUtils.hideWidgetConfigurationInLogs(
+                "Should hide my pa$$word and my (token", Arrays.asList("pa$$word", "(token"));
+        assertEquals("Should hide my ******** and my ******", actual);
+    }
+
+    @Test
+    void shouldHideSecretsInLogs() {
+        String actual = ToStringUtils.hideSecretsInLogs(
+                " Should hide my password ", SecretMasker.of(Collections.singletonList("password")));
+        assertEquals("Should hide my ********", actual);
+    }
 }
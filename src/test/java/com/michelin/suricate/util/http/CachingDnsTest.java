@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import okhttp3.Dns;
+import org.junit.jupiter.api.Test;
+
+class CachingDnsTest {
+    @Test
+    void shouldCacheResolvedAddresses() throws UnknownHostException {
+        Dns delegate = mock(Dns.class);
+        List<InetAddress> addresses = List.of(InetAddress.getLoopbackAddress());
+        when(delegate.lookup("mocked.com")).thenReturn(addresses);
+
+        CachingDns cachingDns = new CachingDns(delegate, Duration.ofMinutes(1));
+
+        assertEquals(addresses, cachingDns.lookup("mocked.com"));
+        assertEquals(addresses, cachingDns.lookup("mocked.com"));
+
+        verify(delegate).lookup("mocked.com");
+    }
+
+    @Test
+    void shouldNotCacheWithoutTtl() throws UnknownHostException {
+        Dns delegate = mock(Dns.class);
+        List<InetAddress> addresses = List.of(InetAddress.getLoopbackAddress());
+        when(delegate.lookup("mocked.com")).thenReturn(addresses);
+
+        CachingDns cachingDns = new CachingDns(delegate, Duration.ZERO);
+
+        assertEquals(addresses, cachingDns.lookup("mocked.com"));
+        assertEquals(addresses, cachingDns.lookup("mocked.com"));
+
+        verify(delegate, times(2)).lookup("mocked.com");
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerInterceptorTest {
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Mock
+    private Call call;
+
+    @Mock
+    private Clock clock;
+
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+    }
+
+    @Test
+    void shouldOpenCircuitAfterConsecutiveFailures() throws IOException {
+        when(chain.call()).thenReturn(call);
+        when(chain.proceed(any())).thenThrow(new SocketTimeoutException("timeout"));
+        when(clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(2, Duration.ofSeconds(30), clock);
+
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(chain));
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, getHostCircuit(interceptor).getState());
+
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(chain));
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, getHostCircuit(interceptor).getState());
+        assertEquals(2, getHostCircuit(interceptor).getConsecutiveFailures());
+
+        assertThrows(CircuitOpenException.class, () -> interceptor.intercept(chain));
+        verify(chain, times(2)).proceed(any());
+    }
+
+    @Test
+    void shouldCountServerErrorsAsFailures() throws IOException {
+        when(chain.proceed(any())).thenReturn(response(503));
+        when(clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), clock);
+
+        assertEquals(503, interceptor.intercept(chain).code());
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, getHostCircuit(interceptor).getState());
+        assertEquals(Instant.ofEpochSecond(0), getHostCircuit(interceptor).getOpenedAt());
+    }
+
+    @Test
+    void shouldCloseCircuitWhenProbeSucceeds() throws IOException {
+        when(chain.proceed(any())).thenReturn(response(500)).thenReturn(response(200));
+        when(clock.instant()).thenReturn(Instant.ofEpochSecond(0)).thenReturn(Instant.ofEpochSecond(30));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), clock);
+
+        interceptor.intercept(chain);
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, getHostCircuit(interceptor).getState());
+
+        assertEquals(200, interceptor.intercept(chain).code());
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, getHostCircuit(interceptor).getState());
+        assertEquals(0, getHostCircuit(interceptor).getConsecutiveFailures());
+        assertNull(getHostCircuit(interceptor).getOpenedAt());
+    }
+
+    @Test
+    void shouldReopenCircuitWhenProbeFails() throws IOException {
+        when(chain.proceed(any())).thenReturn(response(500));
+        when(clock.instant())
+                .thenReturn(Instant.ofEpochSecond(0))
+                .thenReturn(Instant.ofEpochSecond(30))
+                .thenReturn(Instant.ofEpochSecond(31));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), clock);
+
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, getHostCircuit(interceptor).getState());
+        assertEquals(Instant.ofEpochSecond(31), getHostCircuit(interceptor).getOpenedAt());
+    }
+
+    @Test
+    void shouldNotCountCanceledRequests() throws IOException {
+        when(chain.call()).thenReturn(call);
+        when(chain.proceed(any())).thenThrow(new InterruptedIOException("interrupted"));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), clock);
+
+        assertThrows(InterruptedIOException.class, () -> interceptor.intercept(chain));
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, getHostCircuit(interceptor).getState());
+        assertEquals(0, getHostCircuit(interceptor).getConsecutiveFailures());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedClosedCircuitsBeyondMaxCircuits() throws IOException {
+        when(chain.proceed(any())).thenReturn(response(503)).thenReturn(response(200));
+        when(clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), clock, 2);
+
+        interceptor.intercept(chain);
+
+        for (String host : List.of("a.mocked.com", "b.mocked.com", "c.mocked.com")) {
+            when(chain.request()).thenReturn(new Request.Builder().url("https://" + host).build());
+            interceptor.intercept(chain);
+        }
+
+        assertEquals(
+                Set.of("mocked.com", "b.mocked.com", "c.mocked.com"),
+                interceptor.getHostCircuits().stream()
+                        .map(CircuitBreakerInterceptor.HostCircuit::getHost)
+                        .collect(Collectors.toSet()));
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, getHostCircuit(interceptor).getState());
+    }
+
+    private CircuitBreakerInterceptor.HostCircuit getHostCircuit(CircuitBreakerInterceptor interceptor) {
+        return interceptor.getHostCircuits().stream()
+                .filter(hostCircuit -> hostCircuit.getHost().equals("mocked.com"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Response response(int code) {
+        return new Response.Builder()
+                .code(code)
+                .request(request)
+                .protocol(Protocol.HTTP_2)
+                .message("message")
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalCacheInterceptorTest {
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Test
+    void shouldServeFreshResponseFromCache() throws IOException {
+        Request request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any()))
+                .thenReturn(response(request, 200, "response", "Cache-Control", "max-age=60"));
+
+        ConditionalCacheInterceptor interceptor = new ConditionalCacheInterceptor(1024 * 1024);
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertEquals("response", response.body().string());
+        }
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertEquals(200, response.code());
+            assertEquals("response", response.body().string());
+        }
+
+        verify(chain).proceed(any());
+        assertEquals(1, interceptor.getHitCount());
+        assertEquals(1, interceptor.getMissCount());
+        assertEquals(0, interceptor.getRevalidationCount());
+    }
+
+    @Test
+    void shouldRevalidateStaleResponse() throws IOException {
+        Request request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any()))
+                .thenReturn(response(request, 200, "response", "ETag", "\"v1\""))
+                .thenReturn(response(request, 304, "", "ETag", "\"v1\""));
+
+        ConditionalCacheInterceptor interceptor = new ConditionalCacheInterceptor(1024 * 1024);
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertEquals("response", response.body().string());
+        }
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertEquals(200, response.code());
+            assertEquals("response", response.body().string());
+        }
+
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        verify(chain, times(2)).proceed(requestCaptor.capture());
+        assertNull(requestCaptor.getAllValues().getFirst().header("If-None-Match"));
+        assertEquals("\"v1\"", requestCaptor.getAllValues().getLast().header("If-None-Match"));
+        assertEquals(0, interceptor.getHitCount());
+        assertEquals(1, interceptor.getMissCount());
+        assertEquals(1, interceptor.getRevalidationCount());
+    }
+
+    @Test
+    void shouldNotStoreNoStoreResponse() throws IOException {
+        Request request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any()))
+                .thenReturn(response(request, 200, "response", "Cache-Control", "no-store"))
+                .thenReturn(response(request, 200, "response", "Cache-Control", "no-store"));
+
+        ConditionalCacheInterceptor interceptor = new ConditionalCacheInterceptor(1024 * 1024);
+
+        interceptor.intercept(chain).close();
+        interceptor.intercept(chain).close();
+
+        verify(chain, times(2)).proceed(any());
+        assertEquals(0, interceptor.getSize());
+        assertEquals(2, interceptor.getMissCount());
+    }
+
+    @Test
+    void shouldKeepCacheKeyedByHeaders() throws IOException {
+        Request request = new Request.Builder()
+                .url("https://mocked.com")
+                .header("Authorization", "token")
+                .build();
+        Request otherRequest = new Request.Builder()
+                .url("https://mocked.com")
+                .header("Authorization", "other")
+                .build();
+        when(chain.request()).thenReturn(request).thenReturn(otherRequest);
+        when(chain.proceed(any()))
+                .thenReturn(response(request, 200, "response", "Cache-Control", "max-age=60"))
+                .thenReturn(response(otherRequest, 200, "other", "Cache-Control", "max-age=60"));
+
+        ConditionalCacheInterceptor interceptor = new ConditionalCacheInterceptor(1024 * 1024);
+
+        interceptor.intercept(chain).close();
+        interceptor.intercept(chain).close();
+
+        verify(chain, times(2)).proceed(any());
+        assertEquals(0, interceptor.getHitCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedResponses() throws IOException {
+        when(chain.proceed(any()))
+                .thenAnswer(invocation ->
+                        response(invocation.getArgument(0), 200, "a".repeat(100), "Cache-Control", "max-age=60"));
+
+        ConditionalCacheInterceptor interceptor = new ConditionalCacheInterceptor(1200);
+
+        for (int i = 0; i < 10; i++) {
+            when(chain.request())
+                    .thenReturn(new Request.Builder()
+                            .url("https://mocked.com/" + i)
+                            .build());
+            interceptor.intercept(chain).close();
+        }
+
+        assertTrue(interceptor.getSize() <= 1200);
+
+        when(chain.request())
+                .thenReturn(new Request.Builder().url("https://mocked.com/0").build());
+        interceptor.intercept(chain).close();
+
+        verify(chain, times(11)).proceed(any());
+        assertEquals(0, interceptor.getHitCount());
+    }
+
+    private static Response response(Request request, int code, String body, String headerName, String headerValue) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_2)
+                .code(code)
+                .message("message")
+                .header(headerName, headerValue)
+                .body(ResponseBody.create(body, null))
+                .build();
+    }
+}
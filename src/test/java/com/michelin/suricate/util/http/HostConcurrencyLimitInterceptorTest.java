@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HostConcurrencyLimitInterceptorTest {
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Test
+    void shouldHoldPermitUntilBodyClosed() throws IOException {
+        Request request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenReturn(new Response.Builder()
+                .code(200)
+                .request(request)
+                .protocol(Protocol.HTTP_2)
+                .message("OK")
+                .body(ResponseBody.create("response", null))
+                .build());
+
+        HostConcurrencyLimitInterceptor interceptor = new HostConcurrencyLimitInterceptor(2);
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertEquals(1, interceptor.getAvailablePermits("mocked.com"));
+            assertEquals("response", response.body().string());
+        }
+
+        assertEquals(2, interceptor.getAvailablePermits("mocked.com"));
+    }
+
+    @Test
+    void shouldReleasePermitOnFailure() throws IOException {
+        Request request = new Request.Builder().url("https://mocked.com").build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenThrow(new IOException("error"));
+
+        HostConcurrencyLimitInterceptor interceptor = new HostConcurrencyLimitInterceptor(2);
+
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+        assertEquals(2, interceptor.getAvailablePermits("mocked.com"));
+    }
+}
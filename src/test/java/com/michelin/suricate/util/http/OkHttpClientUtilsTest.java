@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.michelin.suricate.property.ApplicationProperties;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+
+class OkHttpClientUtilsTest {
+    @Test
+    void shouldShareClient() {
+        assertSame(OkHttpClientUtils.getUnsafeOkHttpClient(), OkHttpClientUtils.getUnsafeOkHttpClient());
+    }
+
+    @Test
+    void shouldCreateClient() {
+        ApplicationProperties.HttpClient httpClientProperties = new ApplicationProperties.HttpClient();
+        httpClientProperties.setMaxRequests(100);
+        httpClientProperties.setMaxRequestsPerHost(10);
+
+        OkHttpClient actual = OkHttpClientUtils.createUnsafeOkHttpClient(httpClientProperties, null);
+
+        assertEquals(100, actual.dispatcher().getMaxRequests());
+        assertEquals(10, actual.dispatcher().getMaxRequestsPerHost());
+        assertEquals(2, actual.protocols().size());
+        assertEquals(Protocol.HTTP_2, actual.protocols().getFirst());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.michelin.suricate.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.michelin.suricate.property.ProxyProperties;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WidgetProxySelectorTest {
+    @Test
+    void shouldNotUseProxyWithoutProperties() {
+        WidgetProxySelector widgetProxySelector = new WidgetProxySelector(null);
+
+        List<Proxy> actual = widgetProxySelector.select(URI.create("https://mocked.com"));
+
+        assertEquals(List.of(Proxy.NO_PROXY), actual);
+    }
+
+    @Test
+    void shouldNotUseProxyWithoutNonProxyHosts() {
+        ProxyProperties proxyProperties = new ProxyProperties();
+        proxyProperties.setHttpHost("proxy.com");
+        proxyProperties.setHttpPort("8080");
+
+        WidgetProxySelector widgetProxySelector = new WidgetProxySelector(proxyProperties);
+
+        List<Proxy> actual = widgetProxySelector.select(URI.create("https://mocked.com"));
+
+        assertEquals(List.of(Proxy.NO_PROXY), actual);
+    }
+
+    @Test
+    void shouldRouteHosts() {
+        ProxyProperties proxyProperties = new ProxyProperties();
+        proxyProperties.setHttpHost("proxy.com");
+        proxyProperties.setHttpPort("8080");
+        proxyProperties.setNonProxyHosts("*.internal.com|localhost");
+
+        WidgetProxySelector widgetProxySelector = new WidgetProxySelector(proxyProperties);
+
+        List<Proxy> proxied = widgetProxySelector.select(URI.create("https://mocked.com/api"));
+
+        assertEquals(1, proxied.size());
+        assertEquals(Proxy.Type.HTTP, proxied.getFirst().type());
+        assertEquals(8080, ((InetSocketAddress) proxied.getFirst().address()).getPort());
+        assertSame(proxied, widgetProxySelector.select(URI.create("https://mocked.com/other")));
+        assertEquals(List.of(Proxy.NO_PROXY), widgetProxySelector.select(URI.create("https://api.INTERNAL.com")));
+        assertEquals(List.of(Proxy.NO_PROXY), widgetProxySelector.select(URI.create("http://localhost:8080")));
+    }
+}